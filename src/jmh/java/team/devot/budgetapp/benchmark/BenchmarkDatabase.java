@@ -0,0 +1,53 @@
+package team.devot.budgetapp.benchmark;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import team.devot.budgetapp.BudgetappApplication;
+import team.devot.budgetapp.search.ExpenseSearchIndex;
+import team.devot.budgetapp.service.ExpenseRollupService;
+
+/**
+ * Starts the application against a fresh in-memory H2 database and seeds it with generated expenses.
+ */
+final class BenchmarkDatabase {
+
+    /**
+     * The user owning every seeded expense.
+     */
+    static final String USERNAME = "benchmark";
+
+    private BenchmarkDatabase() {
+    }
+
+    /**
+     * Starts the application and seeds the given number of expenses, spread over three years and five categories.
+     * Rows are generated inside H2 with a single INSERT ... SELECT, so even the largest dataset seeds in seconds.
+     *
+     * @param expenses   The number of expenses to seed.
+     * @param properties Additional application properties, as key=value pairs.
+     * @return The running application context.
+     */
+    static ConfigurableApplicationContext start(int expenses, String... properties) {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(BudgetappApplication.class)
+                .properties("spring.datasource.url=jdbc:h2:mem:benchmark-" + expenses + ";DB_CLOSE_DELAY=-1",
+                        "server.port=0",
+                        "logging.level.root=WARN")
+                .properties(properties)
+                .run();
+
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("INSERT INTO USERS (USER_USERNAME, USER_PASSWORD, USER_EMAIL, USER_BALANCE) " +
+                "VALUES (?, 'password', 'benchmark@example.com', 100000000000000000)", USERNAME);
+        jdbcTemplate.update("INSERT INTO EXPENSE (EXPENSE_DESCRIPTION, EXPENSE_AMOUNT, EXPENSE_CATEGORY, " +
+                "EXPENSE_USERNAME, \"DATE\", EXPENSE_ID) " +
+                "SELECT 'Expense ' || X, MOD(X, 500) * 100 + 50, " +
+                "CASE MOD(X, 5) WHEN 0 THEN 'Food' WHEN 1 THEN 'Utility' WHEN 2 THEN 'Car' WHEN 3 THEN 'Gym' " +
+                "ELSE 'Fun' END, ?, DATEADD(DAY, -MOD(X, 1095), CURRENT_DATE), NEXT VALUE FOR EXPENSE_SEQ " +
+                "FROM SYSTEM_RANGE(1, ?)",
+                USERNAME, expenses);
+        context.getBean(ExpenseRollupService.class).rebuild();
+        context.getBean(ExpenseSearchIndex.class).rebuild();
+        return context;
+    }
+}
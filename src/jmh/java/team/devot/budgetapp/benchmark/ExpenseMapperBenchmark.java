@@ -0,0 +1,31 @@
+package team.devot.budgetapp.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import team.devot.budgetapp.mapper.impl.ExpenseMapper;
+import team.devot.budgetapp.model.Expense;
+import team.devot.budgetapp.model.Money;
+import team.devot.budgetapp.model.dto.ExpenseDTO;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the entity to DTO mapping done for every expense returned by the API.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ExpenseMapperBenchmark {
+
+    private final ExpenseMapper mapper = new ExpenseMapper();
+    private final Expense expense = new Expense(1L, "Groceries", Money.parse("42.50"), "Food", "benchmark",
+            LocalDate.now());
+
+    @Benchmark
+    public ExpenseDTO mapTo() {
+        return mapper.mapTo(expense);
+    }
+}
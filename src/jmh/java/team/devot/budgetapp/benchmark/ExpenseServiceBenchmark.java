@@ -0,0 +1,105 @@
+package team.devot.budgetapp.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.jdbc.core.JdbcTemplate;
+import team.devot.budgetapp.model.ExpenseView;
+import team.devot.budgetapp.model.Filter;
+import team.devot.budgetapp.model.Granularity;
+import team.devot.budgetapp.model.Money;
+import team.devot.budgetapp.model.SeriesBucket;
+import team.devot.budgetapp.model.dto.ExpenseDTO;
+import team.devot.budgetapp.service.ExpenseService;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the hot paths of ExpenseServiceImpl against seeded datasets of increasing size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ExpenseServiceBenchmark {
+
+    @Param({"10000", "1000000", "10000000"})
+    private int expenses;
+
+    private ConfigurableApplicationContext context;
+    private ExpenseService expenseService;
+    private Filter filter;
+    private Filter searchFilter;
+    private Long expenseId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkDatabase.start(expenses);
+        expenseService = context.getBean(ExpenseService.class);
+        expenseId = context.getBean(JdbcTemplate.class).queryForObject("SELECT MIN(EXPENSE_ID) FROM EXPENSE",
+                Long.class);
+
+        filter = new Filter();
+        filter.setUsername(BenchmarkDatabase.USERNAME);
+        filter.setExpenseCategory("Food");
+        filter.setStartDate(LocalDate.now().minusMonths(6));
+        filter.setPage(5);
+        filter.setSize(20);
+        filter.setSortOrder("desc");
+        filter.setSortField("date");
+
+        searchFilter = new Filter();
+        searchFilter.setUsername(BenchmarkDatabase.USERNAME);
+        searchFilter.setDescription("expense 1234");
+        searchFilter.setExpenseCategory("Food");
+        searchFilter.setSize(20);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ExpenseDTO getExpense() {
+        return expenseService.getExpense(BenchmarkDatabase.USERNAME, expenseId);
+    }
+
+    @Benchmark
+    public Page<ExpenseView> getAllExpenses() {
+        return expenseService.getAllExpenses(filter);
+    }
+
+    @Benchmark
+    public Page<ExpenseView> searchExpenses() {
+        return expenseService.getAllExpenses(searchFilter);
+    }
+
+    @Benchmark
+    public Map<String, Money> aggregateDataByPeriod() {
+        return expenseService.aggregateDataByPeriod(BenchmarkDatabase.USERNAME, "lastYear");
+    }
+
+    @Benchmark
+    public List<SeriesBucket> getSpendingSeries() {
+        LocalDate today = LocalDate.now();
+        return expenseService.getSpendingSeries(BenchmarkDatabase.USERNAME, today.minusYears(1), today,
+                Granularity.WEEK);
+    }
+
+    @Benchmark
+    public void createExpense() {
+        ExpenseDTO expense = ExpenseDTO.builder()
+                .description("Benchmark expense")
+                .amount(Money.parse("12.50"))
+                .expenseCategory("Food")
+                .username(BenchmarkDatabase.USERNAME)
+                .build();
+        expenseService.createExpense(expense);
+    }
+}
@@ -0,0 +1,56 @@
+package team.devot.budgetapp.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import team.devot.budgetapp.model.Money;
+import team.devot.budgetapp.model.dto.ExpenseDTO;
+import team.devot.budgetapp.service.ExpenseService;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how expense writes of one user contend for the lock of the user. All benchmark threads create expenses of
+ * the same user, so the writes are fully serialized on the user row and the throughput is the inverse of the time the
+ * lock is held per write. The tail parameter seeds that many ledger entries of the user beforehand; writes only append
+ * to the ledger and never read it, so the throughput should not depend on it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(8)
+@Fork(1)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 5)
+public class LedgerContentionBenchmark {
+
+    @Param({"0", "100000"})
+    private int tail;
+
+    private ConfigurableApplicationContext context;
+    private ExpenseService expenseService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkDatabase.start(0, "spring.datasource.hikari.maximum-pool-size=16");
+        context.getBean(JdbcTemplate.class).update("INSERT INTO BALANCE_ENTRY (ENTRY_ID, ENTRY_USERNAME, ENTRY_TYPE, " +
+                "ENTRY_AMOUNT, ENTRY_CREATED_AT) SELECT NEXT VALUE FOR BALANCE_ENTRY_SEQ, ?, 'DEBIT', -1, " +
+                "CURRENT_TIMESTAMP FROM SYSTEM_RANGE(1, ?)", BenchmarkDatabase.USERNAME, tail);
+        expenseService = context.getBean(ExpenseService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void createExpense() {
+        expenseService.createExpense(ExpenseDTO.builder()
+                .description("Contended expense")
+                .amount(Money.parse("1.00"))
+                .expenseCategory("Food")
+                .username(BenchmarkDatabase.USERNAME)
+                .build());
+    }
+}
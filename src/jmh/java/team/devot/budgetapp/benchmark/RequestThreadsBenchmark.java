@@ -0,0 +1,71 @@
+package team.devot.budgetapp.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import team.devot.budgetapp.repository.UserRepository;
+import team.devot.budgetapp.security.TokenService;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load test comparing request handling on the Tomcat platform thread pool with handling on virtual threads.
+ * 2000 benchmark threads act as concurrent clients, each sending filter requests over HTTP as fast as it gets
+ * answers, and the sample mode reports the latency percentiles including p99. The virtual mode needs the forked JVM
+ * to be JDK 21 or newer, e.g. {@code -Djmh.args="RequestThreadsBenchmark -jvm /path/to/jdk-21/bin/java"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(2000)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx2g", "-Djdk.virtualThreadScheduler.maxPoolSize=256"})
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 10)
+public class RequestThreadsBenchmark {
+
+    private static final String FILTER = "{\"page\":0,\"size\":20,\"sortField\":\"date\",\"sortOrder\":\"desc\"}";
+
+    @Param({"platform", "virtual"})
+    private String threads;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private HttpRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkDatabase.start(100_000,
+                "budgetapp.threads.virtual=" + "virtual".equals(threads),
+                "server.tomcat.threads.max=200",
+                "server.tomcat.max-connections=10000",
+                "server.tomcat.accept-count=10000");
+        Long userId = context.getBean(UserRepository.class).findByUsername(BenchmarkDatabase.USERNAME)
+                .orElseThrow().getId();
+        String token = context.getBean(TokenService.class).issue(userId, BenchmarkDatabase.USERNAME).getToken();
+
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        request = HttpRequest.newBuilder(URI.create("http://localhost:"
+                        + context.getEnvironment().getProperty("local.server.port") + "/api/expense/filter"))
+                .header("Authorization", TokenService.TOKEN_TYPE + " " + token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(FILTER))
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int filterExpenses() throws IOException, InterruptedException {
+        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 200)
+            throw new IllegalStateException("Unexpected status " + response.statusCode());
+        return response.statusCode();
+    }
+}
@@ -0,0 +1,74 @@
+package team.devot.budgetapp.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import team.devot.budgetapp.model.ExpenseView;
+import team.devot.budgetapp.model.Money;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Benchmarks writing a 1,000 row page of the filter endpoint in each negotiated response format. The payload size of
+ * every format is printed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ResponseFormatBenchmark {
+
+    private static final String[] CATEGORIES = {"Food", "Utility", "Car", "Gym", "Fun"};
+
+    @Param({"json", "json-gzip", "smile", "cbor"})
+    private String format;
+
+    private ObjectMapper objectMapper;
+    private Page<ExpenseView> page;
+
+    @Setup
+    public void setUp() throws IOException {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        objectMapper = switch (format) {
+            case "smile" -> builder.factory(new SmileFactory()).build();
+            case "cbor" -> builder.factory(new CBORFactory()).build();
+            default -> builder.build();
+        };
+        List<ExpenseView> expenses = new ArrayList<>(1_000);
+        LocalDate today = LocalDate.now();
+        for (int i = 0; i < 1_000; i++) {
+            expenses.add(new ExpenseView(1_000_000L - i, "Expense " + i, Money.ofMinor(100 + i * 37L),
+                    CATEGORIES[i % CATEGORIES.length], today.minusDays(i % 365)));
+        }
+        page = new PageImpl<>(expenses, PageRequest.of(0, 1_000, Sort.by(Sort.Direction.DESC, "date")), 50_000);
+        System.out.println(format + " payload: " + write().length + " bytes");
+    }
+
+    @Benchmark
+    public byte[] write() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 * 1024);
+        if (format.equals("json-gzip")) {
+            try (OutputStream out = new GZIPOutputStream(bytes)) {
+                objectMapper.writeValue(out, page);
+            }
+        } else {
+            objectMapper.writeValue(bytes, page);
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,82 @@
+package team.devot.budgetapp.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import team.devot.budgetapp.model.Money;
+import team.devot.budgetapp.repository.ExpenseRollupRepository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the allocations of the rollup aggregation read as primitive longs with the same aggregation read as
+ * JPQL Object[] rows holding boxed totals. Run with {@code -prof gc} and compare gc.alloc.rate.norm.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class RollupAggregationBenchmark {
+
+    private static final String JPQL_AGGREGATE = "SELECT r.category, SUM(r.total) FROM ExpenseRollup r " +
+            "WHERE r.username = :username AND r.month BETWEEN :startMonth AND :endMonth GROUP BY r.category";
+
+    private ConfigurableApplicationContext context;
+    private ExpenseRollupRepository rollupRepository;
+    private EntityManager entityManager;
+    private TransactionTemplate transactionTemplate;
+    private LocalDate startMonth;
+    private LocalDate endMonth;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkDatabase.start(100000);
+        rollupRepository = context.getBean(ExpenseRollupRepository.class);
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(
+                context.getBean(EntityManagerFactory.class));
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        transactionTemplate.setReadOnly(true);
+        endMonth = LocalDate.now().withDayOfMonth(1);
+        startMonth = endMonth.minusYears(3);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Map<String, Money> primitiveTotals() {
+        return transactionTemplate.execute(status -> {
+            Map<String, Money> totals = new HashMap<>();
+            rollupRepository.forEachCategoryTotal(BenchmarkDatabase.USERNAME, startMonth, endMonth,
+                    (category, total) -> totals.put(category, Money.ofMinor(total)));
+            return totals;
+        });
+    }
+
+    @Benchmark
+    public Map<String, Money> boxedRows() {
+        return transactionTemplate.execute(status -> {
+            List<Object[]> rows = entityManager.createQuery(JPQL_AGGREGATE, Object[].class)
+                    .setParameter("username", BenchmarkDatabase.USERNAME)
+                    .setParameter("startMonth", startMonth)
+                    .setParameter("endMonth", endMonth)
+                    .getResultList();
+            Map<String, Money> totals = new HashMap<>();
+            for (Object[] row : rows)
+                totals.put((String) row[0], Money.ofMinor((Long) row[1]));
+            return totals;
+        });
+    }
+}
@@ -0,0 +1,54 @@
+package team.devot.budgetapp.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import team.devot.budgetapp.BudgetappApplication;
+import team.devot.budgetapp.security.TokenService;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Startup-time benchmark: the time from starting the application in a fresh JVM to the first successful
+ * {@code /api/category} response. Every fork measures a single cold start. The class-data-sharing archive of the cds
+ * build profile does not apply to the class path of the benchmark; compare it by starting the packaged jar with and
+ * without {@code -XX:SharedArchiveFile}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 5, jvmArgsAppend = "-Xmx1g")
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+public class StartupBenchmark {
+
+    private ConfigurableApplicationContext context;
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (context != null)
+            context.close();
+    }
+
+    @Benchmark
+    public int firstCategoryResponse() throws IOException, InterruptedException {
+        context = new SpringApplicationBuilder(BudgetappApplication.class).run("--server.port=0");
+        String token = context.getBean(TokenService.class).issue(0L, "startup-benchmark").getToken();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:"
+                        + context.getEnvironment().getProperty("local.server.port") + "/api/category"))
+                .header("Authorization", TokenService.TOKEN_TYPE + " " + token)
+                .build();
+        HttpClient client = HttpClient.newHttpClient();
+        while (true) {
+            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() == 200)
+                return response.statusCode();
+            Thread.sleep(1);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package team.devot.budgetapp.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import team.devot.budgetapp.security.TokenService;
+import team.devot.budgetapp.security.TokenUserDetails;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the token verification done to authenticate every request carrying a Bearer token.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class TokenServiceBenchmark {
+
+    private final TokenService tokenService = new TokenService("benchmark-secret", Duration.ofHours(1));
+    private final String token = tokenService.issue(1L, "benchmark").getToken();
+
+    @Benchmark
+    public Optional<TokenUserDetails> verify() {
+        return tokenService.verify(token);
+    }
+}
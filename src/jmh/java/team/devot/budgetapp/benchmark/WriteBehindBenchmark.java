@@ -0,0 +1,103 @@
+package team.devot.budgetapp.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.FileSystemUtils;
+import team.devot.budgetapp.BudgetappApplication;
+import team.devot.budgetapp.model.Money;
+import team.devot.budgetapp.model.dto.ExpenseDTO;
+import team.devot.budgetapp.service.ExpenseService;
+import team.devot.budgetapp.service.ExpenseWriteBehindService;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compares the throughput of the synchronous createExpense path with accepting expenses in the write-behind mode,
+ * against the file-backed database of the prod profile. Every benchmark thread writes the expenses of its own user.
+ * An accept is measured until it is acknowledged, that is checked against the balance and fsynced to the journal;
+ * the background writer is given time to catch up after every iteration, outside of the measurement.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(16)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class WriteBehindBenchmark {
+
+    private static final int USERS = 64;
+
+    private final AtomicInteger threads = new AtomicInteger();
+
+    private Path dataDir;
+    private ConfigurableApplicationContext context;
+    private ExpenseService expenseService;
+    private ExpenseWriteBehindService writeBehindService;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dataDir = Files.createTempDirectory("budgetapp-write-behind");
+        context = new SpringApplicationBuilder(BudgetappApplication.class).run(
+                "--spring.profiles.active=prod",
+                "--budgetapp.data-dir=" + dataDir,
+                "--budgetapp.write-behind.enabled=true",
+                "--server.port=0",
+                "--logging.level.root=WARN");
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        for (int i = 0; i < USERS; i++)
+            jdbcTemplate.update("INSERT INTO USERS (USER_USERNAME, USER_PASSWORD, USER_EMAIL, USER_BALANCE) " +
+                    "VALUES (?, 'password', ?, 100000000000000000)", "writer" + i, "writer" + i + "@example.com");
+        expenseService = context.getBean(ExpenseService.class);
+        writeBehindService = context.getBean(ExpenseWriteBehindService.class);
+    }
+
+    @TearDown(Level.Iteration)
+    public void awaitWritten() {
+        if (!writeBehindService.awaitWritten(Duration.ofMinutes(5)))
+            throw new IllegalStateException("The write-behind writer did not catch up");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        FileSystemUtils.deleteRecursively(dataDir);
+    }
+
+    @State(Scope.Thread)
+    public static class Writer {
+
+        private String username;
+
+        @Setup(Level.Trial)
+        public void setUp(WriteBehindBenchmark benchmark) {
+            username = "writer" + benchmark.threads.getAndIncrement() % USERS;
+        }
+
+        ExpenseDTO expense() {
+            return ExpenseDTO.builder()
+                    .description("Benchmark expense")
+                    .amount(Money.parse("12.50"))
+                    .expenseCategory("Food")
+                    .username(username)
+                    .build();
+        }
+    }
+
+    @Benchmark
+    public void createExpense(Writer writer) {
+        expenseService.createExpense(writer.expense());
+    }
+
+    @Benchmark
+    public void acceptExpense(Writer writer) {
+        writeBehindService.acceptExpense(writer.expense());
+    }
+}
@@ -2,11 +2,13 @@ package team.devot.budgetapp;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
 
 /**
  * BudgetappApplication is the main class that bootstraps the Spring Boot application.
+ * The R2DBC auto-configuration is excluded, since a ConnectionFactory bean would replace the JDBC DataSource.
  */
-@SpringBootApplication
+@SpringBootApplication(exclude = R2dbcAutoConfiguration.class)
 public class BudgetappApplication {
 
 	/**
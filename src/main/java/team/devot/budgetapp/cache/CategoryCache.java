@@ -0,0 +1,176 @@
+package team.devot.budgetapp.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import team.devot.budgetapp.model.Category;
+import team.devot.budgetapp.repository.CategoryRepository;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * CategoryCache keeps an in-memory copy of the category table in front of CategoryRepository.
+ * The whole table is loaded at once into an immutable snapshot holding the ordered list and lookups by id and name,
+ * so reads need no SQL until the next write invalidates the snapshot. Tables larger than the configured maximum size
+ * are not cached and every read goes to the database.
+ */
+@Component
+public class CategoryCache {
+
+    private final CategoryRepository categoryRepository;
+    private final int maxSize;
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    private volatile Snapshot snapshot;
+    private volatile boolean oversized;
+
+    /**
+     * Creates an empty cache that is loaded on first use.
+     *
+     * @param categoryRepository The repository the categories are loaded from.
+     * @param maxSize            The maximum number of categories held in memory.
+     */
+    public CategoryCache(CategoryRepository categoryRepository,
+                         @Value("${budgetapp.category-cache.max-size:1000}") int maxSize) {
+        this.categoryRepository = categoryRepository;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Retrieves all categories ordered by their unique identifiers.
+     *
+     * @return An unmodifiable list of all categories.
+     */
+    public List<Category> getAll() {
+        Snapshot current = snapshot();
+        return current != null ? current.all() : categoryRepository.findAllByOrderByid();
+    }
+
+    /**
+     * Finds a category by its unique identifier.
+     *
+     * @param id The unique identifier of the category.
+     * @return An Optional containing the found category, or empty if not found.
+     */
+    public Optional<Category> findById(Long id) {
+        Snapshot current = snapshot();
+        return current != null ? Optional.ofNullable(current.byId().get(id)) : categoryRepository.findById(id);
+    }
+
+    /**
+     * Finds a category by its name.
+     *
+     * @param name The name of the category.
+     * @return An Optional containing the found category, or empty if not found.
+     */
+    public Optional<Category> findByName(String name) {
+        Snapshot current = snapshot();
+        return current != null ? Optional.ofNullable(current.byName().get(name)) : categoryRepository.findByName(name);
+    }
+
+    /**
+     * Discards the cached categories after a write. When called inside a transaction, the cache is discarded again
+     * once the transaction completes, so a snapshot loaded before the commit or rollback is never kept.
+     */
+    public void invalidate() {
+        discard();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    discard();
+                }
+            });
+        }
+    }
+
+    /**
+     * Returns the number of reads served from memory.
+     *
+     * @return The hit count.
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * Returns the number of reads that had to query the database.
+     *
+     * @return The miss count.
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * Returns the number of categories currently held in memory.
+     *
+     * @return The cache size, 0 if nothing is cached.
+     */
+    public int size() {
+        Snapshot current = snapshot;
+        return current == null ? 0 : current.all().size();
+    }
+
+    private synchronized void discard() {
+        generation.incrementAndGet();
+        snapshot = null;
+        oversized = false;
+    }
+
+    /**
+     * Returns the current snapshot, loading it on a miss, or null if the table is too large to be cached. A loaded
+     * snapshot is only published if no invalidation happened while it was loaded, so a concurrent write can never be
+     * hidden by an older copy of the table.
+     */
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current != null) {
+            hits.incrementAndGet();
+            return current;
+        }
+        misses.incrementAndGet();
+        if (oversized)
+            return null;
+        long loadedGeneration = generation.get();
+        List<Category> categories = categoryRepository.findAllByOrderByid();
+        Snapshot loaded = Snapshot.of(categories);
+        synchronized (this) {
+            if (generation.get() == loadedGeneration) {
+                if (categories.size() > maxSize)
+                    oversized = true;
+                else
+                    snapshot = loaded;
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * An immutable copy of the category table.
+     */
+    private record Snapshot(List<Category> all, Map<Long, Category> byId, Map<String, Category> byName) {
+
+        static Snapshot of(List<Category> categories) {
+            List<Category> all = categories.stream()
+                    .map(category -> new Category(category.getId(), category.getName()))
+                    .collect(Collectors.toUnmodifiableList());
+            Map<Long, Category> byId = new HashMap<>();
+            Map<String, Category> byName = new HashMap<>();
+            for (Category category : all) {
+                byId.put(category.getId(), category);
+                byName.put(category.getName(), category);
+            }
+            return new Snapshot(all, Collections.unmodifiableMap(byId), Collections.unmodifiableMap(byName));
+        }
+    }
+}
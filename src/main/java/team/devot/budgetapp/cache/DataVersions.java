@@ -0,0 +1,92 @@
+package team.devot.budgetapp.cache;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * DataVersions keeps in-memory version numbers of the data of every user and of the categories, from which the GET
+ * endpoints derive their ETags. A version only ever grows, and it is bumped once the transaction of a write commits,
+ * so a tag handed out before the commit never matches the data after it.
+ * <p>
+ * All versions are drawn from one counter, so two users never share a version, and every version carries the start
+ * time of the application, so tags handed out before a restart never match afterwards. The tags are weak, since one
+ * version is served in several formats and encodings, and Tomcat does not compress responses with a strong tag.
+ * <p>
+ * The versions live in the memory of one instance and are only bumped by the writes it serves, so conditional GETs
+ * are only correct when a single instance serves the data. Behind a load balancer without sticky sessions, which the
+ * stateless tokens otherwise allow, a write served by another instance leaves this one answering 304 with stale data
+ * until it restarts. Running several instances needs the versions moved to the database, bumped in the transaction of
+ * the write, or the ETags turned off.
+ */
+@Component
+public class DataVersions {
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong counter = new AtomicLong();
+    private final Map<String, Long> users = new ConcurrentHashMap<>();
+    private volatile long categories = counter.incrementAndGet();
+
+    /**
+     * Returns a weak entity tag of the given versions and qualifiers.
+     *
+     * @param parts The versions and qualifiers, such as the date a response depends on.
+     * @return The weak entity tag.
+     */
+    public static String weakTag(String... parts) {
+        return "W/\"" + String.join("-", parts) + "\"";
+    }
+
+    /**
+     * Returns the current version of the data of a user.
+     *
+     * @param username The username of the user.
+     * @return The version.
+     */
+    public String userVersion(String username) {
+        return epoch + "-" + users.computeIfAbsent(username, key -> counter.incrementAndGet());
+    }
+
+    /**
+     * Returns the current version of the categories.
+     *
+     * @return The version.
+     */
+    public String categoryVersion() {
+        return epoch + "-" + categories;
+    }
+
+    /**
+     * Bumps the version of the data of a user after a write. When called inside a transaction, the version is bumped
+     * once the transaction commits, and not at all if it rolls back.
+     *
+     * @param username The username of the user whose data was written.
+     */
+    public void userChanged(String username) {
+        afterCommit(() -> users.put(username, counter.incrementAndGet()));
+    }
+
+    /**
+     * Bumps the version of the categories after a write, once the transaction commits if called inside one.
+     */
+    public void categoriesChanged() {
+        afterCommit(() -> categories = counter.incrementAndGet());
+    }
+
+    private void afterCommit(Runnable bump) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    bump.run();
+                }
+            });
+        } else {
+            bump.run();
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package team.devot.budgetapp.configuration;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationListener;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import team.devot.budgetapp.security.TokenService;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+/**
+ * Runs the training start of the class-data-sharing archive, enabled with {@code budgetapp.cds.training=true} by the
+ * cds build profile. Once the application is ready it serves one category request, so the classes of the request
+ * path are loaded as well, and then exits, at which point the JVM writes every loaded class to the archive.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "budgetapp.cds.training", havingValue = "true")
+public class CdsTrainingRunner implements ApplicationListener<ApplicationReadyEvent> {
+
+    private final TokenService tokenService;
+
+    /**
+     * Serves one category request and exits.
+     *
+     * @param event The ApplicationReadyEvent of the training start.
+     */
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        int port = ((WebServerApplicationContext) event.getApplicationContext()).getWebServer().getPort();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/category"))
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + tokenService.issue(0L, "cds-training").getToken())
+                .build();
+        try {
+            int status = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            log.info("CDS training request answered with {}, exiting to write the archive", status);
+        } catch (IOException e) {
+            log.warn("CDS training request failed, the archive will miss the request path", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        System.exit(SpringApplication.exit(event.getApplicationContext()));
+    }
+}
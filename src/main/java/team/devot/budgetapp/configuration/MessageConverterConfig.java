@@ -0,0 +1,47 @@
+package team.devot.budgetapp.configuration;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Message converter configuration class adding the binary Jackson formats to content negotiation. A client sending
+ * {@code Accept: application/cbor} or {@code Accept: application/x-jackson-smile} gets the response in that format,
+ * and may send request bodies in it as well; every other client keeps getting JSON, which is gzip-compressed when
+ * the client accepts it (see {@code server.compression} in application.yml).
+ * <p>
+ * Both formats are written with the same Jackson configuration as JSON, so an amount or a date reads back the same
+ * whichever format a client chooses. They drop the text encoding of numbers, and Smile also writes each repeated
+ * field name of a page only once.
+ */
+@Configuration
+public class MessageConverterConfig {
+
+    /**
+     * Creates the CBOR converter, replacing the default one Spring MVC would build without the Spring Boot Jackson
+     * configuration.
+     *
+     * @param builder The Jackson2ObjectMapperBuilder configured by Spring Boot.
+     * @return The MappingJackson2CborHttpMessageConverter bean.
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    /**
+     * Creates the Smile converter, replacing the default one Spring MVC would build without the Spring Boot Jackson
+     * configuration.
+     *
+     * @param builder The Jackson2ObjectMapperBuilder configured by Spring Boot.
+     * @return The MappingJackson2SmileHttpMessageConverter bean.
+     */
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+}
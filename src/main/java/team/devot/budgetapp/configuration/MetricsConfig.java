@@ -0,0 +1,101 @@
+package team.devot.budgetapp.configuration;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.actuate.metrics.web.servlet.WebMvcTagsContributor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import team.devot.budgetapp.cache.CategoryCache;
+import team.devot.budgetapp.security.LoginSessionRegistry;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.Set;
+
+/**
+ * Metrics configuration class adding the application-specific meters and tags to the Micrometer registry.
+ * Request, repository, Hibernate and connection pool metrics are provided by Spring Boot Actuator itself.
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * The periods the aggregate endpoint accepts, used as values of the period tag.
+     */
+    static final Set<String> PERIODS = Set.of("lastMonth", "lastQuarter", "lastYear");
+
+    private static final String AGGREGATE_PATH = "/api/expense/total";
+    private static final Tag NO_PERIOD = Tag.of("period", "none");
+    private static final Tag INVALID_PERIOD = Tag.of("period", "invalid");
+
+    /**
+     * Tags the request metrics with the period of the aggregate endpoint. Every request gets the tag, since all
+     * meters of one name must share their tag keys, and unknown periods share one value to keep the number of time
+     * series bounded.
+     *
+     * @return The WebMvcTagsContributor bean.
+     */
+    @Bean
+    public WebMvcTagsContributor periodTagsContributor() {
+        return new WebMvcTagsContributor() {
+            @Override
+            public Iterable<Tag> getTags(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                         Throwable exception) {
+                if (!AGGREGATE_PATH.equals(request.getRequestURI()))
+                    return Tags.of(NO_PERIOD);
+                String period = request.getParameter("period");
+                return Tags.of(PERIODS.contains(period) ? Tag.of("period", period) : INVALID_PERIOD);
+            }
+
+            @Override
+            public Iterable<Tag> getLongRequestTags(HttpServletRequest request, Object handler) {
+                return Tags.empty();
+            }
+        };
+    }
+
+    /**
+     * Binds the hit and miss counts and the size of the category cache.
+     *
+     * @param categoryCache The category cache.
+     * @return The MeterBinder bean.
+     */
+    @Bean
+    public MeterBinder categoryCacheMetrics(CategoryCache categoryCache) {
+        return registry -> {
+            FunctionCounter.builder("budgetapp.category.cache.requests", categoryCache, CategoryCache::getHitCount)
+                    .tag("result", "hit")
+                    .description("Category reads served from memory")
+                    .register(registry);
+            FunctionCounter.builder("budgetapp.category.cache.requests", categoryCache, CategoryCache::getMissCount)
+                    .tag("result", "miss")
+                    .description("Category reads that queried the database")
+                    .register(registry);
+            Gauge.builder("budgetapp.category.cache.size", categoryCache, CategoryCache::size)
+                    .description("Categories held in memory")
+                    .register(registry);
+        };
+    }
+
+    /**
+     * Binds the session and eviction counts of the login session registry.
+     *
+     * @param sessionRegistry The login session registry.
+     * @return The MeterBinder bean.
+     */
+    @Bean
+    public MeterBinder loginSessionMetrics(LoginSessionRegistry sessionRegistry) {
+        return registry -> {
+            Gauge.builder("budgetapp.sessions.active", sessionRegistry, LoginSessionRegistry::getSessionCount)
+                    .description("Login sessions held")
+                    .register(registry);
+            FunctionCounter.builder("budgetapp.sessions.evictions", sessionRegistry,
+                            LoginSessionRegistry::getEvictionCount)
+                    .description("Login sessions evicted after expiring or to stay within the maximum size")
+                    .register(registry);
+        };
+    }
+}
@@ -0,0 +1,34 @@
+package team.devot.budgetapp.configuration;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import team.devot.budgetapp.service.ExpenseRollupService;
+
+/**
+ * Rebuilds the monthly expense rollups from the raw expenses on startup.
+ * It is enabled by starting the application with {@code --budgetapp.rollup.rebuild=true}, which is needed once for
+ * databases that already contain expenses written before the rollups were introduced.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "budgetapp.rollup.rebuild", havingValue = "true")
+public class RollupRebuildRunner implements ApplicationRunner {
+
+    private final ExpenseRollupService rollupService;
+
+    /**
+     * Rebuilds the rollups.
+     *
+     * @param args Command-line arguments passed to the application.
+     */
+    @Override
+    public void run(ApplicationArguments args) {
+        int rollups = rollupService.rebuild();
+        log.info("Rebuilt {} expense rollups from raw expenses", rollups);
+    }
+}
@@ -0,0 +1,35 @@
+package team.devot.budgetapp.configuration;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+import team.devot.budgetapp.search.ExpenseSearchIndex;
+
+/**
+ * Builds the expense search index from the expense table on startup, unless the index was stored by the last run and
+ * still follows the database.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SearchIndexRebuildRunner implements ApplicationRunner {
+
+    private final ExpenseSearchIndex searchIndex;
+
+    /**
+     * Rebuilds the search index if it is not current.
+     *
+     * @param args Command-line arguments passed to the application.
+     */
+    @Override
+    public void run(ApplicationArguments args) {
+        if (searchIndex.isCurrent()) {
+            log.info("Reusing the stored description search index of {} expenses", searchIndex.size());
+            return;
+        }
+        int expenses = searchIndex.rebuild();
+        log.info("Indexed {} expenses for description search", expenses);
+    }
+}
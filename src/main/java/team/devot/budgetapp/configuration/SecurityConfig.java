@@ -3,17 +3,29 @@ package team.devot.budgetapp.configuration;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.web.authentication.AnonymousAuthenticationFilter;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.security.web.authentication.logout.HttpStatusReturningLogoutSuccessHandler;
+import team.devot.budgetapp.security.LoginSessionRegistry;
+import team.devot.budgetapp.security.SessionActivityFilter;
+import team.devot.budgetapp.security.TokenAuthenticationFilter;
+import team.devot.budgetapp.security.TokenService;
 
 /**
  * Security configuration class for handling authentication and authorization in the application.
+ * Requests carrying a Bearer token are handled by the stateless {@link TokenSecurityConfig} chain, all others by the
+ * login-based chain configured here.
  */
 @Configuration
 @RequiredArgsConstructor
@@ -21,7 +33,7 @@ import org.springframework.security.web.authentication.logout.HttpStatusReturnin
 public class SecurityConfig extends WebSecurityConfigurerAdapter {
 
     private final UserDetailsService userDetailsService;
-
+    private final LoginSessionRegistry sessionRegistry;
 
     /**
      * Provides a BCryptPasswordEncoder bean for password encoding.
@@ -64,8 +76,44 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
      */
     @Override
     protected void configure(HttpSecurity http) throws Exception {
-        http.csrf().disable().authorizeRequests()
-                .antMatchers( "/api/login", "/api/register", "/api/logout").permitAll()
+        http.csrf().disable()
+                .addFilterBefore(new SessionActivityFilter(sessionRegistry), AnonymousAuthenticationFilter.class)
+                .authorizeRequests()
+                .antMatchers( "/api/login", "/api/login/token", "/api/register", "/api/logout").permitAll()
+                .antMatchers("/actuator/health/**").permitAll()
                 .anyRequest().authenticated();
     }
+
+    /**
+     * Security configuration of the requests authenticated with a signed token.
+     * The chain keeps no session and authenticates every request from its token alone, so any node can serve it.
+     */
+    @Configuration
+    @Order(1)
+    @RequiredArgsConstructor
+    public static class TokenSecurityConfig extends WebSecurityConfigurerAdapter {
+
+        private final TokenService tokenService;
+
+        /**
+         * Configures the HttpSecurity of the requests carrying a Bearer token.
+         *
+         * @param http The HttpSecurity instance.
+         * @throws Exception If an error occurs while configuring the security.
+         */
+        @Override
+        protected void configure(HttpSecurity http) throws Exception {
+            http.requestMatcher(request -> TokenAuthenticationFilter.bearerToken(request) != null)
+                    .csrf().disable()
+                    .sessionManagement().sessionCreationPolicy(SessionCreationPolicy.STATELESS)
+                    .and()
+                    .exceptionHandling().authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED))
+                    .and()
+                    .addFilterBefore(new TokenAuthenticationFilter(tokenService),
+                            UsernamePasswordAuthenticationFilter.class)
+                    .authorizeRequests()
+                    .antMatchers("/api/login", "/api/login/token", "/api/register", "/api/logout").permitAll()
+                    .anyRequest().authenticated();
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,74 @@
+package team.devot.budgetapp.configuration;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.annotation.PreDestroy;
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Virtual thread configuration class running request handling on virtual threads instead of the Tomcat worker pool.
+ * It is enabled with {@code budgetapp.threads.virtual=true} and needs a JDK 21 or newer runtime. Every request, and
+ * the transactional service work it calls, then runs on its own virtual thread, so a request blocked on JDBC or
+ * BCrypt no longer holds one of a fixed number of platform threads.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "budgetapp.threads.virtual", havingValue = "true")
+public class VirtualThreadConfig implements WebMvcConfigurer {
+
+    private final ExecutorService executor = newVirtualThreadPerTaskExecutor();
+
+    /**
+     * Replaces the Tomcat worker pool with the virtual thread executor.
+     *
+     * @return The TomcatProtocolHandlerCustomizer bean.
+     */
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        return protocolHandler -> protocolHandler.setExecutor(executor);
+    }
+
+    /**
+     * Runs asynchronous request processing, such as streamed exports, on virtual threads as well.
+     *
+     * @param configurer The AsyncSupportConfigurer instance.
+     */
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(new TaskExecutorAdapter(executor));
+    }
+
+    /**
+     * Stops accepting new tasks once the application shuts down.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Creates the virtual thread executor through reflection, since the application is still compiled for JDK 17.
+     */
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            ExecutorService executor = (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            log.info("Handling requests on virtual threads");
+            return executor;
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("budgetapp.threads.virtual needs a JDK 21 or newer runtime, running on "
+                    + Runtime.version());
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Could not create the virtual thread executor", e);
+        }
+    }
+}
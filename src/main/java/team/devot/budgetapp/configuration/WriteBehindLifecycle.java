@@ -0,0 +1,56 @@
+package team.devot.budgetapp.configuration;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import team.devot.budgetapp.service.ExpenseWriteBehindService;
+
+/**
+ * Starts the asynchronous expense write mode, which is enabled with {@code budgetapp.write-behind.enabled=true}.
+ * It starts before the web server, so the journal is replayed and its expenses reserved before the first request,
+ * and stops after the web server, so the accepted expenses are written once no more requests come in.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "budgetapp.write-behind.enabled", havingValue = "true")
+public class WriteBehindLifecycle implements SmartLifecycle {
+
+    private final ExpenseWriteBehindService writeBehindService;
+
+    /**
+     * Replays the journal and starts accepting expenses.
+     */
+    @Override
+    public void start() {
+        writeBehindService.start();
+    }
+
+    /**
+     * Stops accepting expenses and writes the accepted ones.
+     */
+    @Override
+    public void stop() {
+        writeBehindService.stop();
+    }
+
+    /**
+     * Checks whether expenses are accepted.
+     *
+     * @return true if the write-behind mode is started, false otherwise.
+     */
+    @Override
+    public boolean isRunning() {
+        return writeBehindService.isRunning();
+    }
+
+    /**
+     * Returns a phase below the one of the web server, which is started after and stopped before this one.
+     *
+     * @return The phase.
+     */
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+}
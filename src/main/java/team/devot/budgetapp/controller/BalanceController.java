@@ -0,0 +1,64 @@
+package team.devot.budgetapp.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import team.devot.budgetapp.cache.DataVersions;
+import team.devot.budgetapp.model.BalanceHistoryEntry;
+import team.devot.budgetapp.model.Money;
+import team.devot.budgetapp.service.BalanceLedgerService;
+
+/**
+ * Controller class for handling HTTP requests related to the balance of the user.
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api")
+public class BalanceController {
+
+    private final BalanceLedgerService ledgerService;
+    private final DataVersions dataVersions;
+
+    /**
+     * Retrieves the current balance of the user. The response carries an ETag of the data version of the user, and a
+     * request whose If-None-Match still matches it is answered with 304 Not Modified.
+     *
+     * @param request The current request, checked against the data version of the user.
+     * @return The current balance, or null if the client copy is still current.
+     */
+    @GetMapping("/balance")
+    public Money getBalance(WebRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        UserDetails userDetails = (UserDetails) authentication.getPrincipal();
+        if (request.checkNotModified(DataVersions.weakTag(dataVersions.userVersion(userDetails.getUsername()))))
+            return null;
+        return ledgerService.getBalance(userDetails.getUsername());
+    }
+
+    /**
+     * Retrieves the balance history of the user: the entries of the balance ledger, newest first, each with the
+     * balance it resulted in. The response carries an ETag of the data version of the user, like the balance.
+     *
+     * @param page    The number of the page.
+     * @param size    The size of the page.
+     * @param request The current request, checked against the data version of the user.
+     * @return A Page of the ledger entries, or null if the client copy is still current.
+     */
+    @GetMapping("/balance/history")
+    public Page<BalanceHistoryEntry> getHistory(@RequestParam(defaultValue = "0") int page,
+                                                @RequestParam(defaultValue = "20") int size, WebRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        UserDetails userDetails = (UserDetails) authentication.getPrincipal();
+        if (request.checkNotModified(DataVersions.weakTag(dataVersions.userVersion(userDetails.getUsername()),
+                Integer.toString(page), Integer.toString(size))))
+            return null;
+        return ledgerService.getHistory(userDetails.getUsername(), page, size);
+    }
+}
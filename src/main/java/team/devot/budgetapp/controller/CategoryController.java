@@ -2,6 +2,8 @@ package team.devot.budgetapp.controller;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import team.devot.budgetapp.cache.DataVersions;
 import team.devot.budgetapp.model.dto.CategoryDTO;
 import team.devot.budgetapp.service.CategoryService;
 
@@ -9,6 +11,8 @@ import java.util.List;
 
 /**
  * Controller class for handling HTTP requests related to categories.
+ * The GET responses carry an ETag of the category version, and a request whose If-None-Match still matches it is
+ * answered with 304 Not Modified without reading the categories.
  */
 @RestController
 @RequiredArgsConstructor
@@ -16,25 +20,32 @@ import java.util.List;
 public class CategoryController {
 
     private final CategoryService categoryService;
+    private final DataVersions dataVersions;
 
     /**
      * Retrieves a category by its identifier.
      *
-     * @param id The unique identifier of the category.
-     * @return The CategoryDTO representing the retrieved category.
+     * @param id      The unique identifier of the category.
+     * @param request The current request, checked against the category version.
+     * @return The CategoryDTO representing the retrieved category, or null if the client copy is still current.
      */
     @GetMapping("/category/{id}")
-    public CategoryDTO getCategory(@PathVariable Long id) {
+    public CategoryDTO getCategory(@PathVariable Long id, WebRequest request) {
+        if (request.checkNotModified(DataVersions.weakTag(dataVersions.categoryVersion())))
+            return null;
         return categoryService.getCategory(id);
     }
 
     /**
      * Retrieves all categories.
      *
-     * @return A List of CategoryDTOs representing all categories.
+     * @param request The current request, checked against the category version.
+     * @return A List of CategoryDTOs representing all categories, or null if the client copy is still current.
      */
     @GetMapping("/category")
-    public List<CategoryDTO> getAllCategories() {
+    public List<CategoryDTO> getAllCategories(WebRequest request) {
+        if (request.checkNotModified(DataVersions.weakTag(dataVersions.categoryVersion())))
+            return null;
         return categoryService.getAllCategories();
     }
 
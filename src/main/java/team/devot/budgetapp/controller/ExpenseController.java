@@ -2,15 +2,39 @@ package team.devot.budgetapp.controller;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import team.devot.budgetapp.cache.DataVersions;
+import team.devot.budgetapp.model.BatchOperation;
+import team.devot.budgetapp.model.BatchResult;
+import team.devot.budgetapp.model.CursorSlice;
 import team.devot.budgetapp.model.Expense;
+import team.devot.budgetapp.model.ExpenseFormat;
+import team.devot.budgetapp.model.ExpenseView;
 import team.devot.budgetapp.model.Filter;
+import team.devot.budgetapp.model.Granularity;
+import team.devot.budgetapp.model.Money;
+import team.devot.budgetapp.model.ImportReport;
+import team.devot.budgetapp.model.SeriesBucket;
 import team.devot.budgetapp.model.dto.ExpenseDTO;
+import team.devot.budgetapp.service.ExpenseExportService;
+import team.devot.budgetapp.service.ExpenseImportService;
 import team.devot.budgetapp.service.ExpenseService;
+import team.devot.budgetapp.service.ExpenseWriteBehindService;
 
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
 /**
@@ -22,6 +46,10 @@ import java.util.Map;
 public class ExpenseController {
 
     private final ExpenseService expenseService;
+    private final ExpenseImportService expenseImportService;
+    private final ExpenseExportService expenseExportService;
+    private final ExpenseWriteBehindService expenseWriteBehindService;
+    private final DataVersions dataVersions;
 
     /**
      * Retrieves an expense by its identifier.
@@ -40,16 +68,30 @@ public class ExpenseController {
      * Retrieves all expenses based on the provided filter.
      *
      * @param filter The filter criteria for retrieving expenses.
-     * @return A Page containing Expense entities based on the provided filter.
+     * @return A Page containing views of the expenses matching the provided filter.
      */
     @PostMapping("/expense/filter")
-    public Page<Expense> getAllExpenses(@RequestBody Filter filter) {
+    public Page<ExpenseView> getAllExpenses(@RequestBody Filter filter) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         UserDetails userDetails = (UserDetails) authentication.getPrincipal();
         filter.setUsername(userDetails.getUsername());
         return expenseService.getAllExpenses(filter);
     }
 
+    /**
+     * Retrieves expenses based on the provided filter using cursor pagination, selected with {@code ?mode=cursor}.
+     *
+     * @param filter The filter criteria for retrieving expenses, with the cursor of the previous slice if any.
+     * @return A CursorSlice containing Expense entities and the cursor of the next slice.
+     */
+    @PostMapping(value = "/expense/filter", params = "mode=cursor")
+    public CursorSlice<Expense> getExpensesByCursor(@RequestBody Filter filter) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        UserDetails userDetails = (UserDetails) authentication.getPrincipal();
+        filter.setUsername(userDetails.getUsername());
+        return expenseService.getExpensesByCursor(filter);
+    }
+
     /**
      * Creates a new expense.
      *
@@ -63,6 +105,73 @@ public class ExpenseController {
         expenseService.createExpense(expense);
     }
 
+    /**
+     * Accepts a new expense to be written in the background, selected with {@code ?mode=async}. The expense is checked
+     * against the balance and acknowledged with 202 Accepted once it is durably journaled; the asynchronous write mode
+     * must be enabled with {@code budgetapp.write-behind.enabled=true}.
+     *
+     * @param expense The ExpenseDTO representing the new expense.
+     */
+    @PostMapping(value = "/expense", params = "mode=async")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public void acceptExpense(@RequestBody ExpenseDTO expense) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        UserDetails userDetails = (UserDetails) authentication.getPrincipal();
+        expense.setUsername(userDetails.getUsername());
+        expenseWriteBehindService.acceptExpense(expense);
+    }
+
+    /**
+     * Applies a batch of expense creates, updates and deletes in one transaction, so either all of them take
+     * effect or none does.
+     *
+     * @param operations The operations to apply, in order.
+     * @return The results of the operations, in the order of the operations.
+     */
+    @PostMapping("/expense/batch")
+    public List<BatchResult> applyBatch(@RequestBody List<BatchOperation> operations) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        UserDetails userDetails = (UserDetails) authentication.getPrincipal();
+        return expenseService.applyBatch(userDetails.getUsername(), operations);
+    }
+
+    /**
+     * Imports many expenses at once from an NDJSON or CSV request body, which is streamed rather than buffered.
+     *
+     * @param contentType The content type of the request body, selecting the import format.
+     * @param body        The request body containing the expenses.
+     * @return An ImportReport with the number of imported expenses and the rejected rows.
+     */
+    @PostMapping(value = "/expense/import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, "text/csv"})
+    public ImportReport importExpenses(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType, InputStream body) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        UserDetails userDetails = (UserDetails) authentication.getPrincipal();
+        return expenseImportService.importExpenses(userDetails.getUsername(), body,
+                ExpenseFormat.fromContentType(contentType));
+    }
+
+    /**
+     * Exports all expenses matching the filter as NDJSON or CSV. The file is streamed to the client while the
+     * expenses are read, so exports of any size use the same amount of memory.
+     *
+     * @param filter The filter criteria for the exported expenses; paging is ignored.
+     * @param format The export format, ndjson (default) or csv.
+     * @return A ResponseEntity streaming the exported expenses.
+     */
+    @PostMapping("/expense/export")
+    public ResponseEntity<StreamingResponseBody> exportExpenses(@RequestBody Filter filter,
+                                                                @RequestParam(defaultValue = "ndjson") String format) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        UserDetails userDetails = (UserDetails) authentication.getPrincipal();
+        filter.setUsername(userDetails.getUsername());
+        ExpenseFormat expenseFormat = ExpenseFormat.fromName(format);
+        return ResponseEntity.ok()
+                .contentType(expenseFormat.mediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"expenses." + expenseFormat.name().toLowerCase(Locale.ROOT) + "\"")
+                .body(output -> expenseExportService.exportExpenses(filter, expenseFormat, output));
+    }
+
     /**
      * Updates an existing expense.
      *
@@ -90,15 +199,44 @@ public class ExpenseController {
     }
 
     /**
-     * Aggregates expense data based on a specified period.
+     * Aggregates expense data based on a specified period. The response carries an ETag of the data version of the
+     * user and the current date, since the periods end today, and a request whose If-None-Match still matches it is
+     * answered with 304 Not Modified without aggregating.
      *
-     * @param period The period for which expense data should be aggregated.
-     * @return A Map containing aggregated expense data.
+     * @param period  The period for which expense data should be aggregated.
+     * @param request The current request, checked against the data version of the user.
+     * @return A Map containing aggregated expense data, or null if the client copy is still current.
      */
     @GetMapping("/expense/total")
-    public Map<String, Double> aggregateDataByPeriod(@RequestParam String period) {
+    public Map<String, Money> aggregateDataByPeriod(@RequestParam String period, WebRequest request) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         UserDetails userDetails = (UserDetails) authentication.getPrincipal();
+        if (request.checkNotModified(DataVersions.weakTag(dataVersions.userVersion(userDetails.getUsername()),
+                LocalDate.now().toString())))
+            return null;
         return expenseService.aggregateDataByPeriod(userDetails.getUsername(), period);
     }
+
+    /**
+     * Computes the spending series of the user: the totals per category of every day, week, month or year of a date
+     * range, including the buckets without expenses. The response carries an ETag of the data version of the user,
+     * and a request whose If-None-Match still matches it is answered with 304 Not Modified without aggregating.
+     *
+     * @param start       The first day of the range, as an ISO date.
+     * @param end         The last day of the range, as an ISO date.
+     * @param granularity The size of the buckets: day, week, month or year.
+     * @param request     The current request, checked against the data version of the user.
+     * @return A List of the buckets in date order, or null if the client copy is still current.
+     */
+    @GetMapping("/expense/series")
+    public List<SeriesBucket> getSpendingSeries(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate start,
+                                                @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate end,
+                                                @RequestParam String granularity, WebRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        UserDetails userDetails = (UserDetails) authentication.getPrincipal();
+        Granularity bucketSize = Granularity.fromName(granularity);
+        if (request.checkNotModified(DataVersions.weakTag(dataVersions.userVersion(userDetails.getUsername()))))
+            return null;
+        return expenseService.getSpendingSeries(userDetails.getUsername(), start, end, bucketSize);
+    }
 }
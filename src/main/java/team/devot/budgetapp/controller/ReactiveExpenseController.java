@@ -0,0 +1,57 @@
+package team.devot.budgetapp.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import team.devot.budgetapp.model.ExpenseView;
+import team.devot.budgetapp.model.Filter;
+import team.devot.budgetapp.model.Money;
+import team.devot.budgetapp.service.ReactiveExpenseService;
+
+import java.util.Map;
+
+/**
+ * Controller class for the non-blocking expense read endpoints.
+ * The endpoints return the same data as their blocking counterparts in ExpenseController, but no request thread
+ * waits for the database, and filtered expenses are streamed as newline-delimited JSON as they are read, with the
+ * client's reading speed applying backpressure to the query.
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/reactive")
+public class ReactiveExpenseController {
+
+    private final ReactiveExpenseService reactiveExpenseService;
+
+    /**
+     * Streams a page of expenses based on filter criteria.
+     *
+     * @param filter The filter criteria for retrieving expenses.
+     * @return A Flux of the expenses of the requested page.
+     */
+    @PostMapping(value = "/expense/filter", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<ExpenseView> getAllExpenses(@RequestBody Filter filter) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        UserDetails userDetails = (UserDetails) authentication.getPrincipal();
+        filter.setUsername(userDetails.getUsername());
+        return reactiveExpenseService.getAllExpenses(filter);
+    }
+
+    /**
+     * Aggregates expense data based on a specified period.
+     *
+     * @param period The period for which expense data should be aggregated.
+     * @return A Mono of the aggregated expense data.
+     */
+    @GetMapping("/expense/total")
+    public Mono<Map<String, Money>> aggregateDataByPeriod(@RequestParam String period) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        UserDetails userDetails = (UserDetails) authentication.getPrincipal();
+        return reactiveExpenseService.aggregateDataByPeriod(userDetails.getUsername(), period);
+    }
+}
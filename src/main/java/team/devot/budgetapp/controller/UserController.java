@@ -11,6 +11,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import team.devot.budgetapp.model.CustomResponse;
+import team.devot.budgetapp.model.TokenResponse;
 import team.devot.budgetapp.model.dto.UserDTO;
 import team.devot.budgetapp.service.UserService;
 
@@ -48,6 +49,18 @@ public class UserController {
         return ResponseEntity.ok(new CustomResponse("Login successful"));
     }
 
+    /**
+     * Logs in a user and issues a signed token, to be sent as a Bearer token in the Authorization header of later
+     * requests instead of relying on a server-side login.
+     *
+     * @param userDTO The UserDTO representing the user's login information.
+     * @return A ResponseEntity with the issued TokenResponse.
+     */
+    @PostMapping("/login/token")
+    public ResponseEntity<TokenResponse> loginUserWithToken(@RequestBody UserDTO userDTO) {
+        return ResponseEntity.ok(userService.loginWithToken(userDTO));
+    }
+
     /**
      * Logs out a user.
      *
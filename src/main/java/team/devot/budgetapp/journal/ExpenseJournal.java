@@ -0,0 +1,293 @@
+package team.devot.budgetapp.journal;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import team.devot.budgetapp.model.dto.ExpenseDTO;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * ExpenseJournal is an append-only file of accepted expenses, written with group commit. Appends are queued and a
+ * single committer thread writes everything queued within one commit interval with one write and one fsync, so the
+ * cost of an fsync is shared by all the expenses of its group. An append completes once its entry is on disk.
+ * <p>
+ * Every entry is stored as its length, a CRC-32 of its content and the content as JSON, and carries a sequence that
+ * grows by one per entry. A write torn by a crash fails its length or checksum and is cut off when the journal is
+ * opened again, together with everything after it; none of those entries were acknowledged.
+ */
+@Slf4j
+public class ExpenseJournal implements Closeable {
+
+    /**
+     * The length and the checksum in front of every entry.
+     */
+    private static final int HEADER_BYTES = 8;
+
+    /**
+     * The largest entry read back; a longer length can only come from a torn write.
+     */
+    private static final int MAX_ENTRY_BYTES = 1 << 20;
+
+    private static final Append CLOSE = new Append(null, null);
+
+    private final Path file;
+    private final long commitIntervalNanos;
+    private final ObjectMapper objectMapper;
+    private final BlockingQueue<Append> appends = new LinkedBlockingQueue<>();
+    private final Object writeLock = new Object();
+    private FileChannel channel;
+    private Consumer<List<Entry>> listener;
+    private Thread committer;
+    private long size;
+    private long lastSequence;
+    private volatile boolean closed;
+
+    /**
+     * Creates a journal on a file, which is read and opened for appends by {@link #open}.
+     *
+     * @param file           The journal file; it and its directory are created if missing.
+     * @param commitInterval How long the committer waits after the first append of a group for more appends to join
+     *                       it; zero commits every group right away.
+     * @param objectMapper   The ObjectMapper writing and reading the entries.
+     */
+    public ExpenseJournal(Path file, Duration commitInterval, ObjectMapper objectMapper) {
+        this.file = file;
+        this.commitIntervalNanos = commitInterval.toNanos();
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Reads the intact entries of the journal, cuts off a torn tail and starts committing appends.
+     *
+     * @param lastSequence The highest sequence known to be used before, even if the journal was truncated since; new
+     *                     entries continue after it or after the last entry read, whichever is higher.
+     * @param listener     Called on the committer thread with every group of entries once it is on disk, in the order
+     *                     of the sequences, before the appends complete.
+     * @return The entries read, in the order of their sequences.
+     * @throws UncheckedIOException If the journal cannot be read or opened.
+     */
+    public List<Entry> open(long lastSequence, Consumer<List<Entry>> listener) {
+        try {
+            Path directory = file.toAbsolutePath().getParent();
+            if (directory != null)
+                Files.createDirectories(directory);
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            List<Entry> entries = read();
+            this.lastSequence = entries.isEmpty() ? lastSequence
+                    : Math.max(lastSequence, entries.get(entries.size() - 1).sequence());
+            this.listener = listener;
+            committer = new Thread(this::commitLoop, "expense-journal");
+            committer.setDaemon(true);
+            committer.start();
+            return entries;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Queues an expense to be appended with the next group.
+     *
+     * @param expense The expense to be appended.
+     * @return A CompletableFuture completed with the entry once it is on disk, or failed if it cannot be written.
+     * @throws IllegalStateException If the journal is closed.
+     */
+    public CompletableFuture<Entry> append(ExpenseDTO expense) {
+        if (closed)
+            throw new IllegalStateException("The expense journal is closed");
+        Append append = new Append(expense, new CompletableFuture<>());
+        appends.add(append);
+        return append.result();
+    }
+
+    /**
+     * Empties the journal, provided the given sequence is the last one appended, so no entry after it is lost.
+     * Sequences continue where they were; the caller keeps the last sequence to pass to {@link #open} next time.
+     *
+     * @param writtenSequence The sequence up to which every entry has been written elsewhere.
+     * @return true if the journal was emptied, false if newer entries were appended or the journal is closed.
+     * @throws UncheckedIOException If the journal cannot be truncated.
+     */
+    public boolean truncate(long writtenSequence) {
+        synchronized (writeLock) {
+            if (closed || size == 0 || writtenSequence != lastSequence)
+                return false;
+            try {
+                channel.truncate(0);
+                channel.force(true);
+                size = 0;
+                return true;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Commits the appends queued so far, fails any later ones and closes the file.
+     *
+     * @throws UncheckedIOException If the file cannot be closed.
+     */
+    @Override
+    public void close() {
+        if (closed)
+            return;
+        closed = true;
+        appends.add(CLOSE);
+        try {
+            committer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<Append> late = new ArrayList<>();
+        appends.drainTo(late);
+        for (Append append : late) {
+            if (append != CLOSE)
+                append.result().completeExceptionally(new IllegalStateException("The expense journal is closed"));
+        }
+        synchronized (writeLock) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private void commitLoop() {
+        List<Append> group = new ArrayList<>();
+        while (true) {
+            try {
+                group.add(appends.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (commitIntervalNanos > 0 && group.get(0) != CLOSE)
+                LockSupport.parkNanos(commitIntervalNanos);
+            appends.drainTo(group);
+            boolean close = group.remove(CLOSE);
+            if (!group.isEmpty())
+                commit(group);
+            group.clear();
+            if (close)
+                return;
+        }
+    }
+
+    /**
+     * Writes a group with one write and one fsync. A failed write is cut off again, so it never leaves a torn entry
+     * in front of later ones.
+     */
+    private void commit(List<Append> group) {
+        List<Entry> entries = new ArrayList<>(group.size());
+        try {
+            synchronized (writeLock) {
+                List<byte[]> contents = new ArrayList<>(group.size());
+                int bytes = 0;
+                for (Append append : group) {
+                    Entry entry = new Entry(lastSequence + entries.size() + 1, append.expense());
+                    byte[] content = objectMapper.writeValueAsBytes(entry);
+                    entries.add(entry);
+                    contents.add(content);
+                    bytes += HEADER_BYTES + content.length;
+                }
+                ByteBuffer buffer = ByteBuffer.allocate(bytes);
+                for (byte[] content : contents)
+                    buffer.putInt(content.length).putInt(checksum(content)).put(content);
+                buffer.flip();
+                try {
+                    long position = size;
+                    while (buffer.hasRemaining())
+                        position += channel.write(buffer, position);
+                    channel.force(false);
+                } catch (IOException e) {
+                    channel.truncate(size);
+                    throw e;
+                }
+                size += bytes;
+                lastSequence += entries.size();
+            }
+        } catch (IOException | RuntimeException e) {
+            log.error("Could not append {} expenses to the journal", group.size(), e);
+            for (Append append : group)
+                append.result().completeExceptionally(e);
+            return;
+        }
+        listener.accept(entries);
+        for (int i = 0; i < group.size(); i++)
+            group.get(i).result().complete(entries.get(i));
+    }
+
+    private List<Entry> read() throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        long fileSize = channel.size();
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        long position = 0;
+        while (position + HEADER_BYTES <= fileSize) {
+            header.clear();
+            readFully(header, position);
+            int length = header.getInt(0);
+            if (length <= 0 || length > MAX_ENTRY_BYTES || position + HEADER_BYTES + length > fileSize)
+                break;
+            ByteBuffer content = ByteBuffer.allocate(length);
+            readFully(content, position + HEADER_BYTES);
+            if (checksum(content.array()) != header.getInt(4))
+                break;
+            entries.add(objectMapper.readValue(content.array(), Entry.class));
+            position += HEADER_BYTES + length;
+        }
+        if (position < fileSize) {
+            log.warn("Cutting off {} bytes of a torn write at the end of the expense journal", fileSize - position);
+            channel.truncate(position);
+            channel.force(true);
+        }
+        size = position;
+        return entries;
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0)
+                throw new IOException("Unexpected end of the expense journal");
+        }
+    }
+
+    private static int checksum(byte[] content) {
+        CRC32 crc = new CRC32();
+        crc.update(content);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * An expense in the journal with its sequence.
+     *
+     * @param sequence The sequence of the entry, growing by one per entry.
+     * @param expense  The accepted expense.
+     */
+    public record Entry(long sequence, ExpenseDTO expense) {
+    }
+
+    /**
+     * A queued append with the future completed once it is on disk.
+     */
+    private record Append(ExpenseDTO expense, CompletableFuture<Entry> result) {
+    }
+}
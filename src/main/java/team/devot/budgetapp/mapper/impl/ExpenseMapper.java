@@ -3,6 +3,7 @@ package team.devot.budgetapp.mapper.impl;
 import org.springframework.stereotype.Component;
 import team.devot.budgetapp.mapper.Mapper;
 import team.devot.budgetapp.model.Expense;
+import team.devot.budgetapp.model.ExpenseView;
 import team.devot.budgetapp.model.dto.ExpenseDTO;
 
 import java.time.LocalDate;
@@ -32,6 +33,22 @@ public class ExpenseMapper implements Mapper<Expense, ExpenseDTO> {
                 .build();
     }
 
+    /**
+     * Maps a read-only ExpenseView to an ExpenseDTO.
+     *
+     * @param view The ExpenseView to be mapped.
+     * @return The corresponding ExpenseDTO.
+     */
+    public ExpenseDTO mapViewTo(ExpenseView view) {
+        return ExpenseDTO.builder()
+                .id(view.getId())
+                .description(view.getDescription())
+                .amount(view.getAmount())
+                .expenseCategory(view.getExpenseCategory())
+                .date(view.getDate())
+                .build();
+    }
+
     /**
      * Maps an ExpenseDTO to an Expense entity.
      *
@@ -0,0 +1,89 @@
+package team.devot.budgetapp.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.Instant;
+
+/**
+ * BalanceEntry is an entity recording one movement of the balance of a user in the append-only balance ledger.
+ * Entries are written in the transaction that moves the balance of the user and are never updated or deleted, so the
+ * ledger is an audit trail of the balance: the balance before an entry is the current balance less the amounts of
+ * that entry and all later ones.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "BALANCE_ENTRY", indexes = {
+        @Index(name = "IDX_BALANCE_ENTRY_USERNAME_ID", columnList = "ENTRY_USERNAME, ENTRY_ID")
+})
+public class BalanceEntry {
+
+    /**
+     * The kind of write that moved the balance.
+     */
+    public enum Type {
+        /**
+         * An expense was created.
+         */
+        DEBIT,
+        /**
+         * The amount of an expense was changed.
+         */
+        ADJUSTMENT,
+        /**
+         * An expense was deleted.
+         */
+        CREDIT,
+        /**
+         * A batch of expenses was imported.
+         */
+        IMPORT
+    }
+
+    /**
+     * The unique identifier of the entry. Entries of one user are appended after the balance update has locked the
+     * row of the user, so their identifiers follow the order in which they were written.
+     */
+    @Id
+    @Column(name = "ENTRY_ID")
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "balance_entry_seq")
+    @SequenceGenerator(name = "balance_entry_seq", sequenceName = "BALANCE_ENTRY_SEQ", allocationSize = 50)
+    private Long id;
+
+    /**
+     * The username of the user whose balance moved.
+     */
+    @Column(name = "ENTRY_USERNAME", nullable = false)
+    private String username;
+
+    /**
+     * The kind of write that moved the balance.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "ENTRY_TYPE", nullable = false)
+    private Type type;
+
+    /**
+     * The amount added to the balance, negative when the balance was debited.
+     */
+    @Column(name = "ENTRY_AMOUNT", nullable = false)
+    private Money amount;
+
+    /**
+     * The unique identifier of the expense that moved the balance, null for imports.
+     */
+    @Column(name = "ENTRY_EXPENSE_ID")
+    private Long expenseId;
+
+    /**
+     * The time the entry was written.
+     */
+    @Column(name = "ENTRY_CREATED_AT", nullable = false)
+    private Instant createdAt;
+}
@@ -0,0 +1,46 @@
+package team.devot.budgetapp.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * BalanceHistoryEntry is one entry of the balance history of a user: a ledger entry with the balance it resulted in.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BalanceHistoryEntry {
+
+    /**
+     * The unique identifier of the ledger entry.
+     */
+    private Long id;
+
+    /**
+     * The kind of write that moved the balance.
+     */
+    private BalanceEntry.Type type;
+
+    /**
+     * The amount added to the balance, negative when the balance was debited.
+     */
+    private Money amount;
+
+    /**
+     * The balance after the entry.
+     */
+    private Money balance;
+
+    /**
+     * The unique identifier of the expense that moved the balance, null for imports.
+     */
+    private Long expenseId;
+
+    /**
+     * The time the entry was written.
+     */
+    private Instant createdAt;
+}
@@ -0,0 +1,32 @@
+package team.devot.budgetapp.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import team.devot.budgetapp.model.dto.ExpenseDTO;
+
+/**
+ * BatchOperation is a single create, update or delete of an expense within a batch.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BatchOperation {
+
+    /**
+     * The kind of change an operation makes.
+     */
+    public enum Type {
+        CREATE, UPDATE, DELETE
+    }
+
+    /**
+     * The kind of change.
+     */
+    private Type type;
+
+    /**
+     * The expense to create or update; of a delete only the id is read.
+     */
+    private ExpenseDTO expense;
+}
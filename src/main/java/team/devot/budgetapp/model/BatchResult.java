@@ -0,0 +1,30 @@
+package team.devot.budgetapp.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import team.devot.budgetapp.model.dto.ExpenseDTO;
+
+/**
+ * BatchResult is the outcome of one operation of an applied batch.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BatchResult {
+
+    /**
+     * The position of the operation in the batch, starting at 0.
+     */
+    private int index;
+
+    /**
+     * The kind of change the operation made.
+     */
+    private BatchOperation.Type type;
+
+    /**
+     * The expense as created or updated by the operation, or as it was before it was deleted.
+     */
+    private ExpenseDTO expense;
+}
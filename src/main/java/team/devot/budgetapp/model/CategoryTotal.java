@@ -0,0 +1,24 @@
+package team.devot.budgetapp.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * CategoryTotal is the sum of the expenses of one category, as returned by an aggregate query.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CategoryTotal {
+
+    /**
+     * The category of the expenses.
+     */
+    private String category;
+
+    /**
+     * The total amount of the expenses, in minor units.
+     */
+    private long total;
+}
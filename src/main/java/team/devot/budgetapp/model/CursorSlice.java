@@ -0,0 +1,39 @@
+package team.devot.budgetapp.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * CursorSlice is a page of results returned by cursor (keyset) pagination.
+ * Unlike a Page it carries no total count, only the token needed to fetch the following slice.
+ *
+ * @param <T> The type of the results.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CursorSlice<T> {
+
+    /**
+     * The results of the slice.
+     */
+    private List<T> content;
+
+    /**
+     * The requested size of the slice.
+     */
+    private int size;
+
+    /**
+     * Whether more results follow this slice.
+     */
+    private boolean hasNext;
+
+    /**
+     * The opaque token to pass as the filter cursor to fetch the next slice, or null on the last slice.
+     */
+    private String nextCursor;
+}
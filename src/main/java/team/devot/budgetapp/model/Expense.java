@@ -10,21 +10,27 @@ import java.time.LocalDate;
 
 /**
  * Expense is an entity representing an expense in the application.
- * It is used to persist expense information in the database.
+ * It is used to persist expense information in the database. Every query filters by username, usually together with
+ * a date range and a category, which the composite indexes cover.
  */
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
 @Builder
+@Table(indexes = {
+        @Index(name = "IDX_EXPENSE_USERNAME_DATE", columnList = "EXPENSE_USERNAME, date"),
+        @Index(name = "IDX_EXPENSE_USERNAME_CATEGORY_DATE", columnList = "EXPENSE_USERNAME, EXPENSE_CATEGORY, date")
+})
 public class Expense {
 
     /**
-     * The unique identifier of the expense.
+     * The unique identifier of the expense, drawn from a pooled sequence so that inserts can be batched.
      */
     @Id
     @Column(name = "EXPENSE_ID")
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "expense_seq")
+    @SequenceGenerator(name = "expense_seq", sequenceName = "EXPENSE_SEQ", allocationSize = 50)
     private Long id;
 
     /**
@@ -37,7 +43,7 @@ public class Expense {
      * The amount of the expense.
      */
     @Column(name = "EXPENSE_AMOUNT")
-    private Double amount;
+    private Money amount;
 
     /**
      * The category of the expense.
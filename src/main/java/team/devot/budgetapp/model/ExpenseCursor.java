@@ -0,0 +1,129 @@
+package team.devot.budgetapp.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.springframework.data.domain.Sort;
+import team.devot.budgetapp.exception.CustomException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.Set;
+
+/**
+ * ExpenseCursor is the position of a keyset (cursor) page of expenses.
+ * It holds the sort of the listing and the sort value and identifier of the last expense returned, and travels to
+ * clients as an opaque URL-safe token.
+ */
+@Data
+@AllArgsConstructor
+public class ExpenseCursor {
+
+    /**
+     * The fields a cursor listing can be sorted by.
+     */
+    public static final Set<String> SORT_FIELDS = Set.of("id", "date", "amount");
+
+    /**
+     * The sort fields whose column may hold NULL. NULLs sort before every value ascending and after every value
+     * descending.
+     */
+    public static final Set<String> NULLABLE_SORT_FIELDS = Set.of("amount");
+
+    private static final String VERSION = "v1";
+
+    /**
+     * The field the listing is sorted by.
+     */
+    private String sortField;
+
+    /**
+     * The direction the listing is sorted in.
+     */
+    private Sort.Direction direction;
+
+    /**
+     * The sort field value of the last expense returned, or null for the first page or if the value of that expense is
+     * NULL.
+     */
+    private Object value;
+
+    /**
+     * The unique identifier of the last expense returned, or null for the first page.
+     */
+    private Long id;
+
+    /**
+     * Creates the cursor of a first page.
+     *
+     * @param sortField The field the listing is sorted by.
+     * @param direction The direction the listing is sorted in.
+     * @return The cursor positioned before the first expense.
+     * @throws CustomException If the listing cannot be sorted by the given field.
+     */
+    public static ExpenseCursor first(String sortField, Sort.Direction direction) {
+        if (!SORT_FIELDS.contains(sortField))
+            throw new CustomException("Cursor pagination cannot sort by: " + sortField);
+        return new ExpenseCursor(sortField, direction, null, null);
+    }
+
+    /**
+     * Creates the cursor positioned after the given expense.
+     *
+     * @param expense The last expense returned.
+     * @return The cursor of the next page.
+     */
+    public ExpenseCursor after(Expense expense) {
+        Object lastValue = switch (sortField) {
+            case "date" -> expense.getDate();
+            case "amount" -> expense.getAmount();
+            default -> expense.getId();
+        };
+        return new ExpenseCursor(sortField, direction, lastValue, expense.getId());
+    }
+
+    /**
+     * Checks whether the cursor points at the first page.
+     *
+     * @return true if no expense has been returned yet, false otherwise.
+     */
+    public boolean isFirst() {
+        return id == null;
+    }
+
+    /**
+     * Encodes the cursor as an opaque token. A null sort value is encoded as an empty value.
+     *
+     * @return The URL-safe token of the cursor.
+     */
+    public String encode() {
+        String raw = String.join("|", VERSION, sortField, direction.name(), String.valueOf(id),
+                value == null ? "" : String.valueOf(value));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token produced by {@link #encode()}.
+     *
+     * @param token The token of the cursor.
+     * @return The decoded cursor.
+     * @throws CustomException If the token is not a valid cursor.
+     */
+    public static ExpenseCursor decode(String token) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|", 5);
+            if (parts.length != 5 || !VERSION.equals(parts[0]) || !SORT_FIELDS.contains(parts[1]))
+                throw new CustomException("Invalid cursor: " + token);
+            boolean nullValue = parts[4].isEmpty() && NULLABLE_SORT_FIELDS.contains(parts[1]);
+            Object value = nullValue ? null : switch (parts[1]) {
+                case "date" -> LocalDate.parse(parts[4]);
+                case "amount" -> Money.parse(parts[4]);
+                default -> Long.valueOf(parts[4]);
+            };
+            return new ExpenseCursor(parts[1], Sort.Direction.valueOf(parts[2]), value, Long.valueOf(parts[3]));
+        } catch (IllegalArgumentException | DateTimeException e) {
+            throw new CustomException("Invalid cursor: " + token);
+        }
+    }
+}
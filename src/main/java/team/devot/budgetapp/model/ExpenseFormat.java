@@ -0,0 +1,60 @@
+package team.devot.budgetapp.model;
+
+import org.springframework.http.MediaType;
+import team.devot.budgetapp.exception.CustomException;
+
+/**
+ * ExpenseFormat lists the file formats expenses can be imported from and exported to.
+ */
+public enum ExpenseFormat {
+
+    /**
+     * One JSON expense object per line.
+     */
+    NDJSON,
+
+    /**
+     * Comma-separated values with a header line naming the columns.
+     */
+    CSV;
+
+    /**
+     * Returns the content type of the format.
+     *
+     * @return The MediaType of the format.
+     */
+    public MediaType mediaType() {
+        return this == NDJSON ? MediaType.APPLICATION_NDJSON : MediaType.parseMediaType("text/csv");
+    }
+
+    /**
+     * Resolves a format by its case-insensitive name.
+     *
+     * @param name The name of the format, such as ndjson or csv.
+     * @return The matching ExpenseFormat.
+     * @throws CustomException If the name is not an expense format.
+     */
+    public static ExpenseFormat fromName(String name) {
+        for (ExpenseFormat format : values()) {
+            if (format.name().equalsIgnoreCase(name))
+                return format;
+        }
+        throw new CustomException("Unsupported expense format: " + name);
+    }
+
+    /**
+     * Resolves the format of a content type.
+     *
+     * @param contentType The content type of the request or response body.
+     * @return The matching ExpenseFormat.
+     * @throws CustomException If the content type is not an expense format.
+     */
+    public static ExpenseFormat fromContentType(String contentType) {
+        MediaType mediaType = MediaType.parseMediaType(contentType);
+        if (mediaType.isCompatibleWith(MediaType.APPLICATION_NDJSON))
+            return NDJSON;
+        if (mediaType.isCompatibleWith(MediaType.parseMediaType("text/csv")))
+            return CSV;
+        throw new CustomException("Unsupported expense format: " + contentType);
+    }
+}
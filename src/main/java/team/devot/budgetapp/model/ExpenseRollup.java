@@ -0,0 +1,58 @@
+package team.devot.budgetapp.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDate;
+
+/**
+ * ExpenseRollup is an entity holding the pre-aggregated expense total of one user, month and category.
+ * It is maintained alongside the expense table so that period totals can be answered without scanning raw expenses.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Builder
+@IdClass(ExpenseRollupId.class)
+@Table(name = "EXPENSE_ROLLUP", indexes = {
+        @Index(name = "IDX_ROLLUP_USERNAME_MONTH", columnList = "ROLLUP_USERNAME, ROLLUP_MONTH, ROLLUP_CATEGORY")
+})
+public class ExpenseRollup {
+
+    /**
+     * The username the rollup belongs to.
+     */
+    @Id
+    @Column(name = "ROLLUP_USERNAME", nullable = false)
+    private String username;
+
+    /**
+     * The first day of the month the rollup covers.
+     */
+    @Id
+    @Column(name = "ROLLUP_MONTH", nullable = false)
+    private LocalDate month;
+
+    /**
+     * The expense category of the rollup, empty for expenses without a category.
+     */
+    @Id
+    @Column(name = "ROLLUP_CATEGORY", nullable = false)
+    private String category;
+
+    /**
+     * The sum of all expense amounts in the rollup, in minor units.
+     */
+    @Column(name = "ROLLUP_TOTAL", nullable = false)
+    private long total;
+
+    /**
+     * The number of expenses in the rollup.
+     */
+    @Column(name = "ROLLUP_COUNT", nullable = false)
+    private Long count;
+}
@@ -0,0 +1,32 @@
+package team.devot.budgetapp.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * ExpenseRollupId is the composite identifier of an ExpenseRollup (username, month and category).
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ExpenseRollupId implements Serializable {
+
+    /**
+     * The username the rollup belongs to.
+     */
+    private String username;
+
+    /**
+     * The first day of the month the rollup covers.
+     */
+    private LocalDate month;
+
+    /**
+     * The expense category of the rollup.
+     */
+    private String category;
+}
@@ -0,0 +1,42 @@
+package team.devot.budgetapp.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * ExpenseView is a read-only projection of an expense, holding only the columns the API returns.
+ * It is built directly by a JPQL constructor expression, so no managed entity is created for it.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ExpenseView {
+
+    /**
+     * The unique identifier of the expense.
+     */
+    private Long id;
+
+    /**
+     * The description of the expense.
+     */
+    private String description;
+
+    /**
+     * The amount of the expense.
+     */
+    private Money amount;
+
+    /**
+     * The category of the expense.
+     */
+    private String expenseCategory;
+
+    /**
+     * The date of the expense.
+     */
+    private LocalDate date;
+}
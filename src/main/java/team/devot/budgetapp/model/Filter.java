@@ -28,12 +28,12 @@ public class Filter {
     /**
      * The minimum amount filter.
      */
-    private Double minAmount;
+    private Money minAmount;
 
     /**
      * The maximum amount filter.
      */
-    private Double maxAmount;
+    private Money maxAmount;
 
     /**
      * The expense category filter.
@@ -74,4 +74,9 @@ public class Filter {
      * The field for sorting results.
      */
     private String sortField;
+
+    /**
+     * The cursor token returned by the previous slice, used by cursor (keyset) pagination instead of the page number.
+     */
+    private String cursor;
 }
@@ -0,0 +1,91 @@
+package team.devot.budgetapp.model;
+
+import team.devot.budgetapp.exception.CustomException;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Granularity lists the bucket sizes of a spending series. Weeks start on Monday, as in ISO-8601.
+ */
+public enum Granularity {
+
+    /**
+     * One bucket per day.
+     */
+    DAY(ChronoUnit.DAYS),
+
+    /**
+     * One bucket per week, starting on Monday.
+     */
+    WEEK(ChronoUnit.WEEKS),
+
+    /**
+     * One bucket per calendar month.
+     */
+    MONTH(ChronoUnit.MONTHS),
+
+    /**
+     * One bucket per calendar year.
+     */
+    YEAR(ChronoUnit.YEARS);
+
+    private final ChronoUnit unit;
+
+    Granularity(ChronoUnit unit) {
+        this.unit = unit;
+    }
+
+    /**
+     * Returns the first day of the bucket containing a date.
+     *
+     * @param date The date.
+     * @return The first day of its bucket.
+     */
+    public LocalDate bucketStart(LocalDate date) {
+        return switch (this) {
+            case DAY -> date;
+            case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> date.withDayOfMonth(1);
+            case YEAR -> date.withDayOfYear(1);
+        };
+    }
+
+    /**
+     * Returns the first day of the bucket following the bucket starting on a date.
+     *
+     * @param bucketStart The first day of a bucket.
+     * @return The first day of the next bucket.
+     */
+    public LocalDate next(LocalDate bucketStart) {
+        return bucketStart.plus(1, unit);
+    }
+
+    /**
+     * Returns the number of buckets from the bucket of one date to the bucket of another.
+     *
+     * @param from The earlier date.
+     * @param to   The later date.
+     * @return The number of buckets between their buckets, zero if both fall into the same bucket.
+     */
+    public long bucketsBetween(LocalDate from, LocalDate to) {
+        return unit.between(bucketStart(from), bucketStart(to));
+    }
+
+    /**
+     * Resolves a granularity by its case-insensitive name.
+     *
+     * @param name The name of the granularity, such as day or month.
+     * @return The matching Granularity.
+     * @throws CustomException If the name is not a granularity.
+     */
+    public static Granularity fromName(String name) {
+        for (Granularity granularity : values()) {
+            if (granularity.name().equalsIgnoreCase(name))
+                return granularity;
+        }
+        throw new CustomException("Unsupported granularity: " + name);
+    }
+}
@@ -0,0 +1,24 @@
+package team.devot.budgetapp.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * ImportRejection describes a row of a bulk expense import that was not imported.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ImportRejection {
+
+    /**
+     * The line number of the row in the imported file, starting at 1.
+     */
+    private long line;
+
+    /**
+     * The reason the row was rejected.
+     */
+    private String reason;
+}
@@ -0,0 +1,33 @@
+package team.devot.budgetapp.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ImportReport is the outcome of a bulk expense import.
+ * Only the first rejections are listed, so the report stays small whatever the size of the import.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ImportReport {
+
+    /**
+     * The number of expenses imported.
+     */
+    private long imported;
+
+    /**
+     * The number of rows rejected.
+     */
+    private long rejected;
+
+    /**
+     * The first rejected rows with the reason they were rejected.
+     */
+    private List<ImportRejection> rejections = new ArrayList<>();
+}
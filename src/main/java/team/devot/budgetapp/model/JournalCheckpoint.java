@@ -0,0 +1,35 @@
+package team.devot.budgetapp.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+
+/**
+ * JournalCheckpoint is an entity holding the sequence of the last expense journal entry of a user that was written to
+ * the database. It is written in the same transaction as the expenses, so replaying the journal after a restart skips
+ * exactly the entries that are already written.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "JOURNAL_CHECKPOINT")
+public class JournalCheckpoint {
+
+    /**
+     * The username of the user the checkpoint belongs to.
+     */
+    @Id
+    @Column(name = "CHECKPOINT_USERNAME")
+    private String username;
+
+    /**
+     * The sequence of the last written journal entry of the user.
+     */
+    @Column(name = "CHECKPOINT_SEQUENCE", nullable = false)
+    private long sequence;
+}
@@ -0,0 +1,167 @@
+package team.devot.budgetapp.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.math.BigDecimal;
+
+/**
+ * Money is an exact amount of money held as a whole number of minor units (cents).
+ * Sums and differences are computed on the primitive long, so they never drift the way binary floating point does.
+ * In JSON an amount is written and read as a decimal number with at most two decimal places.
+ */
+public final class Money implements Comparable<Money> {
+
+    /**
+     * The number of decimal places of a major unit.
+     */
+    public static final int SCALE = 2;
+
+    /**
+     * The amount of zero.
+     */
+    public static final Money ZERO = new Money(0);
+
+    private final long minorUnits;
+
+    private Money(long minorUnits) {
+        this.minorUnits = minorUnits;
+    }
+
+    /**
+     * Creates an amount from a number of minor units.
+     *
+     * @param minorUnits The amount in minor units.
+     * @return The amount.
+     */
+    public static Money ofMinor(long minorUnits) {
+        return minorUnits == 0 ? ZERO : new Money(minorUnits);
+    }
+
+    /**
+     * Creates an amount from a decimal number of major units.
+     *
+     * @param amount The amount in major units, with at most two decimal places.
+     * @return The amount, or null if the number is null.
+     * @throws IllegalArgumentException If the number has more than two decimal places or does not fit a long.
+     */
+    @JsonCreator(mode = JsonCreator.Mode.DELEGATING)
+    public static Money of(BigDecimal amount) {
+        if (amount == null)
+            return null;
+        try {
+            return ofMinor(amount.movePointRight(SCALE).longValueExact());
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Invalid amount: " + amount.toPlainString());
+        }
+    }
+
+    /**
+     * Parses a decimal number of major units, such as 12.5 or 12.50.
+     *
+     * @param amount The amount in major units.
+     * @return The amount.
+     * @throws IllegalArgumentException If the text is not a number with at most two decimal places.
+     */
+    public static Money parse(String amount) {
+        try {
+            return of(new BigDecimal(amount.trim()));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid amount: " + amount);
+        }
+    }
+
+    /**
+     * Returns the amount in minor units.
+     *
+     * @return The number of minor units.
+     */
+    public long minorUnits() {
+        return minorUnits;
+    }
+
+    /**
+     * Returns the amount as a decimal number of major units.
+     *
+     * @return The amount with two decimal places.
+     */
+    @JsonValue
+    public BigDecimal toDecimal() {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    /**
+     * Adds an amount.
+     *
+     * @param other The amount to add.
+     * @return The sum of both amounts.
+     * @throws ArithmeticException If the sum overflows.
+     */
+    public Money plus(Money other) {
+        return ofMinor(Math.addExact(minorUnits, other.minorUnits));
+    }
+
+    /**
+     * Subtracts an amount.
+     *
+     * @param other The amount to subtract.
+     * @return The difference of both amounts.
+     * @throws ArithmeticException If the difference overflows.
+     */
+    public Money minus(Money other) {
+        return ofMinor(Math.subtractExact(minorUnits, other.minorUnits));
+    }
+
+    /**
+     * Returns the amount with the opposite sign.
+     *
+     * @return The negated amount.
+     */
+    public Money negate() {
+        return ofMinor(Math.negateExact(minorUnits));
+    }
+
+    /**
+     * Checks whether the amount is below zero.
+     *
+     * @return true if the amount is negative, false otherwise.
+     */
+    public boolean isNegative() {
+        return minorUnits < 0;
+    }
+
+    /**
+     * Returns the minor units of an amount that may be absent.
+     *
+     * @param amount The amount (nullable).
+     * @return The minor units of the amount, 0 if it is null.
+     */
+    public static long minorUnitsOf(Money amount) {
+        return amount == null ? 0 : amount.minorUnits;
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof Money money && money.minorUnits == minorUnits;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(minorUnits);
+    }
+
+    /**
+     * Returns the amount as a plain decimal number, which parse accepts back.
+     *
+     * @return The amount with two decimal places.
+     */
+    @Override
+    public String toString() {
+        return toDecimal().toPlainString();
+    }
+}
@@ -0,0 +1,21 @@
+package team.devot.budgetapp.model;
+
+import javax.persistence.AttributeConverter;
+import javax.persistence.Converter;
+
+/**
+ * MoneyConverter stores every Money attribute as a BIGINT column of minor units.
+ */
+@Converter(autoApply = true)
+public class MoneyConverter implements AttributeConverter<Money, Long> {
+
+    @Override
+    public Long convertToDatabaseColumn(Money amount) {
+        return amount == null ? null : amount.minorUnits();
+    }
+
+    @Override
+    public Money convertToEntityAttribute(Long minorUnits) {
+        return minorUnits == null ? null : Money.ofMinor(minorUnits);
+    }
+}
@@ -0,0 +1,33 @@
+package team.devot.budgetapp.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * SeriesBucket is one bucket of a spending series, holding the totals per category of the expenses dated within it.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SeriesBucket {
+
+    /**
+     * The first day of the bucket, never before the start of the series.
+     */
+    private LocalDate start;
+
+    /**
+     * The last day of the bucket, never after the end of the series.
+     */
+    private LocalDate end;
+
+    /**
+     * The total amount per category, with a zero total for every category spent on elsewhere in the series. Expenses
+     * without a category are totalled under an empty category name.
+     */
+    private Map<String, Money> totals;
+}
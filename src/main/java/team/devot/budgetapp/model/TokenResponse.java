@@ -0,0 +1,32 @@
+package team.devot.budgetapp.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * TokenResponse is the result of a token login.
+ * Clients send the token back in the Authorization header as "Bearer &lt;token&gt;" until it expires.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TokenResponse {
+
+    /**
+     * The signed token.
+     */
+    private String token;
+
+    /**
+     * The type of the token.
+     */
+    private String tokenType;
+
+    /**
+     * The instant the token expires at.
+     */
+    private Instant expiresAt;
+}
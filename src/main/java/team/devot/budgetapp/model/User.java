@@ -45,8 +45,9 @@ public class User {
     private String email;
 
     /**
-     * The balance associated with the user.
+     * The balance associated with the user. Every movement of it is also recorded in the balance ledger, see
+     * BalanceEntry.
      */
     @Column(name = "USER_BALANCE")
-    private Double balance;
+    private Money balance;
 }
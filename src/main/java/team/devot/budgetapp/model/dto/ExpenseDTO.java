@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import team.devot.budgetapp.model.Money;
 
 import java.time.LocalDate;
 
@@ -32,7 +33,7 @@ public class ExpenseDTO {
     /**
      * The amount of the expense.
      */
-    private Double amount;
+    private Money amount;
 
     /**
      * The category of the expense.
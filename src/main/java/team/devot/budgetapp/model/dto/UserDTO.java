@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import team.devot.budgetapp.model.Money;
 
 /**
  * UserDTO is a Data Transfer Object (DTO) representing user information.
@@ -40,5 +41,5 @@ public class UserDTO {
     /**
      * The balance associated with the user.
      */
-    private Double balance;
+    private Money balance;
 }
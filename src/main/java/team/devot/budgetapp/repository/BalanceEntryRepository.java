@@ -0,0 +1,42 @@
+package team.devot.budgetapp.repository;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import team.devot.budgetapp.model.BalanceEntry;
+
+import java.util.Optional;
+
+/**
+ * BalanceEntryRepository is a Spring Data JPA repository for managing BalanceEntry entities.
+ * It provides the history queries of the ledger, which walk back from the current balance of the user.
+ */
+@Repository
+public interface BalanceEntryRepository extends JpaRepository<BalanceEntry, Long> {
+
+    /**
+     * Finds the entries of a user, newest first.
+     *
+     * @param username The username of the user.
+     * @param pageable The page to be found.
+     * @return A Page of the entries.
+     */
+    Page<BalanceEntry> findByUsernameOrderByIdDesc(String username, Pageable pageable);
+
+    /**
+     * Computes the balance of a user after the given entry in a single statement, from the current balance of the
+     * user less the entries written after it. Pass Long.MAX_VALUE for the current balance.
+     *
+     * @param username The username of the user.
+     * @param id       The unique identifier of the entry.
+     * @return An Optional containing the balance in minor units, or empty if the user is not found.
+     */
+    @Query(value = "SELECT CAST(u.USER_BALANCE - COALESCE((SELECT SUM(e.ENTRY_AMOUNT) FROM BALANCE_ENTRY e " +
+            "WHERE e.ENTRY_USERNAME = u.USER_USERNAME AND e.ENTRY_ID > :id), 0) AS BIGINT) " +
+            "FROM USERS u WHERE u.USER_USERNAME = :username",
+            nativeQuery = true)
+    Optional<Long> findBalanceAfter(@Param("username") String username, @Param("id") long id);
+}
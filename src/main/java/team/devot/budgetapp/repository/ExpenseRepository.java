@@ -1,14 +1,15 @@
 package team.devot.budgetapp.repository;
 
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import team.devot.budgetapp.model.CategoryTotal;
 import team.devot.budgetapp.model.Expense;
+import team.devot.budgetapp.model.ExpenseView;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,7 +19,7 @@ import java.util.Optional;
  * It provides methods for CRUD operations and custom queries related to expenses.
  */
 @Repository
-public interface ExpenseRepository extends JpaRepository<Expense, Long> {
+public interface ExpenseRepository extends JpaRepository<Expense, Long>, ExpenseRepositoryCustom {
 
     /**
      * Finds an expense by username and id.
@@ -30,31 +31,36 @@ public interface ExpenseRepository extends JpaRepository<Expense, Long> {
     Optional<Expense> findByUsernameAndId(String username, Long id);
 
     /**
-     * Filters expenses based on specified criteria.
+     * Finds the read-only view of an expense by username and id, selecting only the columns the API returns.
      *
-     * @param username        The username associated with the expenses.
-     * @param expenseCategory The category of the expenses (nullable).
-     * @param minPrice        The minimum amount of the expenses (nullable).
-     * @param maxPrice        The maximum amount of the expenses (nullable).
-     * @param startDate       The start date for filtering (nullable).
-     * @param endDate         The end date for filtering (nullable).
-     * @param pageable        The pagination information.
-     * @return A Page of filtered expenses.
+     * @param username The username associated with the expense.
+     * @param id       The unique identifier of the expense.
+     * @return An Optional containing the view of the found expense, or empty if not found.
+     */
+    @Query("SELECT new team.devot.budgetapp.model.ExpenseView(e.id, e.description, e.amount, e.expenseCategory, " +
+            "e.date) FROM Expense e WHERE e.username = :username AND e.id = :id")
+    Optional<ExpenseView> findViewByUsernameAndId(@Param("username") String username, @Param("id") Long id);
+
+    /**
+     * Finds the read-only views of the expenses of a user among the given ids with one query.
+     *
+     * @param username The username associated with the expenses.
+     * @param ids      The unique identifiers of the expenses.
+     * @return A list of the views of the found expenses, in no particular order.
+     */
+    @Query("SELECT new team.devot.budgetapp.model.ExpenseView(e.id, e.description, e.amount, e.expenseCategory, " +
+            "e.date) FROM Expense e WHERE e.username = :username AND e.id IN :ids")
+    List<ExpenseView> findViewsByUsernameAndIdIn(@Param("username") String username,
+                                                 @Param("ids") Collection<Long> ids);
+
+    /**
+     * Finds the expenses of a user among the given ids with one query.
+     *
+     * @param username The username associated with the expenses.
+     * @param ids      The unique identifiers of the expenses.
+     * @return A list of the found expenses, leaving out ids that are missing or belong to another user.
      */
-    @Query("SELECT e FROM Expense e WHERE " +
-            "(:expenseCategory IS NULL OR e.expenseCategory = :expenseCategory) " +
-            "AND (:minPrice IS NULL OR e.amount >= :minPrice) " +
-            "AND (:maxPrice IS NULL OR e.amount <= :maxPrice) " +
-            "AND (:username IS e.username) " +
-            "AND (:startDate IS NULL OR e.date >= :startDate) " +
-            "AND (:endDate IS NULL OR e.date <= :endDate)")
-    Page<Expense> filterExpenses(@Param("username") String username,
-                                 @Param("expenseCategory") String expenseCategory,
-                                 @Param("minPrice") Double minPrice,
-                                 @Param("maxPrice") Double maxPrice,
-                                 @Param("startDate") LocalDate startDate,
-                                 @Param("endDate") LocalDate endDate,
-                                 Pageable pageable);
+    List<Expense> findAllByUsernameAndIdIn(String username, Collection<Long> ids);
 
     /**
      * Aggregates expenses by category within a specified date range.
@@ -62,13 +68,13 @@ public interface ExpenseRepository extends JpaRepository<Expense, Long> {
      * @param username  The username associated with the expenses.
      * @param startDate The start date for aggregation.
      * @param endDate   The end date for aggregation.
-     * @return A list of Object arrays representing aggregated data (category, total amount).
+     * @return A list of the totals per category.
      */
-    @Query("SELECT e.expenseCategory, SUM(e.amount) FROM Expense e " +
+    @Query("SELECT new team.devot.budgetapp.model.CategoryTotal(e.expenseCategory, SUM(e.amount)) FROM Expense e " +
             "WHERE e.date BETWEEN :startDate AND :endDate " +
-            "AND (:username IS e.username) " +
+            "AND e.username = :username " +
             "GROUP BY e.expenseCategory")
-    List<Object[]> aggregateExpensesByCategory(@Param("username") String username,
-                                               @Param("startDate") LocalDate startDate,
-                                               @Param("endDate") LocalDate endDate);
+    List<CategoryTotal> aggregateExpensesByCategory(@Param("username") String username,
+                                                    @Param("startDate") LocalDate startDate,
+                                                    @Param("endDate") LocalDate endDate);
 }
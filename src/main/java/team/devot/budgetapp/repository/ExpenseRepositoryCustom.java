@@ -0,0 +1,83 @@
+package team.devot.budgetapp.repository;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import team.devot.budgetapp.model.Expense;
+import team.devot.budgetapp.model.ExpenseCursor;
+import team.devot.budgetapp.model.ExpenseView;
+import team.devot.budgetapp.model.Filter;
+import team.devot.budgetapp.model.Money;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * ExpenseRepositoryCustom declares the expense queries that are built at runtime instead of being derived or declared
+ * with {@code @Query}.
+ */
+public interface ExpenseRepositoryCustom {
+
+    /**
+     * Filters expenses based on specified criteria. Criteria that are null are left out of the query.
+     *
+     * @param username        The username associated with the expenses.
+     * @param expenseCategory The category of the expenses (nullable).
+     * @param minPrice        The minimum amount of the expenses (nullable).
+     * @param maxPrice        The maximum amount of the expenses (nullable).
+     * @param startDate       The start date for filtering (nullable).
+     * @param endDate         The end date for filtering (nullable).
+     * @param pageable        The pagination information.
+     * @return A Page of read-only views of the filtered expenses.
+     */
+    Page<ExpenseView> filterExpenses(String username, String expenseCategory, Money minPrice, Money maxPrice,
+                                     LocalDate startDate, LocalDate endDate, Pageable pageable);
+
+    /**
+     * Finds the expenses matching the filter that follow the cursor position, seeking on the sort field and the id
+     * instead of skipping rows with an offset.
+     *
+     * @param filter The filter criteria for the expenses.
+     * @param cursor The sort and position of the listing.
+     * @param limit  The maximum number of expenses to return.
+     * @return A list of at most limit expenses in cursor order.
+     */
+    List<Expense> findAfterCursor(Filter filter, ExpenseCursor cursor, int limit);
+
+    /**
+     * Streams all expenses matching the filter, sorted by the filter sort or by id, without loading them all at once.
+     * The stream must be consumed and closed inside a transaction.
+     *
+     * @param filter    The filter criteria for the expenses; paging is ignored.
+     * @param fetchSize The number of rows fetched from the database per round trip.
+     * @return A Stream of the matching expenses.
+     */
+    Stream<Expense> streamExpenses(Filter filter, int fetchSize);
+
+    /**
+     * Aggregates the expenses of a user within a date range by day and category in one grouped query, passing each
+     * daily total to the action as a primitive long in date order.
+     *
+     * @param username  The username associated with the expenses.
+     * @param startDate The first day of the range.
+     * @param endDate   The last day of the range.
+     * @param action    The action receiving each day and category with its total in minor units.
+     */
+    void forEachDailyTotal(String username, LocalDate startDate, LocalDate endDate, DailyTotalConsumer action);
+
+    /**
+     * DailyTotalConsumer receives the total of the expenses of one category on one day.
+     */
+    @FunctionalInterface
+    interface DailyTotalConsumer {
+
+        /**
+         * Receives a daily total.
+         *
+         * @param date     The day of the expenses.
+         * @param category The category of the expenses.
+         * @param total    The total amount of the expenses, in minor units.
+         */
+        void accept(LocalDate date, String category, long total);
+    }
+}
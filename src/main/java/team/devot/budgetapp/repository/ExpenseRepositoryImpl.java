@@ -0,0 +1,280 @@
+package team.devot.budgetapp.repository;
+
+import org.hibernate.Session;
+import org.hibernate.jpa.QueryHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
+import team.devot.budgetapp.exception.CustomException;
+import team.devot.budgetapp.model.Expense;
+import team.devot.budgetapp.model.ExpenseCursor;
+import team.devot.budgetapp.model.ExpenseView;
+import team.devot.budgetapp.model.Filter;
+import team.devot.budgetapp.model.Money;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * ExpenseRepositoryImpl implements the runtime-built expense queries of ExpenseRepositoryCustom.
+ * Only the criteria actually set are added to the generated JPQL, so each combination of criteria (a query shape)
+ * gets its own plan that can use the matching indexes. The JPQL of every shape is generated once and cached.
+ */
+public class ExpenseRepositoryImpl implements ExpenseRepositoryCustom {
+
+    private static final int NO_USERNAME = 1;
+    private static final int CATEGORY = 1 << 1;
+    private static final int MIN_AMOUNT = 1 << 2;
+    private static final int MAX_AMOUNT = 1 << 3;
+    private static final int START_DATE = 1 << 4;
+    private static final int END_DATE = 1 << 5;
+
+    private static final String VIEW = "new team.devot.budgetapp.model.ExpenseView(e.id, e.description, e.amount, " +
+            "e.expenseCategory, e.date)";
+
+    private static final Set<String> SORT_FIELDS = Set.of("id", "description", "amount", "expenseCategory",
+            "username", "date");
+
+    static final String DAILY_TOTALS = "SELECT \"DATE\", EXPENSE_CATEGORY, SUM(EXPENSE_AMOUNT) FROM EXPENSE " +
+            "WHERE EXPENSE_USERNAME = ? AND \"DATE\" BETWEEN ? AND ? GROUP BY \"DATE\", EXPENSE_CATEGORY " +
+            "ORDER BY \"DATE\"";
+
+    private final Map<String, String> queryCache = new ConcurrentHashMap<>();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Filters expenses based on the criteria that are set, leaving out every criterion that is null.
+     * Only the columns of the view are selected, and the views are not managed by the persistence context.
+     *
+     * @param username        The username associated with the expenses.
+     * @param expenseCategory The category of the expenses (nullable).
+     * @param minPrice        The minimum amount of the expenses (nullable).
+     * @param maxPrice        The maximum amount of the expenses (nullable).
+     * @param startDate       The start date for filtering (nullable).
+     * @param endDate         The end date for filtering (nullable).
+     * @param pageable        The pagination information.
+     * @return A Page of read-only views of the filtered expenses.
+     */
+    @Override
+    public Page<ExpenseView> filterExpenses(String username, String expenseCategory, Money minPrice,
+                                            Money maxPrice, LocalDate startDate, LocalDate endDate, Pageable pageable) {
+        Criteria criteria = new Criteria(username, expenseCategory, minPrice, maxPrice, startDate, endDate);
+        String orderBy = orderBy(pageable.getSort());
+        String jpql = queryCache.computeIfAbsent("view|" + criteria.shape() + "|" + orderBy,
+                key -> "SELECT " + VIEW + " FROM Expense e WHERE " + where(criteria.shape()) + orderBy);
+
+        TypedQuery<ExpenseView> query = entityManager.createQuery(jpql, ExpenseView.class);
+        criteria.bind(query);
+        if (pageable.isPaged())
+            query.setFirstResult((int) pageable.getOffset()).setMaxResults(pageable.getPageSize());
+
+        return PageableExecutionUtils.getPage(query.getResultList(), pageable, () -> count(criteria));
+    }
+
+    /**
+     * Finds the expenses matching the filter that follow the cursor position.
+     * The page is located with a seek predicate on (sort field, id), so its cost does not depend on how many
+     * expenses precede it, and no count query is issued. Expenses without a sort value come first ascending and last
+     * descending.
+     *
+     * @param filter The filter criteria for the expenses.
+     * @param cursor The sort and position of the listing.
+     * @param limit  The maximum number of expenses to return.
+     * @return A list of at most limit expenses in cursor order.
+     */
+    @Override
+    public List<Expense> findAfterCursor(Filter filter, ExpenseCursor cursor, int limit) {
+        Criteria criteria = new Criteria(filter.getUsername(), filter.getExpenseCategory(), filter.getMinAmount(),
+                filter.getMaxAmount(), filter.getStartDate(), filter.getEndDate());
+        String jpql = queryCache.computeIfAbsent("cursor|" + criteria.shape() + "|" + cursor.getSortField() + "|"
+                        + cursor.getDirection() + "|" + cursor.isFirst() + "|" + (cursor.getValue() == null),
+                key -> cursorQuery(criteria.shape(), cursor));
+
+        TypedQuery<Expense> query = entityManager.createQuery(jpql, Expense.class);
+        criteria.bind(query);
+        if (!cursor.isFirst()) {
+            if (!"id".equals(cursor.getSortField()) && cursor.getValue() != null)
+                query.setParameter("cursorValue", cursor.getValue());
+            query.setParameter("cursorId", cursor.getId());
+        }
+        return query.setMaxResults(limit).getResultList();
+    }
+
+    /**
+     * Streams all expenses matching the filter through a forward-only cursor. The expenses are loaded read-only, so
+     * no dirty-checking snapshot is kept for them, and callers are expected to detach each one once processed.
+     *
+     * @param filter    The filter criteria for the expenses; paging is ignored.
+     * @param fetchSize The number of rows fetched from the database per round trip.
+     * @return A Stream of the matching expenses.
+     */
+    @Override
+    public Stream<Expense> streamExpenses(Filter filter, int fetchSize) {
+        Criteria criteria = new Criteria(filter.getUsername(), filter.getExpenseCategory(), filter.getMinAmount(),
+                filter.getMaxAmount(), filter.getStartDate(), filter.getEndDate());
+        Sort sort = filter.getSortField() == null ? Sort.by("id") : Sort.by(filter.getSortOrder() == null
+                ? Sort.Direction.ASC : Sort.Direction.fromString(filter.getSortOrder()), filter.getSortField());
+        String orderBy = orderBy(sort);
+        String jpql = queryCache.computeIfAbsent("select|" + criteria.shape() + "|" + orderBy,
+                key -> "SELECT e FROM Expense e WHERE " + where(criteria.shape()) + orderBy);
+
+        TypedQuery<Expense> query = entityManager.createQuery(jpql, Expense.class)
+                .setHint(QueryHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(QueryHints.HINT_READONLY, true);
+        criteria.bind(query);
+        return query.getResultStream();
+    }
+
+    /**
+     * Aggregates the expenses of a user within a date range by day and category. The query is a single range scan of
+     * the username and date index, and it runs as plain JDBC on the connection of the current session, reading every
+     * total with getLong. Pending expense changes of the current transaction are flushed first.
+     *
+     * @param username  The username associated with the expenses.
+     * @param startDate The first day of the range.
+     * @param endDate   The last day of the range.
+     * @param action    The action receiving each day and category with its total in minor units.
+     */
+    @Override
+    public void forEachDailyTotal(String username, LocalDate startDate, LocalDate endDate,
+                                  DailyTotalConsumer action) {
+        if (entityManager.isJoinedToTransaction())
+            entityManager.flush();
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(DAILY_TOTALS)) {
+                statement.setString(1, username);
+                statement.setDate(2, Date.valueOf(startDate));
+                statement.setDate(3, Date.valueOf(endDate));
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        action.accept(resultSet.getDate(1).toLocalDate(), resultSet.getString(2),
+                                resultSet.getLong(3));
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Returns the number of query shapes generated so far.
+     *
+     * @return The size of the query cache.
+     */
+    int cachedQueryCount() {
+        return queryCache.size();
+    }
+
+    private long count(Criteria criteria) {
+        String jpql = queryCache.computeIfAbsent("count|" + criteria.shape(),
+                key -> "SELECT COUNT(e) FROM Expense e WHERE " + where(criteria.shape()));
+        TypedQuery<Long> query = entityManager.createQuery(jpql, Long.class);
+        criteria.bind(query);
+        return query.getSingleResult();
+    }
+
+    private String cursorQuery(int shape, ExpenseCursor cursor) {
+        StringBuilder jpql = new StringBuilder("SELECT e FROM Expense e WHERE ").append(where(shape));
+        String field = "e." + cursor.getSortField();
+        boolean ascending = cursor.getDirection() == Sort.Direction.ASC;
+        boolean nullable = ExpenseCursor.NULLABLE_SORT_FIELDS.contains(cursor.getSortField());
+        String operator = ascending ? ">" : "<";
+        if (!cursor.isFirst()) {
+            if ("id".equals(cursor.getSortField())) {
+                jpql.append(" AND e.id ").append(operator).append(" :cursorId");
+            } else if (cursor.getValue() == null) {
+                // NULLs sort first ascending, so every value follows them, and last descending, so only NULLs do.
+                jpql.append(" AND (").append(field).append(" IS NULL AND e.id ").append(operator).append(" :cursorId");
+                if (ascending)
+                    jpql.append(" OR ").append(field).append(" IS NOT NULL");
+                jpql.append(')');
+            } else {
+                jpql.append(" AND (").append(field).append(' ').append(operator).append(" :cursorValue OR (")
+                        .append(field).append(" = :cursorValue AND e.id ").append(operator).append(" :cursorId)");
+                if (nullable && !ascending)
+                    jpql.append(" OR ").append(field).append(" IS NULL");
+                jpql.append(')');
+            }
+        }
+
+        String direction = cursor.getDirection().name();
+        jpql.append(" ORDER BY ").append(field).append(' ').append(direction);
+        if (nullable)
+            jpql.append(ascending ? " NULLS FIRST" : " NULLS LAST");
+        if (!"id".equals(cursor.getSortField()))
+            jpql.append(", e.id ").append(direction);
+        return jpql.toString();
+    }
+
+    private String where(int shape) {
+        StringBuilder where = new StringBuilder((shape & NO_USERNAME) != 0
+                ? "e.username IS NULL" : "e.username = :username");
+        if ((shape & CATEGORY) != 0)
+            where.append(" AND e.expenseCategory = :expenseCategory");
+        if ((shape & MIN_AMOUNT) != 0)
+            where.append(" AND e.amount >= :minPrice");
+        if ((shape & MAX_AMOUNT) != 0)
+            where.append(" AND e.amount <= :maxPrice");
+        if ((shape & START_DATE) != 0)
+            where.append(" AND e.date >= :startDate");
+        if ((shape & END_DATE) != 0)
+            where.append(" AND e.date <= :endDate");
+        return where.toString();
+    }
+
+    private String orderBy(Sort sort) {
+        if (sort.isUnsorted())
+            return "";
+        StringJoiner orderBy = new StringJoiner(", ", " ORDER BY ", "");
+        for (Sort.Order order : sort) {
+            if (!SORT_FIELDS.contains(order.getProperty()))
+                throw new CustomException("Invalid sort field: " + order.getProperty());
+            orderBy.add("e." + order.getProperty() + " " + order.getDirection().name());
+        }
+        return orderBy.toString();
+    }
+
+    /**
+     * The filter criteria of a query, of which only the non-null ones are applied.
+     */
+    private record Criteria(String username, String expenseCategory, Money minPrice, Money maxPrice,
+                            LocalDate startDate, LocalDate endDate) {
+
+        int shape() {
+            return (username == null ? NO_USERNAME : 0)
+                    | (expenseCategory != null ? CATEGORY : 0)
+                    | (minPrice != null ? MIN_AMOUNT : 0)
+                    | (maxPrice != null ? MAX_AMOUNT : 0)
+                    | (startDate != null ? START_DATE : 0)
+                    | (endDate != null ? END_DATE : 0);
+        }
+
+        void bind(TypedQuery<?> query) {
+            if (username != null)
+                query.setParameter("username", username);
+            if (expenseCategory != null)
+                query.setParameter("expenseCategory", expenseCategory);
+            if (minPrice != null)
+                query.setParameter("minPrice", minPrice);
+            if (maxPrice != null)
+                query.setParameter("maxPrice", maxPrice);
+            if (startDate != null)
+                query.setParameter("startDate", startDate);
+            if (endDate != null)
+                query.setParameter("endDate", endDate);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package team.devot.budgetapp.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import team.devot.budgetapp.model.ExpenseRollup;
+import team.devot.budgetapp.model.ExpenseRollupId;
+
+import java.time.LocalDate;
+
+/**
+ * ExpenseRollupRepository is a Spring Data JPA repository for managing ExpenseRollup entities.
+ * It provides the incremental update, aggregation and rebuild queries of the monthly expense rollups.
+ */
+@Repository
+public interface ExpenseRollupRepository extends JpaRepository<ExpenseRollup, ExpenseRollupId>,
+        ExpenseRollupRepositoryCustom {
+
+    /**
+     * Adds an amount and a count to an existing rollup.
+     *
+     * @param username The username the rollup belongs to.
+     * @param month    The first day of the month of the rollup.
+     * @param category The category of the rollup.
+     * @param amount   The amount in minor units to be added to the total (negative to subtract).
+     * @param count    The number of expenses to be added to the count (negative to subtract).
+     * @return The number of updated rollups, 0 if the rollup does not exist yet.
+     */
+    @Modifying
+    @Query("UPDATE ExpenseRollup r SET r.total = r.total + :amount, r.count = r.count + :count " +
+            "WHERE r.username = :username AND r.month = :month AND r.category = :category")
+    int increment(@Param("username") String username,
+                  @Param("month") LocalDate month,
+                  @Param("category") String category,
+                  @Param("amount") long amount,
+                  @Param("count") long count);
+
+    /**
+     * Deletes a rollup once it no longer contains any expenses.
+     *
+     * @param username The username the rollup belongs to.
+     * @param month    The first day of the month of the rollup.
+     * @param category The category of the rollup.
+     */
+    @Modifying
+    @Query("DELETE FROM ExpenseRollup r " +
+            "WHERE r.username = :username AND r.month = :month AND r.category = :category AND r.count <= 0")
+    void deleteIfEmpty(@Param("username") String username,
+                       @Param("month") LocalDate month,
+                       @Param("category") String category);
+
+    /**
+     * Deletes all rollups.
+     */
+    @Modifying
+    @Query("DELETE FROM ExpenseRollup r")
+    void deleteAllRollups();
+
+    /**
+     * Recomputes all rollups from the raw expense rows.
+     *
+     * @return The number of inserted rollups.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO EXPENSE_ROLLUP (ROLLUP_USERNAME, ROLLUP_MONTH, ROLLUP_CATEGORY, ROLLUP_TOTAL, ROLLUP_COUNT) " +
+            "SELECT e.EXPENSE_USERNAME, CAST(DATE_TRUNC('MONTH', e.\"DATE\") AS DATE), COALESCE(e.EXPENSE_CATEGORY, ''), " +
+            "SUM(e.EXPENSE_AMOUNT), COUNT(*) FROM EXPENSE e " +
+            "WHERE e.EXPENSE_USERNAME IS NOT NULL " +
+            "GROUP BY e.EXPENSE_USERNAME, CAST(DATE_TRUNC('MONTH', e.\"DATE\") AS DATE), COALESCE(e.EXPENSE_CATEGORY, '')",
+            nativeQuery = true)
+    int rebuildFromExpenses();
+}
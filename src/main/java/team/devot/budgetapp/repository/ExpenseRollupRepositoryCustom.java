@@ -0,0 +1,23 @@
+package team.devot.budgetapp.repository;
+
+import java.time.LocalDate;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * ExpenseRollupRepositoryCustom declares the rollup queries that read results as primitives instead of entities or
+ * Object arrays.
+ */
+public interface ExpenseRollupRepositoryCustom {
+
+    /**
+     * Aggregates rollups by category within a range of months, passing each category total to the action as a
+     * primitive long, so no result row or boxed number is allocated.
+     *
+     * @param username   The username associated with the rollups.
+     * @param startMonth The first day of the first month of the range.
+     * @param endMonth   The first day of the last month of the range.
+     * @param action     The action receiving each category with its total in minor units.
+     */
+    void forEachCategoryTotal(String username, LocalDate startMonth, LocalDate endMonth,
+                              ObjLongConsumer<String> action);
+}
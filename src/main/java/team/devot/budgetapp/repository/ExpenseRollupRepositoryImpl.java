@@ -0,0 +1,51 @@
+package team.devot.budgetapp.repository;
+
+import org.hibernate.Session;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * ExpenseRollupRepositoryImpl implements the primitive rollup queries of ExpenseRollupRepositoryCustom.
+ * The queries run as plain JDBC on the connection of the current session, reading every total with getLong.
+ */
+public class ExpenseRollupRepositoryImpl implements ExpenseRollupRepositoryCustom {
+
+    static final String AGGREGATE_BY_CATEGORY = "SELECT ROLLUP_CATEGORY, SUM(ROLLUP_TOTAL) " +
+            "FROM EXPENSE_ROLLUP WHERE ROLLUP_USERNAME = ? AND ROLLUP_MONTH BETWEEN ? AND ? GROUP BY ROLLUP_CATEGORY";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Aggregates rollups by category within a range of months. Pending rollup changes of the current transaction are
+     * flushed first, as a JPQL query would do, so they are included in the totals.
+     *
+     * @param username   The username associated with the rollups.
+     * @param startMonth The first day of the first month of the range.
+     * @param endMonth   The first day of the last month of the range.
+     * @param action     The action receiving each category with its total in minor units.
+     */
+    @Override
+    public void forEachCategoryTotal(String username, LocalDate startMonth, LocalDate endMonth,
+                                     ObjLongConsumer<String> action) {
+        if (entityManager.isJoinedToTransaction())
+            entityManager.flush();
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(AGGREGATE_BY_CATEGORY)) {
+                statement.setString(1, username);
+                statement.setDate(2, Date.valueOf(startMonth));
+                statement.setDate(3, Date.valueOf(endMonth));
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next())
+                        action.accept(resultSet.getString(1), resultSet.getLong(2));
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,13 @@
+package team.devot.budgetapp.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import team.devot.budgetapp.model.JournalCheckpoint;
+
+/**
+ * JournalCheckpointRepository is a Spring Data JPA repository for managing JournalCheckpoint entities.
+ * It provides methods for CRUD operations on the expense journal checkpoints, keyed by username.
+ */
+@Repository
+public interface JournalCheckpointRepository extends JpaRepository<JournalCheckpoint, String> {
+}
@@ -0,0 +1,197 @@
+package team.devot.budgetapp.repository;
+
+import io.r2dbc.h2.H2ConnectionConfiguration;
+import io.r2dbc.h2.H2ConnectionFactory;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.Row;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.data.domain.Sort;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import team.devot.budgetapp.exception.CustomException;
+import team.devot.budgetapp.model.ExpenseView;
+import team.devot.budgetapp.model.Filter;
+import team.devot.budgetapp.model.Money;
+
+import javax.annotation.PreDestroy;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * ReactiveExpenseRepository runs the expense read queries over R2DBC.
+ * It connects to the same H2 database as the JPA repositories, using the configured datasource URL and credentials,
+ * and builds the same SQL as ExpenseRepositoryImpl from the criteria that are set. The connection factory is kept
+ * private rather than exposed as a bean, since a ConnectionFactory bean would switch off the JDBC DataSource
+ * auto-configuration the JPA repositories depend on.
+ * <p>
+ * The H2 driver is not truly non-blocking: it runs every query synchronously on the thread that subscribes. The
+ * queries are therefore subscribed on the bounded elastic scheduler, so the request thread is released while one of
+ * its workers waits for the database. Connections are pooled, since opening an embedded H2 session per query costs
+ * more than many of the queries themselves.
+ */
+@Repository
+public class ReactiveExpenseRepository {
+
+    private static final String JDBC_H2_PREFIX = "jdbc:h2:";
+
+    private static final Map<String, String> COLUMNS = Map.of(
+            "id", "EXPENSE_ID",
+            "description", "EXPENSE_DESCRIPTION",
+            "amount", "EXPENSE_AMOUNT",
+            "expenseCategory", "EXPENSE_CATEGORY",
+            "username", "EXPENSE_USERNAME",
+            "date", "\"DATE\"");
+
+    private final ConnectionPool connectionPool;
+    private final DatabaseClient databaseClient;
+
+    /**
+     * Creates the repository on the database of the JDBC datasource.
+     *
+     * @param dataSourceProperties The properties of the JDBC datasource.
+     * @param poolSize             The maximum number of pooled R2DBC connections.
+     * @throws IllegalStateException If the datasource is not an H2 database.
+     */
+    public ReactiveExpenseRepository(DataSourceProperties dataSourceProperties,
+                                     @Value("${budgetapp.reactive.pool-size:10}") int poolSize) {
+        String url = dataSourceProperties.determineUrl();
+        if (url == null || !url.startsWith(JDBC_H2_PREFIX))
+            throw new IllegalStateException("Reactive expense queries need an H2 datasource, got: " + url);
+        H2ConnectionConfiguration configuration = H2ConnectionConfiguration.builder()
+                .url(url.substring(JDBC_H2_PREFIX.length()))
+                .username(dataSourceProperties.determineUsername())
+                .password(dataSourceProperties.determinePassword())
+                .build();
+        this.connectionPool = new ConnectionPool(ConnectionPoolConfiguration
+                .builder(new H2ConnectionFactory(configuration))
+                .initialSize(0)
+                .maxSize(poolSize)
+                .build());
+        this.databaseClient = DatabaseClient.create(connectionPool);
+    }
+
+    /**
+     * Filters expenses based on the criteria that are set, emitting them as they are read.
+     *
+     * @param filter The filter criteria for the expenses; paging and sorting are ignored.
+     * @param sort   The sort of the expenses.
+     * @param offset The number of expenses to skip.
+     * @param limit  The maximum number of expenses to emit.
+     * @return A Flux of read-only views of the filtered expenses.
+     * @throws CustomException If the sort refers to an unknown field.
+     */
+    public Flux<ExpenseView> filterExpenses(Filter filter, Sort sort, long offset, int limit) {
+        StringBuilder sql = new StringBuilder("SELECT EXPENSE_ID, EXPENSE_DESCRIPTION, EXPENSE_AMOUNT, " +
+                "EXPENSE_CATEGORY, \"DATE\" FROM EXPENSE WHERE ");
+        sql.append(filter.getUsername() == null ? "EXPENSE_USERNAME IS NULL" : "EXPENSE_USERNAME = :username");
+        if (filter.getExpenseCategory() != null)
+            sql.append(" AND EXPENSE_CATEGORY = :expenseCategory");
+        if (filter.getMinAmount() != null)
+            sql.append(" AND EXPENSE_AMOUNT >= :minPrice");
+        if (filter.getMaxAmount() != null)
+            sql.append(" AND EXPENSE_AMOUNT <= :maxPrice");
+        if (filter.getStartDate() != null)
+            sql.append(" AND \"DATE\" >= :startDate");
+        if (filter.getEndDate() != null)
+            sql.append(" AND \"DATE\" <= :endDate");
+        sql.append(orderBy(sort)).append(" LIMIT :limit OFFSET :offset");
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString())
+                .bind("limit", limit)
+                .bind("offset", offset);
+        if (filter.getUsername() != null)
+            spec = spec.bind("username", filter.getUsername());
+        if (filter.getExpenseCategory() != null)
+            spec = spec.bind("expenseCategory", filter.getExpenseCategory());
+        if (filter.getMinAmount() != null)
+            spec = spec.bind("minPrice", filter.getMinAmount().minorUnits());
+        if (filter.getMaxAmount() != null)
+            spec = spec.bind("maxPrice", filter.getMaxAmount().minorUnits());
+        if (filter.getStartDate() != null)
+            spec = spec.bind("startDate", filter.getStartDate());
+        if (filter.getEndDate() != null)
+            spec = spec.bind("endDate", filter.getEndDate());
+        return spec.map((row, metadata) -> toView(row)).all()
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Finds the read-only views of the expenses of a user among the given ids, emitting them as they are read.
+     *
+     * @param username The username of the user.
+     * @param ids      The unique identifiers of the expenses; must not be empty.
+     * @return A Flux of the found views in no particular order, leaving out ids that are missing or belong to another
+     * user.
+     */
+    public Flux<ExpenseView> findViews(String username, Collection<Long> ids) {
+        return databaseClient.sql("SELECT EXPENSE_ID, EXPENSE_DESCRIPTION, EXPENSE_AMOUNT, EXPENSE_CATEGORY, " +
+                        "\"DATE\" FROM EXPENSE WHERE EXPENSE_USERNAME = :username AND EXPENSE_ID IN (:ids)")
+                .bind("username", username)
+                .bind("ids", ids)
+                .map((row, metadata) -> toView(row))
+                .all()
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Aggregates the monthly rollups by category within a range of months.
+     *
+     * @param username   The username associated with the rollups.
+     * @param startMonth The first day of the first month of the range.
+     * @param endMonth   The first day of the last month of the range.
+     * @return A Mono of the total amounts per category, with a null key for expenses without a category.
+     */
+    public Mono<Map<String, Money>> aggregateByCategory(String username, LocalDate startMonth, LocalDate endMonth) {
+        return databaseClient.sql("SELECT ROLLUP_CATEGORY, SUM(ROLLUP_TOTAL) FROM EXPENSE_ROLLUP " +
+                        "WHERE ROLLUP_USERNAME = :username AND ROLLUP_MONTH BETWEEN :startMonth AND :endMonth " +
+                        "GROUP BY ROLLUP_CATEGORY")
+                .bind("username", username)
+                .bind("startMonth", startMonth)
+                .bind("endMonth", endMonth)
+                .map((row, metadata) -> Map.entry(row.get(0, String.class),
+                        Money.ofMinor(((Number) row.get(1)).longValue())))
+                .all()
+                .<Map<String, Money>>collect(HashMap::new, (totals, total) ->
+                        totals.put(total.getKey().isEmpty() ? null : total.getKey(), total.getValue()))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Closes the pooled connections.
+     */
+    @PreDestroy
+    void close() {
+        connectionPool.dispose();
+    }
+
+    private String orderBy(Sort sort) {
+        if (sort.isUnsorted())
+            return "";
+        StringJoiner orderBy = new StringJoiner(", ", " ORDER BY ", "");
+        for (Sort.Order order : sort) {
+            String column = COLUMNS.get(order.getProperty());
+            if (column == null)
+                throw new CustomException("Invalid sort field: " + order.getProperty());
+            orderBy.add(column + " " + order.getDirection().name());
+        }
+        return orderBy.toString();
+    }
+
+    private Money toMoney(Long minorUnits) {
+        return minorUnits == null ? null : Money.ofMinor(minorUnits);
+    }
+
+    private ExpenseView toView(Row row) {
+        return new ExpenseView(row.get("EXPENSE_ID", Long.class), row.get("EXPENSE_DESCRIPTION", String.class),
+                toMoney(row.get("EXPENSE_AMOUNT", Long.class)), row.get("EXPENSE_CATEGORY", String.class),
+                row.get("DATE", LocalDate.class));
+    }
+}
@@ -1,9 +1,15 @@
 package team.devot.budgetapp.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import team.devot.budgetapp.model.Money;
 import team.devot.budgetapp.model.User;
 
+import javax.persistence.LockModeType;
 import java.util.Optional;
 
 /**
@@ -36,4 +42,50 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * @return true if a user with the given email exists, false otherwise.
      */
     boolean existsByEmail(String email);
+
+    /**
+     * Finds the balance of a user by username, without loading the user.
+     *
+     * @param username The username of the user.
+     * @return An Optional containing the balance, or empty if the user is not found.
+     */
+    @Query("SELECT u.balance FROM User u WHERE u.username = :username")
+    Optional<Money> findBalanceByUsername(@Param("username") String username);
+
+    /**
+     * Locks the row of a user until the transaction ends and reads the balance under the lock, so it cannot change
+     * until the transaction ends.
+     *
+     * @param username The username of the user.
+     * @return An Optional containing the balance, or empty if the user is not found.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT u.balance FROM User u WHERE u.username = :username")
+    Optional<Money> lockBalanceByUsername(@Param("username") String username);
+
+    /**
+     * Subtracts an amount from the balance of a user in a single statement, provided the balance covers the required
+     * amount. The check and the write happen atomically in the database, so concurrent debits can neither overdraw the
+     * balance nor overwrite each other.
+     *
+     * @param username The username of the user.
+     * @param amount   The amount to be subtracted.
+     * @param required The balance the user must have for the amount to be subtracted.
+     * @return The number of updated users, 0 if the user is not found or the balance is insufficient.
+     */
+    @Modifying
+    @Query("UPDATE User u SET u.balance = u.balance - :amount WHERE u.username = :username AND u.balance >= :required")
+    int debitBalance(@Param("username") String username, @Param("amount") Money amount,
+                     @Param("required") Money required);
+
+    /**
+     * Adds an amount to the balance of a user in a single statement.
+     *
+     * @param username The username of the user.
+     * @param amount   The amount to be added (negative to subtract).
+     * @return The number of updated users, 0 if the user is not found.
+     */
+    @Modifying
+    @Query("UPDATE User u SET u.balance = u.balance + :amount WHERE u.username = :username")
+    int creditBalance(@Param("username") String username, @Param("amount") Money amount);
 }
@@ -0,0 +1,373 @@
+package team.devot.budgetapp.search;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.SegmentInfos;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopFieldCollector;
+import org.apache.lucene.search.TopFieldDocs;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import team.devot.budgetapp.model.Filter;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * ExpenseSearchIndex is a Lucene index of the expenses, used for full-text search on their descriptions.
+ * Descriptions are tokenized and lower-cased, and every search token matches a whole word or the start of one, so
+ * "netf" finds "Netflix subscription". The username, category, amount and date are indexed as exact terms and points,
+ * so the other filter criteria are applied inside the index and a search never scans the expense table.
+ * <p>
+ * The index follows the database: writers pass the ids of the expenses they touched, and once their transaction
+ * commits those rows are read back and their documents replaced or deleted. Reading back the committed rows under a
+ * lock keeps the index right even when concurrent commits are reported out of order. Writes only buffer the changed
+ * documents; the reader is reopened by the next search, so a burst of writes shares one reopen and a search still
+ * sees every write that returned before it.
+ * <p>
+ * The index is held in memory unless {@code budgetapp.search.index-dir} is set, in which case it is stored in that
+ * directory and committed to it when it is rebuilt and when it is closed. An index left by an orderly shutdown is reused on startup as long
+ * as it still holds as many expenses as the database, up to the same newest id; an index left by a crash or by a
+ * database changed behind its back is rebuilt from the expense table.
+ */
+@Component
+public class ExpenseSearchIndex {
+
+    private static final String ID = "id";
+    private static final String USERNAME = "username";
+    private static final String DESCRIPTION = "description";
+    private static final String CATEGORY = "category";
+    private static final String AMOUNT = "amount";
+    private static final String DATE = "date";
+
+    /**
+     * The commit data key recording whether the index was closed in an orderly way, so no committed change of the
+     * database can be missing from it.
+     */
+    private static final String CLEAN = "clean";
+
+    private static final String SELECT = "SELECT EXPENSE_ID, EXPENSE_USERNAME, EXPENSE_DESCRIPTION, EXPENSE_CATEGORY, " +
+            "EXPENSE_AMOUNT, \"DATE\" FROM EXPENSE";
+
+    /**
+     * The boost of a whole-word match over a match on the start of a word.
+     */
+    private static final float EXACT_BOOST = 2f;
+
+    /**
+     * Ranks by relevance, then newest expense first.
+     */
+    private static final Sort RELEVANCE = new Sort(SortField.FIELD_SCORE, new SortField(ID, SortField.Type.LONG, true));
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+    private final boolean closedCleanly;
+
+    /**
+     * Opens the index, stored in the given directory or held in memory. The index is marked as not closed cleanly
+     * until it is closed again.
+     *
+     * @param jdbcTemplate The template the indexed expenses are read with.
+     * @param indexDir     The directory the index is stored in, created if missing; blank to hold it in memory.
+     * @throws UncheckedIOException If the index cannot be opened.
+     */
+    public ExpenseSearchIndex(NamedParameterJdbcTemplate jdbcTemplate,
+                              @Value("${budgetapp.search.index-dir:}") String indexDir) {
+        this.jdbcTemplate = jdbcTemplate;
+        try {
+            Directory directory = indexDir.isBlank() ? new ByteBuffersDirectory()
+                    : FSDirectory.open(Files.createDirectories(Path.of(indexDir)));
+            closedCleanly = DirectoryReader.indexExists(directory)
+                    && Boolean.parseBoolean(SegmentInfos.readLatestCommit(directory).getUserData().get(CLEAN));
+            writer = new IndexWriter(directory, new IndexWriterConfig(analyzer));
+            writer.setLiveCommitData(Map.of(CLEAN, "false").entrySet());
+            writer.commit();
+            searcherManager = new SearcherManager(writer, null);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Checks whether the index opened on startup still follows the database: it was closed cleanly and holds as many
+     * expenses as the expense table, up to the same newest id.
+     *
+     * @return true if the index can be used as it is, false if it needs to be rebuilt.
+     */
+    public synchronized boolean isCurrent() {
+        if (!closedCleanly)
+            return false;
+        Map<String, Object> table = jdbcTemplate.queryForMap("SELECT COUNT(*) AS EXPENSES, " +
+                "COALESCE(MAX(EXPENSE_ID), 0) AS NEWEST FROM EXPENSE", Map.of());
+        try {
+            IndexSearcher searcher = acquire();
+            try {
+                TopFieldDocs newest = searcher.search(new MatchAllDocsQuery(), 1,
+                        new Sort(new SortField(ID, SortField.Type.LONG, true)));
+                long newestId = newest.scoreDocs.length == 0 ? 0
+                        : Long.parseLong(searcher.doc(newest.scoreDocs[0].doc, Set.of(ID)).get(ID));
+                return searcher.getIndexReader().numDocs() == ((Number) table.get("EXPENSES")).longValue()
+                        && newestId == ((Number) table.get("NEWEST")).longValue();
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Brings the documents of the given expenses up to date with the database. When called inside a transaction, this
+     * happens once the transaction commits, and nothing happens if it rolls back.
+     *
+     * @param ids The unique identifiers of the created, updated or deleted expenses.
+     */
+    public void reindex(Collection<Long> ids) {
+        if (ids.isEmpty())
+            return;
+        Set<Long> pending = new HashSet<>(ids);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(pending);
+                }
+            });
+        } else {
+            apply(pending);
+        }
+    }
+
+    /**
+     * Replaces the whole index with the documents of all expenses in the database.
+     *
+     * @return The number of indexed expenses.
+     */
+    public synchronized int rebuild() {
+        try {
+            writer.deleteAll();
+            int[] indexed = new int[1];
+            jdbcTemplate.query(SELECT, rs -> {
+                try {
+                    writer.addDocument(document(rs));
+                    indexed[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.commit();
+            searcherManager.maybeRefreshBlocking();
+            return indexed[0];
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Searches the descriptions of the expenses matching the other criteria of the filter, ranked by relevance.
+     * Every token of the description must match, either a whole word or the start of one; whole words rank higher.
+     *
+     * @param filter The filter criteria for the expenses, with the searched text as description; paging and sorting
+     *               are ignored.
+     * @param offset The number of ranked expenses to skip.
+     * @param limit  The maximum number of expenses to return.
+     * @return The ids of the found expenses in rank order, with the total number of matches.
+     */
+    public Hits search(Filter filter, long offset, int limit) {
+        List<String> tokens = tokens(filter.getDescription());
+        if (filter.getUsername() == null || tokens.isEmpty())
+            return new Hits(List.of(), 0);
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        for (String token : tokens) {
+            Term term = new Term(DESCRIPTION, token);
+            query.add(new BooleanQuery.Builder()
+                    .add(new BoostQuery(new TermQuery(term), EXACT_BOOST), BooleanClause.Occur.SHOULD)
+                    .add(new PrefixQuery(term), BooleanClause.Occur.SHOULD)
+                    .build(), BooleanClause.Occur.MUST);
+        }
+        query.add(new TermQuery(new Term(USERNAME, filter.getUsername())), BooleanClause.Occur.FILTER);
+        if (filter.getExpenseCategory() != null)
+            query.add(new TermQuery(new Term(CATEGORY, filter.getExpenseCategory())), BooleanClause.Occur.FILTER);
+        if (filter.getMinAmount() != null || filter.getMaxAmount() != null) {
+            query.add(LongPoint.newRangeQuery(AMOUNT,
+                    filter.getMinAmount() == null ? Long.MIN_VALUE : filter.getMinAmount().minorUnits(),
+                    filter.getMaxAmount() == null ? Long.MAX_VALUE : filter.getMaxAmount().minorUnits()),
+                    BooleanClause.Occur.FILTER);
+        }
+        if (filter.getStartDate() != null || filter.getEndDate() != null) {
+            query.add(LongPoint.newRangeQuery(DATE,
+                    filter.getStartDate() == null ? Long.MIN_VALUE : filter.getStartDate().toEpochDay(),
+                    filter.getEndDate() == null ? Long.MAX_VALUE : filter.getEndDate().toEpochDay()),
+                    BooleanClause.Occur.FILTER);
+        }
+
+        try {
+            IndexSearcher searcher = acquire();
+            try {
+                int wanted = (int) Math.min(offset + limit, Integer.MAX_VALUE);
+                TopFieldCollector collector = TopFieldCollector.create(RELEVANCE, Math.max(wanted, 1),
+                        Integer.MAX_VALUE);
+                searcher.search(query.build(), collector);
+                TopFieldDocs top = collector.topDocs();
+                int end = Math.min(wanted, top.scoreDocs.length);
+                List<Long> ids = new ArrayList<>(Math.max(end - (int) Math.min(offset, end), 0));
+                for (int i = (int) Math.min(offset, end); i < end; i++) {
+                    ScoreDoc hit = top.scoreDocs[i];
+                    ids.add(Long.parseLong(searcher.doc(hit.doc, Set.of(ID)).get(ID)));
+                }
+                return new Hits(ids, top.totalHits.value);
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Returns the number of expenses in the index.
+     *
+     * @return The number of indexed expenses.
+     */
+    public int size() {
+        try {
+            IndexSearcher searcher = acquire();
+            try {
+                return searcher.getIndexReader().numDocs();
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Commits the index marked as closed cleanly and closes it.
+     */
+    @PreDestroy
+    synchronized void close() throws IOException {
+        searcherManager.close();
+        writer.setLiveCommitData(Map.of(CLEAN, "true").entrySet());
+        writer.commit();
+        writer.close();
+    }
+
+    /**
+     * Reads back the committed rows of the expenses and replaces their documents, deleting the documents of the
+     * expenses that no longer exist.
+     */
+    private synchronized void apply(Set<Long> ids) {
+        try {
+            Set<Long> missing = new HashSet<>(ids);
+            for (Document document : jdbcTemplate.query(SELECT + " WHERE EXPENSE_ID IN (:ids)", Map.of("ids", ids),
+                    (rs, row) -> document(rs))) {
+                String id = document.get(ID);
+                missing.remove(Long.valueOf(id));
+                writer.updateDocument(new Term(ID, id), document);
+            }
+            for (Long id : missing)
+                writer.deleteDocuments(new Term(ID, id.toString()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Acquires a searcher that sees every change applied so far, reopening the reader first if anything changed.
+     */
+    private IndexSearcher acquire() throws IOException {
+        searcherManager.maybeRefreshBlocking();
+        return searcherManager.acquire();
+    }
+
+        private Document document(ResultSet rs) throws SQLException {
+        long id = rs.getLong("EXPENSE_ID");
+        Document document = new Document();
+        document.add(new StringField(ID, Long.toString(id), Field.Store.YES));
+        document.add(new NumericDocValuesField(ID, id));
+        String username = rs.getString("EXPENSE_USERNAME");
+        if (username != null)
+            document.add(new StringField(USERNAME, username, Field.Store.NO));
+        String description = rs.getString("EXPENSE_DESCRIPTION");
+        if (description != null)
+            document.add(new TextField(DESCRIPTION, description, Field.Store.NO));
+        String category = rs.getString("EXPENSE_CATEGORY");
+        if (category != null)
+            document.add(new StringField(CATEGORY, category, Field.Store.NO));
+        long amount = rs.getLong("EXPENSE_AMOUNT");
+        if (!rs.wasNull())
+            document.add(new LongPoint(AMOUNT, amount));
+        LocalDate date = rs.getObject("DATE", LocalDate.class);
+        if (date != null)
+            document.add(new LongPoint(DATE, date.toEpochDay()));
+        return document;
+    }
+
+    private List<String> tokens(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null)
+            return tokens;
+        try (TokenStream stream = analyzer.tokenStream(DESCRIPTION, text)) {
+            CharTermAttribute term = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken())
+                tokens.add(term.toString());
+            stream.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return tokens;
+    }
+
+    /**
+     * The result of a search.
+     *
+     * @param ids   The ids of the found expenses in rank order.
+     * @param total The total number of matching expenses.
+     */
+    public record Hits(List<Long> ids, long total) {
+    }
+}
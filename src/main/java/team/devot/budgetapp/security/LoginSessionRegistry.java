@@ -0,0 +1,164 @@
+package team.devot.budgetapp.security;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * LoginSessionRegistry keeps track of the users that are logged in.
+ * Sessions are held in a concurrent map from username to the time of their last activity, which is the login and
+ * every authenticated request after it. A session expires once the idle timeout has passed without activity, and
+ * when the registry grows past its maximum size the expired and then the oldest sessions are evicted, so memory stays
+ * bounded whatever the number of users.
+ */
+@Component
+public class LoginSessionRegistry {
+
+    private final Map<String, Long> sessions = new ConcurrentHashMap<>();
+    private final AtomicLong evictions = new AtomicLong();
+    private final Object evictionLock = new Object();
+    private final long idleTimeoutMillis;
+    private final int maxSize;
+    private final Clock clock;
+
+    /**
+     * Creates an empty registry.
+     *
+     * @param idleTimeout How long a session may be idle before it expires.
+     * @param maxSize     The maximum number of sessions held.
+     */
+    @Autowired
+    public LoginSessionRegistry(@Value("${budgetapp.session.idle-timeout:30m}") Duration idleTimeout,
+                                @Value("${budgetapp.session.max-size:100000}") int maxSize) {
+        this(idleTimeout, maxSize, Clock.systemUTC());
+    }
+
+    LoginSessionRegistry(Duration idleTimeout, int maxSize, Clock clock) {
+        this.idleTimeoutMillis = idleTimeout.toMillis();
+        this.maxSize = maxSize;
+        this.clock = clock;
+    }
+
+    /**
+     * Checks whether a user has an active session.
+     *
+     * @param username The username of the user.
+     * @return true if the user is logged in and the session has not expired, false otherwise.
+     */
+    public boolean isActive(String username) {
+        Long lastActivity = sessions.get(username);
+        if (lastActivity == null)
+            return false;
+        if (!isExpired(lastActivity, clock.millis()))
+            return true;
+        if (sessions.remove(username, lastActivity))
+            evictions.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * Starts a session for a user, unless the user already has an active one.
+     *
+     * @param username The username of the user.
+     * @return true if the session was started, false if the user is already logged in.
+     */
+    public boolean start(String username) {
+        long now = clock.millis();
+        boolean[] started = new boolean[1];
+        sessions.compute(username, (key, lastActivity) -> {
+            if (lastActivity != null && !isExpired(lastActivity, now))
+                return lastActivity;
+            if (lastActivity != null)
+                evictions.incrementAndGet();
+            started[0] = true;
+            return now;
+        });
+        if (started[0] && sessions.size() > maxSize)
+            evict();
+        return started[0];
+    }
+
+    /**
+     * Records activity in the session of a user, which restarts its idle timeout. A session that has already expired
+     * is not revived, and no session is started for a user that has none.
+     *
+     * @param username The username of the user.
+     */
+    public void touch(String username) {
+        long now = clock.millis();
+        sessions.computeIfPresent(username, (key, lastActivity) ->
+                isExpired(lastActivity, now) ? lastActivity : now);
+    }
+
+    /**
+     * Ends the session of a user.
+     *
+     * @param username The username of the user.
+     */
+    public void end(String username) {
+        sessions.remove(username);
+    }
+
+    /**
+     * Returns the number of sessions held, including expired sessions that have not been evicted yet.
+     *
+     * @return The number of sessions.
+     */
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    /**
+     * Returns the number of sessions evicted, either because they expired or to keep the registry within its
+     * maximum size.
+     *
+     * @return The eviction count.
+     */
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    /**
+     * Shrinks the registry to nine tenths of its maximum size, so the sweep runs once per many logins instead of on
+     * every login. Expired sessions are removed first, then the oldest ones.
+     */
+    private void evict() {
+        synchronized (evictionLock) {
+            if (sessions.size() <= maxSize)
+                return;
+            long now = clock.millis();
+            List<Map.Entry<String, Long>> active = new ArrayList<>(sessions.size());
+            for (Map.Entry<String, Long> session : sessions.entrySet()) {
+                if (isExpired(session.getValue(), now)) {
+                    if (sessions.remove(session.getKey(), session.getValue()))
+                        evictions.incrementAndGet();
+                } else {
+                    active.add(Map.entry(session.getKey(), session.getValue()));
+                }
+            }
+
+            int excess = sessions.size() - maxSize / 10 * 9;
+            if (excess <= 0)
+                return;
+            active.sort(Map.Entry.comparingByValue());
+            for (int i = 0; i < active.size() && excess > 0; i++) {
+                if (sessions.remove(active.get(i).getKey(), active.get(i).getValue())) {
+                    evictions.incrementAndGet();
+                    excess--;
+                }
+            }
+        }
+    }
+
+    private boolean isExpired(long lastActivity, long now) {
+        return now - lastActivity >= idleTimeoutMillis;
+    }
+}
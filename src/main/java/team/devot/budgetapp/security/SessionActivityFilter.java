@@ -0,0 +1,34 @@
+package team.devot.budgetapp.security;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * SessionActivityFilter records the requests of logged-in users in the LoginSessionRegistry, so a session only
+ * expires once it has been idle for the idle timeout. It runs after the security context is restored from the HTTP
+ * session, and does nothing for requests that are not authenticated.
+ */
+@RequiredArgsConstructor
+public class SessionActivityFilter extends OncePerRequestFilter {
+
+    private final LoginSessionRegistry sessionRegistry;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken))
+            sessionRegistry.touch(authentication.getName());
+        chain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,132 @@
+package team.devot.budgetapp.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import team.devot.budgetapp.model.TokenResponse;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * TokenService issues and verifies the signed tokens of stateless authentication.
+ * A token carries the user id, the username and the expiry, signed with HMAC-SHA256. Verifying it needs neither the
+ * database nor any server-side state, so every node sharing the secret accepts the tokens of every other node.
+ */
+@Slf4j
+@Component
+public class TokenService {
+
+    /**
+     * The token type clients put in front of the token in the Authorization header.
+     */
+    public static final String TOKEN_TYPE = "Bearer";
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final String VERSION = "v1";
+
+    private final SecretKeySpec key;
+    private final Duration ttl;
+    private final Clock clock;
+    private final ThreadLocal<Mac> macs;
+
+    /**
+     * Creates the token service. Without a configured secret a random one is generated, which only works for a
+     * single node and invalidates all tokens on restart.
+     *
+     * @param secret The secret the tokens are signed with, shared by all nodes.
+     * @param ttl    How long an issued token stays valid.
+     */
+    @Autowired
+    public TokenService(@Value("${budgetapp.token.secret:}") String secret,
+                        @Value("${budgetapp.token.ttl:1h}") Duration ttl) {
+        this(secret, ttl, Clock.systemUTC());
+    }
+
+    TokenService(String secret, Duration ttl, Clock clock) {
+        byte[] keyBytes;
+        if (secret == null || secret.isBlank()) {
+            log.warn("No budgetapp.token.secret configured, signing tokens with a random secret");
+            keyBytes = new byte[32];
+            new SecureRandom().nextBytes(keyBytes);
+        } else {
+            keyBytes = secret.getBytes(StandardCharsets.UTF_8);
+        }
+        this.key = new SecretKeySpec(keyBytes, ALGORITHM);
+        this.ttl = ttl;
+        this.clock = clock;
+        this.macs = ThreadLocal.withInitial(this::newMac);
+    }
+
+    /**
+     * Issues a token for a user.
+     *
+     * @param userId   The unique identifier of the user.
+     * @param username The username of the user.
+     * @return A TokenResponse with the token and its expiry.
+     */
+    public TokenResponse issue(Long userId, String username) {
+        Instant expiresAt = clock.instant().plus(ttl);
+        String payload = String.join("|", VERSION, String.valueOf(userId), String.valueOf(expiresAt.getEpochSecond()),
+                username);
+        String token = encode(payload.getBytes(StandardCharsets.UTF_8)) + "." + encode(sign(payload));
+        return new TokenResponse(token, TOKEN_TYPE, expiresAt);
+    }
+
+    /**
+     * Verifies a token and extracts its principal.
+     *
+     * @param token The token to be verified.
+     * @return An Optional containing the principal of the token, or empty if the token is malformed, forged or
+     * expired.
+     */
+    public Optional<TokenUserDetails> verify(String token) {
+        int separator = token.indexOf('.');
+        if (separator < 0)
+            return Optional.empty();
+        try {
+            String payload = new String(Base64.getUrlDecoder().decode(token.substring(0, separator)),
+                    StandardCharsets.UTF_8);
+            byte[] signature = Base64.getUrlDecoder().decode(token.substring(separator + 1));
+            if (!MessageDigest.isEqual(sign(payload), signature))
+                return Optional.empty();
+
+            String[] claims = payload.split("\\|", 4);
+            if (claims.length != 4 || !VERSION.equals(claims[0]))
+                return Optional.empty();
+            if (clock.instant().getEpochSecond() >= Long.parseLong(claims[2]))
+                return Optional.empty();
+            return Optional.of(new TokenUserDetails(Long.valueOf(claims[1]), claims[3]));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    private byte[] sign(String payload) {
+        return macs.get().doFinal(payload.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Could not initialize " + ALGORITHM, e);
+        }
+    }
+
+    private static String encode(byte[] bytes) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
@@ -0,0 +1,31 @@
+package team.devot.budgetapp.security;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.userdetails.User;
+
+/**
+ * TokenUserDetails is the principal of a request authenticated with a signed token.
+ * It is built from the claims of the token alone, so it carries no password.
+ */
+@Getter
+@EqualsAndHashCode(callSuper = true)
+public class TokenUserDetails extends User {
+
+    /**
+     * The unique identifier of the user.
+     */
+    private final Long userId;
+
+    /**
+     * Creates the principal of a token.
+     *
+     * @param userId   The unique identifier of the user.
+     * @param username The username of the user.
+     */
+    public TokenUserDetails(Long userId, String username) {
+        super(username, "", AuthorityUtils.createAuthorityList("ROLE_USER"));
+        this.userId = userId;
+    }
+}
@@ -0,0 +1,81 @@
+package team.devot.budgetapp.service;
+
+import org.springframework.data.domain.Page;
+import team.devot.budgetapp.model.BalanceEntry;
+import team.devot.budgetapp.model.BalanceHistoryEntry;
+import team.devot.budgetapp.model.Money;
+
+import java.util.Collection;
+
+/**
+ * BalanceLedgerService is an interface defining the contract for the balances of the users and their append-only
+ * ledger. Writers change the balance of the user with atomic updates and append one entry per movement in the same
+ * transaction, so the ledger is an audit trail of the balance. Expenses that are accepted before they are written hold
+ * a reservation on the balance until their entries are appended.
+ */
+public interface BalanceLedgerService {
+
+    /**
+     * Locks the balance of a user until the transaction ends and returns the part of it that is not reserved. Must run
+     * inside a transaction.
+     *
+     * @param username The username of the user.
+     * @return The current balance less the reserved amount.
+     */
+    Money lockBalance(String username);
+
+    /**
+     * Reserves part of the balance of a user for an expense that is accepted now and written later. Must run in the
+     * transaction that locked the balance and found it covers the amount; the reservation is undone if that
+     * transaction rolls back.
+     *
+     * @param username The username of the user.
+     * @param amount   The amount to be reserved.
+     */
+    void reserve(String username, Money amount);
+
+    /**
+     * Releases a reservation, once the reserved expenses are written or dropped. Inside a transaction, the
+     * reservation is released once the transaction commits, and kept if it rolls back.
+     *
+     * @param username The username of the user.
+     * @param amount   The amount to be released.
+     */
+    void release(String username, Money amount);
+
+    /**
+     * Debits the balance of a user by the amount of a debit entry in a single conditional update, provided the part of
+     * the balance that is not reserved covers it, and appends the entry. Must run inside a transaction; the balance
+     * stays locked until it ends.
+     *
+     * @param entry The debit entry, with a negative amount.
+     * @return true if the balance was debited, false if it does not cover the debit or the user is not found.
+     */
+    boolean tryDebit(BalanceEntry entry);
+
+    /**
+     * Applies entries to the balances of their users and appends them to the ledger. Must run in the transaction that
+     * locked the balances of their users.
+     *
+     * @param entries The entries to be appended.
+     */
+    void append(Collection<BalanceEntry> entries);
+
+    /**
+     * Retrieves the current balance of a user.
+     *
+     * @param username The username of the user.
+     * @return The current balance.
+     */
+    Money getBalance(String username);
+
+    /**
+     * Retrieves the balance history of a user, newest entry first.
+     *
+     * @param username The username of the user.
+     * @param page     The number of the page.
+     * @param size     The size of the page.
+     * @return A Page of the ledger entries with the balance after each.
+     */
+    Page<BalanceHistoryEntry> getHistory(String username, int page, int size);
+}
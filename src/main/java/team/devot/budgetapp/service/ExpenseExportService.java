@@ -0,0 +1,23 @@
+package team.devot.budgetapp.service;
+
+import team.devot.budgetapp.model.ExpenseFormat;
+import team.devot.budgetapp.model.Filter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * ExpenseExportService is an interface defining the contract for exporting expenses as files.
+ */
+public interface ExpenseExportService {
+
+    /**
+     * Writes all expenses matching the filter to a stream.
+     *
+     * @param filter The Filter object containing criteria for the exported expenses; paging is ignored.
+     * @param format The format to write the expenses in.
+     * @param output The stream the expenses are written to.
+     * @throws IOException If writing to the stream fails.
+     */
+    void exportExpenses(Filter filter, ExpenseFormat format, OutputStream output) throws IOException;
+}
@@ -0,0 +1,22 @@
+package team.devot.budgetapp.service;
+
+import team.devot.budgetapp.model.ExpenseFormat;
+import team.devot.budgetapp.model.ImportReport;
+
+import java.io.InputStream;
+
+/**
+ * ExpenseImportService is an interface defining the contract for importing large numbers of expenses at once.
+ */
+public interface ExpenseImportService {
+
+    /**
+     * Imports the expenses read from a stream, committing them in batches.
+     *
+     * @param username The username of the owner of the expenses.
+     * @param input    The stream of expenses to be imported.
+     * @param format   The format of the stream.
+     * @return An ImportReport with the number of imported expenses and the rejected rows.
+     */
+    ImportReport importExpenses(String username, InputStream input, ExpenseFormat format);
+}
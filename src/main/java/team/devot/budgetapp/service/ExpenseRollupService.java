@@ -0,0 +1,59 @@
+package team.devot.budgetapp.service;
+
+import team.devot.budgetapp.model.Expense;
+import team.devot.budgetapp.model.Money;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * ExpenseRollupService is an interface defining the contract for maintaining and querying the monthly expense rollups.
+ */
+public interface ExpenseRollupService {
+
+    /**
+     * Adds an expense to the rollup of its user, month and category.
+     *
+     * @param expense The expense to be added.
+     */
+    void record(Expense expense);
+
+    /**
+     * Adds expenses to their rollups, updating each affected rollup once.
+     *
+     * @param expenses The expenses to be added.
+     */
+    void recordAll(Collection<Expense> expenses);
+
+    /**
+     * Removes an expense from the rollup of its user, month and category.
+     *
+     * @param expense The expense to be removed.
+     */
+    void remove(Expense expense);
+
+    /**
+     * Removes expenses from their rollups, updating each affected rollup once.
+     *
+     * @param expenses The expenses to be removed.
+     */
+    void removeAll(Collection<Expense> expenses);
+
+    /**
+     * Aggregates expense totals by category for every month touched by the given date range.
+     *
+     * @param username  The username of the owner of the expenses.
+     * @param startDate The first day of the range, expected to be the first day of a month.
+     * @param endDate   The last day of the range, expected to be the latest date an expense can have.
+     * @return A Map containing total amounts per expense category.
+     */
+    Map<String, Money> aggregate(String username, LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Discards all rollups and recomputes them from the raw expenses.
+     *
+     * @return The number of rollups created.
+     */
+    int rebuild();
+}
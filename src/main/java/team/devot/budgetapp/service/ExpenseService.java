@@ -1,10 +1,19 @@
 package team.devot.budgetapp.service;
 
 import org.springframework.data.domain.Page;
+import team.devot.budgetapp.model.BatchOperation;
+import team.devot.budgetapp.model.BatchResult;
+import team.devot.budgetapp.model.CursorSlice;
 import team.devot.budgetapp.model.Expense;
+import team.devot.budgetapp.model.ExpenseView;
 import team.devot.budgetapp.model.Filter;
+import team.devot.budgetapp.model.Granularity;
+import team.devot.budgetapp.model.Money;
+import team.devot.budgetapp.model.SeriesBucket;
 import team.devot.budgetapp.model.dto.ExpenseDTO;
 
+import java.time.LocalDate;
+import java.util.List;
 import java.util.Map;
 
 
@@ -26,9 +35,17 @@ public interface ExpenseService {
      * Retrieves a paginated list of expenses based on filtering criteria.
      *
      * @param filter The Filter object containing criteria for filtering expenses.
-     * @return A Page of Expense representing the filtered expenses.
+     * @return A Page of read-only views of the filtered expenses.
      */
-    Page<Expense> getAllExpenses(Filter filter);
+    Page<ExpenseView> getAllExpenses(Filter filter);
+
+    /**
+     * Retrieves a slice of expenses based on filtering criteria, using cursor (keyset) pagination.
+     *
+     * @param filter The Filter object containing criteria for filtering expenses and the cursor of the previous slice.
+     * @return A CursorSlice of Expense with the token of the next slice.
+     */
+    CursorSlice<Expense> getExpensesByCursor(Filter filter);
 
     /**
      * Creates a new expense.
@@ -53,6 +70,15 @@ public interface ExpenseService {
      */
     void deleteExpense(String username, Long id);
 
+    /**
+     * Applies a batch of expense creates, updates and deletes in one transaction.
+     *
+     * @param username   The username of the owner of the expenses.
+     * @param operations The operations to apply, in order.
+     * @return The results of the operations, in the order of the operations.
+     */
+    List<BatchResult> applyBatch(String username, List<BatchOperation> operations);
+
     /**
      * Aggregates expense data based on a specified period.
      *
@@ -60,5 +86,17 @@ public interface ExpenseService {
      * @param period   The period for which data should be aggregated (e.g., "lastMonth").
      * @return A Map containing aggregated data, such as total amounts per expense category.
      */
-    Map<String, Double> aggregateDataByPeriod(String username, String period);
+    Map<String, Money> aggregateDataByPeriod(String username, String period);
+
+    /**
+     * Computes the spending series of a user: the totals per category of every bucket of a date range.
+     *
+     * @param username    The username associated with the expenses.
+     * @param startDate   The first day of the range.
+     * @param endDate     The last day of the range.
+     * @param granularity The size of the buckets.
+     * @return The buckets of the range in date order, including the buckets without expenses.
+     */
+    List<SeriesBucket> getSpendingSeries(String username, LocalDate startDate, LocalDate endDate,
+                                         Granularity granularity);
 }
@@ -0,0 +1,45 @@
+package team.devot.budgetapp.service;
+
+import team.devot.budgetapp.model.dto.ExpenseDTO;
+
+import java.time.Duration;
+
+/**
+ * ExpenseWriteBehindService is an interface defining the contract for the asynchronous expense write mode.
+ * Expenses are acknowledged once they are checked against the balance and durably journaled, and are written to the
+ * database in the background.
+ */
+public interface ExpenseWriteBehindService {
+
+    /**
+     * Accepts a new expense to be written in the background.
+     *
+     * @param expense The ExpenseDTO containing information for the new expense.
+     */
+    void acceptExpense(ExpenseDTO expense);
+
+    /**
+     * Waits until every expense accepted so far is written to the database.
+     *
+     * @param timeout How long to wait at most.
+     * @return true if the expenses are written, false if the timeout passed first.
+     */
+    boolean awaitWritten(Duration timeout);
+
+    /**
+     * Opens the journal, replays the expenses it holds that are not written yet and starts accepting expenses.
+     */
+    void start();
+
+    /**
+     * Stops accepting expenses, writes the accepted ones and closes the journal.
+     */
+    void stop();
+
+    /**
+     * Checks whether expenses are accepted.
+     *
+     * @return true if the service is started, false otherwise.
+     */
+    boolean isRunning();
+}
@@ -0,0 +1,32 @@
+package team.devot.budgetapp.service;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import team.devot.budgetapp.model.ExpenseView;
+import team.devot.budgetapp.model.Filter;
+import team.devot.budgetapp.model.Money;
+
+import java.util.Map;
+
+/**
+ * ReactiveExpenseService is an interface defining the contract for the non-blocking expense read operations.
+ */
+public interface ReactiveExpenseService {
+
+    /**
+     * Retrieves a page of expenses based on filtering criteria.
+     *
+     * @param filter The Filter object containing criteria for filtering and pagination.
+     * @return A Flux of the expenses of the requested page.
+     */
+    Flux<ExpenseView> getAllExpenses(Filter filter);
+
+    /**
+     * Aggregates expense data by category for a specified period.
+     *
+     * @param username The username associated with the expenses.
+     * @param period   The period for which data should be aggregated (e.g., "lastMonth").
+     * @return A Mono of the aggregated data by category.
+     */
+    Mono<Map<String, Money>> aggregateDataByPeriod(String username, String period);
+}
@@ -1,5 +1,6 @@
 package team.devot.budgetapp.service;
 
+import team.devot.budgetapp.model.TokenResponse;
 import team.devot.budgetapp.model.dto.UserDTO;
 
 /**
@@ -21,6 +22,14 @@ public interface UserService {
      */
     void login(UserDTO userDTO);
 
+    /**
+     * Logs in a user and issues a signed token for stateless authentication.
+     *
+     * @param userDTO The UserDTO containing the username and password for login.
+     * @return A TokenResponse with the issued token.
+     */
+    TokenResponse loginWithToken(UserDTO userDTO);
+
     /**
      * Logs out a user.
      *
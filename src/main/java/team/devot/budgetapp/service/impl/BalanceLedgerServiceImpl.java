@@ -0,0 +1,214 @@
+package team.devot.budgetapp.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import team.devot.budgetapp.exception.CustomException;
+import team.devot.budgetapp.model.BalanceEntry;
+import team.devot.budgetapp.model.BalanceHistoryEntry;
+import team.devot.budgetapp.model.Money;
+import team.devot.budgetapp.repository.BalanceEntryRepository;
+import team.devot.budgetapp.repository.UserRepository;
+import team.devot.budgetapp.service.BalanceLedgerService;
+
+import javax.persistence.EntityNotFoundException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * BalanceLedgerServiceImpl is an implementation of the BalanceLedgerService interface.
+ * The balance of a user is kept on the user row and only changed with atomic updates; every change appends its entries
+ * to the ledger in the same transaction, after the update has locked the row. Entries of one user are therefore
+ * written one at a time and their ids follow the order of the writes, which lets the history walk back from the
+ * current balance. A debit of a single expense takes no lock before its conditional update, so it costs one statement
+ * on the user row, as before the ledger was added.
+ * <p>
+ * Reservations are held in memory, in minor units per user, and are only changed under the lock of the user, except
+ * for releases after a commit and reservations undone after a rollback. A release after the commit of the entries
+ * that replace it can briefly leave both counted, which only ever understates the balance.
+ */
+@Service
+@RequiredArgsConstructor
+public class BalanceLedgerServiceImpl implements BalanceLedgerService {
+
+    private final BalanceEntryRepository entryRepository;
+    private final UserRepository userRepository;
+    private final Map<String, Long> reservations = new ConcurrentHashMap<>();
+
+    /**
+     * Locks the row of the user and reads the current balance under the lock, so it cannot change until the
+     * transaction ends. The lock also serializes the rollup writes of concurrent expense writes of the same user.
+     *
+     * @param username The username of the user.
+     * @return The current balance less the reserved amount.
+     * @throws EntityNotFoundException If the user is not found.
+     */
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Money lockBalance(String username) {
+        Money balance = userRepository.lockBalanceByUsername(username)
+                .orElseThrow(() -> new EntityNotFoundException("User with username " + username + " was not found!"));
+        return Money.ofMinor(Money.minorUnitsOf(balance) - reservations.getOrDefault(username, 0L));
+    }
+
+    /**
+     * Debits the balance with one conditional UPDATE, which requires the balance to cover the debit and the amount
+     * reserved when it started. The UPDATE locks the row of the user, so a reservation added before it took the lock
+     * is visible afterwards; if one was, the balance is checked again and the debit undone if it no longer covers the
+     * reservations.
+     *
+     * @param entry The debit entry, with a negative amount; a missing creation time is set to now.
+     * @return true if the balance was debited and the entry appended, false if the balance does not cover the debit or
+     * the user is not found.
+     */
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean tryDebit(BalanceEntry entry) {
+        String username = entry.getUsername();
+        long amount = -Money.minorUnitsOf(entry.getAmount());
+        long reserved = reservations.getOrDefault(username, 0L);
+        if (userRepository.debitBalance(username, Money.ofMinor(amount), Money.ofMinor(amount + reserved)) == 0)
+            return false;
+        long reservedNow = reservations.getOrDefault(username, 0L);
+        if (reservedNow > reserved && Money.minorUnitsOf(getBalance(username)) < reservedNow) {
+            userRepository.creditBalance(username, Money.ofMinor(amount));
+            return false;
+        }
+        if (entry.getCreatedAt() == null)
+            entry.setCreatedAt(Instant.now());
+        entryRepository.save(entry);
+        return true;
+    }
+
+    /**
+     * Adds an amount to the reservation of a user right away, so the next writer locking the balance sees it, and
+     * takes it off again if the transaction rolls back.
+     *
+     * @param username The username of the user.
+     * @param amount   The amount to be reserved.
+     */
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void reserve(String username, Money amount) {
+        long minorUnits = Money.minorUnitsOf(amount);
+        reservations.merge(username, minorUnits, Long::sum);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK)
+                    unreserve(username, minorUnits);
+            }
+        });
+    }
+
+    /**
+     * Takes an amount off the reservation of a user, after the commit when called inside a transaction.
+     *
+     * @param username The username of the user.
+     * @param amount   The amount to be released.
+     */
+    @Override
+    public void release(String username, Money amount) {
+        long minorUnits = Money.minorUnitsOf(amount);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            unreserve(username, minorUnits);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                unreserve(username, minorUnits);
+            }
+        });
+    }
+
+    /**
+     * Applies the entries to the balances of their users, with one UPDATE per user, and appends them to the ledger,
+     * leaving out the entries that do not move the balance.
+     *
+     * @param entries The entries to be appended; a missing creation time is set to now.
+     * @throws EntityNotFoundException If a user is not found.
+     */
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(Collection<BalanceEntry> entries) {
+        Instant now = Instant.now();
+        List<BalanceEntry> moving = new ArrayList<>(entries.size());
+        Map<String, Long> totals = new HashMap<>();
+        for (BalanceEntry entry : entries) {
+            long amount = Money.minorUnitsOf(entry.getAmount());
+            if (amount == 0)
+                continue;
+            if (entry.getCreatedAt() == null)
+                entry.setCreatedAt(now);
+            moving.add(entry);
+            totals.merge(entry.getUsername(), amount, Long::sum);
+        }
+        totals.forEach((username, total) -> {
+            if (userRepository.creditBalance(username, Money.ofMinor(total)) == 0)
+                throw new EntityNotFoundException("User with username " + username + " was not found!");
+        });
+        entryRepository.saveAll(moving);
+    }
+
+    /**
+     * Retrieves the current balance of a user.
+     *
+     * @param username The username of the user.
+     * @return The current balance.
+     * @throws EntityNotFoundException If the user is not found.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Money getBalance(String username) {
+        return userRepository.findBalanceByUsername(username)
+                .orElseThrow(() -> new EntityNotFoundException("User with username " + username + " was not found!"));
+    }
+
+    /**
+     * Retrieves the balance history of a user. The balance after the newest entry of the page is the current balance
+     * less the entries written after it, and the balances after the older entries are found by walking back through
+     * the page.
+     *
+     * @param username The username of the user.
+     * @param page     The number of the page.
+     * @param size     The size of the page.
+     * @return A Page of the ledger entries with the balance after each.
+     * @throws CustomException         If the page is negative or the size is not positive.
+     * @throws EntityNotFoundException If the user is not found.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Page<BalanceHistoryEntry> getHistory(String username, int page, int size) {
+        if (page < 0 || size <= 0)
+            throw new CustomException("Page must not be negative and size must be positive!");
+        Page<BalanceEntry> entries = entryRepository.findByUsernameOrderByIdDesc(username, PageRequest.of(page, size));
+        long balance = entryRepository.findBalanceAfter(username,
+                        entries.isEmpty() ? Long.MAX_VALUE : entries.getContent().get(0).getId())
+                .orElseThrow(() -> new EntityNotFoundException("User with username " + username + " was not found!"));
+
+        List<BalanceHistoryEntry> history = new ArrayList<>(entries.getNumberOfElements());
+        for (BalanceEntry entry : entries) {
+            history.add(new BalanceHistoryEntry(entry.getId(), entry.getType(), entry.getAmount(),
+                    Money.ofMinor(balance), entry.getExpenseId(), entry.getCreatedAt()));
+            balance -= Money.minorUnitsOf(entry.getAmount());
+        }
+        return new PageImpl<>(history, entries.getPageable(), entries.getTotalElements());
+    }
+
+    private void unreserve(String username, long minorUnits) {
+        reservations.computeIfPresent(username, (key, reserved) ->
+                reserved - minorUnits == 0 ? null : reserved - minorUnits);
+    }
+}
@@ -3,6 +3,8 @@ package team.devot.budgetapp.service.impl;
 import javax.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import team.devot.budgetapp.cache.CategoryCache;
+import team.devot.budgetapp.cache.DataVersions;
 import team.devot.budgetapp.exception.CustomException;
 import team.devot.budgetapp.mapper.impl.CategoryMapper;
 import team.devot.budgetapp.model.dto.CategoryDTO;
@@ -15,14 +17,17 @@ import java.util.stream.Collectors;
 
 /**
  * CategoryServiceImpl is an implementation of the CategoryService interface.
- * It provides business logic for managing categories in the application.
+ * It provides business logic for managing categories in the application, serving reads from the CategoryCache and
+ * invalidating it and bumping the category version on every write.
  */
 @Service
 @RequiredArgsConstructor
 public class CategoryServiceImpl implements CategoryService {
 
     private final CategoryRepository categoryRepository;
+    private final CategoryCache categoryCache;
     private final CategoryMapper mapper;
+    private final DataVersions dataVersions;
 
     /**
      * Retrieves a category by its unique identifier.
@@ -33,7 +38,7 @@ public class CategoryServiceImpl implements CategoryService {
      */
     @Override
     public CategoryDTO getCategory(Long id) {
-        return mapper.mapTo(categoryRepository.findById(id)
+        return mapper.mapTo(categoryCache.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Category with ID " + id + " was not found!")));
     }
 
@@ -44,7 +49,7 @@ public class CategoryServiceImpl implements CategoryService {
      */
     @Override
     public List<CategoryDTO> getAllCategories() {
-        return categoryRepository.findAllByOrderByid().stream().map(mapper::mapTo).collect(Collectors.toList());
+        return categoryCache.getAll().stream().map(mapper::mapTo).collect(Collectors.toList());
     }
 
     /**
@@ -55,9 +60,11 @@ public class CategoryServiceImpl implements CategoryService {
      */
     @Override
     public void createCategory(CategoryDTO category) {
-        if (categoryRepository.findByName(category.getName()).isPresent())
+        if (categoryCache.findByName(category.getName()).isPresent())
             throw new CustomException("Category with name : " + category.getName() + " already exists!");
         categoryRepository.save(mapper.mapFrom(category));
+        categoryCache.invalidate();
+        dataVersions.categoriesChanged();
     }
 
     /**
@@ -73,9 +80,12 @@ public class CategoryServiceImpl implements CategoryService {
         if (category.getId() == null)
             throw new CustomException("Category ID cannot be null!");
         getCategory(category.getId());
-        if (categoryRepository.findByName(category.getName()).isPresent())
+        if (categoryCache.findByName(category.getName()).isPresent())
             throw new CustomException("Category with name : " + category.getName() + " already exists!");
-        return mapper.mapTo(categoryRepository.save(mapper.mapFrom(category)));
+        CategoryDTO updated = mapper.mapTo(categoryRepository.save(mapper.mapFrom(category)));
+        categoryCache.invalidate();
+        dataVersions.categoriesChanged();
+        return updated;
     }
 
     /**
@@ -88,5 +98,7 @@ public class CategoryServiceImpl implements CategoryService {
     public void deleteCategory(Long id) {
         getCategory(id);
         categoryRepository.deleteById(id);
+        categoryCache.invalidate();
+        dataVersions.categoriesChanged();
     }
 }
@@ -0,0 +1,94 @@
+package team.devot.budgetapp.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import team.devot.budgetapp.mapper.impl.ExpenseMapper;
+import team.devot.budgetapp.model.Expense;
+import team.devot.budgetapp.model.ExpenseFormat;
+import team.devot.budgetapp.model.Filter;
+import team.devot.budgetapp.repository.ExpenseRepository;
+import team.devot.budgetapp.service.ExpenseExportService;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * ExpenseExportServiceImpl is an implementation of the ExpenseExportService interface.
+ * It streams expenses from the database and writes each one as soon as it is read, detaching it right after, so the
+ * memory used does not depend on the number of exported expenses.
+ */
+@Service
+@RequiredArgsConstructor
+public class ExpenseExportServiceImpl implements ExpenseExportService {
+
+    private final ExpenseRepository expenseRepository;
+    private final ExpenseMapper mapper;
+    private final ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${budgetapp.export.fetch-size:1000}")
+    private int fetchSize;
+
+    /**
+     * Writes all expenses matching the filter to a stream, as NDJSON lines or as CSV with a header line.
+     *
+     * @param filter The Filter object containing criteria for the exported expenses; paging is ignored.
+     * @param format The format to write the expenses in.
+     * @param output The stream the expenses are written to.
+     * @throws IOException If writing to the stream fails.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void exportExpenses(Filter filter, ExpenseFormat format, OutputStream output) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        if (format == ExpenseFormat.CSV)
+            writer.write("id,date,amount,category,description\n");
+
+        try (Stream<Expense> expenses = expenseRepository.streamExpenses(filter, fetchSize)) {
+            Iterator<Expense> iterator = expenses.iterator();
+            while (iterator.hasNext()) {
+                Expense expense = iterator.next();
+                if (format == ExpenseFormat.CSV)
+                    writeCsv(writer, expense);
+                else
+                    writer.write(objectMapper.writeValueAsString(mapper.mapTo(expense)) + "\n");
+                entityManager.detach(expense);
+            }
+        }
+        writer.flush();
+    }
+
+    private void writeCsv(Writer writer, Expense expense) throws IOException {
+        writer.write(String.valueOf(expense.getId()));
+        writer.write(',');
+        writer.write(String.valueOf(expense.getDate()));
+        writer.write(',');
+        writer.write(expense.getAmount() == null ? "" : String.valueOf(expense.getAmount()));
+        writer.write(',');
+        writer.write(csvValue(expense.getExpenseCategory()));
+        writer.write(',');
+        writer.write(csvValue(expense.getDescription()));
+        writer.write('\n');
+    }
+
+    private String csvValue(String value) {
+        if (value == null)
+            return "";
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0)
+            return value;
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
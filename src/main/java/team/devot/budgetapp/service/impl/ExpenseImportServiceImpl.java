@@ -0,0 +1,254 @@
+package team.devot.budgetapp.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import team.devot.budgetapp.cache.DataVersions;
+import team.devot.budgetapp.exception.CustomException;
+import team.devot.budgetapp.model.BalanceEntry;
+import team.devot.budgetapp.model.Expense;
+import team.devot.budgetapp.model.ExpenseFormat;
+import team.devot.budgetapp.model.ImportRejection;
+import team.devot.budgetapp.model.ImportReport;
+import team.devot.budgetapp.model.Money;
+import team.devot.budgetapp.model.dto.ExpenseDTO;
+import team.devot.budgetapp.repository.ExpenseRepository;
+import team.devot.budgetapp.repository.UserRepository;
+import team.devot.budgetapp.search.ExpenseSearchIndex;
+import team.devot.budgetapp.service.BalanceLedgerService;
+import team.devot.budgetapp.service.ExpenseImportService;
+import team.devot.budgetapp.service.ExpenseRollupService;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityNotFoundException;
+import javax.persistence.PersistenceContext;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * ExpenseImportServiceImpl is an implementation of the ExpenseImportService interface.
+ * It reads the input line by line and commits every batch of rows in its own transaction, inserting the batch with
+ * JDBC batching and appending one import entry for it to the balance ledger. Only one batch is held in memory at a time.
+ */
+@Service
+@RequiredArgsConstructor
+public class ExpenseImportServiceImpl implements ExpenseImportService {
+
+    /**
+     * The maximum number of rejected rows listed in an import report.
+     */
+    static final int MAX_REPORTED_REJECTIONS = 100;
+
+    private final ExpenseRepository expenseRepository;
+    private final UserRepository userRepository;
+    private final BalanceLedgerService ledgerService;
+    private final ExpenseRollupService rollupService;
+    private final ExpenseSearchIndex searchIndex;
+    private final DataVersions dataVersions;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${budgetapp.import.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * Imports the expenses read from a stream. Rows that cannot be parsed, are invalid or exceed the remaining
+     * balance are rejected and reported, the others are imported.
+     *
+     * @param username The username of the owner of the expenses.
+     * @param input    The stream of expenses to be imported.
+     * @param format   The format of the stream.
+     * @return An ImportReport with the number of imported expenses and the rejected rows.
+     * @throws EntityNotFoundException If the user is not found.
+     * @throws CustomException         If the stream cannot be read or a CSV stream has no amount column.
+     */
+    @Override
+    public ImportReport importExpenses(String username, InputStream input, ExpenseFormat format) {
+        if (!userRepository.existsByUsername(username))
+            throw new EntityNotFoundException("User with username " + username + " was not found!");
+
+        ImportReport report = new ImportReport();
+        List<PendingExpense> batch = new ArrayList<>(batchSize);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            List<String> header = null;
+            long lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank())
+                    continue;
+                if (format == ExpenseFormat.CSV && header == null) {
+                    header = parseHeader(line);
+                    continue;
+                }
+                try {
+                    ExpenseDTO row = format == ExpenseFormat.NDJSON
+                            ? objectMapper.readValue(line, ExpenseDTO.class) : parseCsvRow(header, line);
+                    batch.add(new PendingExpense(lineNumber, toExpense(username, row)));
+                } catch (JsonProcessingException e) {
+                    reject(report, lineNumber, "Invalid JSON: " + e.getOriginalMessage());
+                } catch (CustomException e) {
+                    reject(report, lineNumber, e.getMessage());
+                }
+                if (batch.size() >= batchSize) {
+                    importBatch(username, batch, report);
+                    batch.clear();
+                }
+            }
+        } catch (IOException e) {
+            throw new CustomException("Could not read import: " + e.getMessage());
+        }
+        if (!batch.isEmpty())
+            importBatch(username, batch, report);
+        return report;
+    }
+
+    /**
+     * Imports one batch in its own transaction. The balance is locked for the transaction, so the rows it covers are
+     * selected once and debited with a single ledger entry.
+     */
+    private void importBatch(String username, List<PendingExpense> batch, ImportReport report) {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Expense> accepted = new ArrayList<>(batch.size());
+            List<PendingExpense> overdrawn = new ArrayList<>();
+            long balance = Money.minorUnitsOf(ledgerService.lockBalance(username));
+            long total = 0;
+            for (PendingExpense pending : batch) {
+                long amount = pending.expense().getAmount().minorUnits();
+                if (total + amount > balance) {
+                    overdrawn.add(pending);
+                    continue;
+                }
+                total += amount;
+                accepted.add(pending.expense());
+            }
+
+            for (PendingExpense pending : overdrawn)
+                reject(report, pending.line(), "Insufficient balance! Current balance: " + Money.ofMinor(balance - total));
+            expenseRepository.saveAll(accepted);
+            ledgerService.append(List.of(BalanceEntry.builder().username(username).type(BalanceEntry.Type.IMPORT)
+                    .amount(Money.ofMinor(-total)).build()));
+            rollupService.recordAll(accepted);
+            searchIndex.reindex(accepted.stream().map(Expense::getId).toList());
+            dataVersions.userChanged(username);
+
+            entityManager.flush();
+            entityManager.clear();
+            report.setImported(report.getImported() + accepted.size());
+        });
+    }
+
+    private Expense toExpense(String username, ExpenseDTO row) {
+        if (row.getAmount() == null || row.getAmount().compareTo(Money.ZERO) <= 0)
+            throw new CustomException("Amount must be positive!");
+        LocalDate date = row.getDate() == null ? LocalDate.now() : row.getDate();
+        if (date.isAfter(LocalDate.now()))
+            throw new CustomException("Date " + date + " is in the future!");
+        return Expense.builder()
+                .description(row.getDescription())
+                .amount(row.getAmount())
+                .expenseCategory(row.getExpenseCategory())
+                .username(username)
+                .date(date)
+                .build();
+    }
+
+    private List<String> parseHeader(String line) {
+        List<String> header = new ArrayList<>();
+        for (String column : parseCsvLine(line))
+            header.add(column.trim().toLowerCase(Locale.ROOT));
+        if (!header.contains("amount"))
+            throw new CustomException("CSV header must contain an amount column!");
+        return header;
+    }
+
+    private ExpenseDTO parseCsvRow(List<String> header, String line) {
+        List<String> values = parseCsvLine(line);
+        ExpenseDTO row = new ExpenseDTO();
+        for (int i = 0; i < header.size() && i < values.size(); i++) {
+            String value = values.get(i).trim();
+            if (value.isEmpty())
+                continue;
+            switch (header.get(i)) {
+                case "description" -> row.setDescription(value);
+                case "amount" -> row.setAmount(parseAmount(value));
+                case "category", "expensecategory" -> row.setExpenseCategory(value);
+                case "date" -> row.setDate(parseDate(value));
+                default -> { }
+            }
+        }
+        return row;
+    }
+
+    private Money parseAmount(String value) {
+        try {
+            return Money.parse(value);
+        } catch (IllegalArgumentException e) {
+            throw new CustomException("Invalid amount: " + value);
+        }
+    }
+
+    private LocalDate parseDate(String value) {
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new CustomException("Invalid date: " + value);
+        }
+    }
+
+    /**
+     * Splits a CSV line into its values. Values may be quoted, with doubled quotes standing for a quote inside a
+     * quoted value; line breaks inside values are not supported.
+     */
+    private List<String> parseCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"')
+                    value.append(c);
+                else if (i + 1 < line.length() && line.charAt(i + 1) == '"')
+                    value.append(line.charAt(++i));
+                else
+                    quoted = false;
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        values.add(value.toString());
+        return values;
+    }
+
+    private void reject(ImportReport report, long line, String reason) {
+        report.setRejected(report.getRejected() + 1);
+        if (report.getRejections().size() < MAX_REPORTED_REJECTIONS)
+            report.getRejections().add(new ImportRejection(line, reason));
+    }
+
+    /**
+     * A parsed expense waiting for its batch to be imported, with the line it was read from.
+     */
+    private record PendingExpense(long line, Expense expense) {
+    }
+}
@@ -0,0 +1,143 @@
+package team.devot.budgetapp.service.impl;
+
+import javax.transaction.Transactional;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import team.devot.budgetapp.model.Expense;
+import team.devot.budgetapp.model.ExpenseRollup;
+import team.devot.budgetapp.model.ExpenseRollupId;
+import team.devot.budgetapp.model.Money;
+import team.devot.budgetapp.repository.ExpenseRollupRepository;
+import team.devot.budgetapp.service.ExpenseRollupService;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * ExpenseRollupServiceImpl is an implementation of the ExpenseRollupService interface.
+ * It keeps one rollup per user, month and category up to date inside the transaction of every expense write.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class ExpenseRollupServiceImpl implements ExpenseRollupService {
+
+    /**
+     * Rollup category used for expenses without a category, since the category is part of the rollup key.
+     */
+    static final String NO_CATEGORY = "";
+
+    private final ExpenseRollupRepository rollupRepository;
+
+    /**
+     * Adds an expense to the rollup of its user, month and category, creating the rollup if needed.
+     *
+     * @param expense The expense to be added.
+     */
+    @Override
+    public void record(Expense expense) {
+        if (expense == null || expense.getUsername() == null)
+            return;
+        add(expense.getUsername(), expense.getDate().withDayOfMonth(1), toRollupCategory(expense.getExpenseCategory()),
+                Money.minorUnitsOf(expense.getAmount()), 1L);
+    }
+
+    /**
+     * Adds expenses to their rollups. The expenses are summed per rollup first, so a batch touching few months and
+     * categories costs few statements however many expenses it holds.
+     *
+     * @param expenses The expenses to be added.
+     */
+    @Override
+    public void recordAll(Collection<Expense> expenses) {
+        sumByRollup(expenses).forEach((key, sum) ->
+                add(key.getUsername(), key.getMonth(), key.getCategory(), sum[0], sum[1]));
+    }
+
+    /**
+     * Removes an expense from the rollup of its user, month and category, deleting the rollup once it is empty.
+     *
+     * @param expense The expense to be removed.
+     */
+    @Override
+    public void remove(Expense expense) {
+        if (expense == null || expense.getUsername() == null)
+            return;
+        LocalDate month = expense.getDate().withDayOfMonth(1);
+        String category = toRollupCategory(expense.getExpenseCategory());
+        rollupRepository.increment(expense.getUsername(), month, category,
+                -Money.minorUnitsOf(expense.getAmount()), -1L);
+        rollupRepository.deleteIfEmpty(expense.getUsername(), month, category);
+    }
+
+    /**
+     * Removes expenses from their rollups, deleting every rollup that ends up empty. The expenses are summed per
+     * rollup first, like in recordAll.
+     *
+     * @param expenses The expenses to be removed.
+     */
+    @Override
+    public void removeAll(Collection<Expense> expenses) {
+        sumByRollup(expenses).forEach((key, sum) -> {
+            rollupRepository.increment(key.getUsername(), key.getMonth(), key.getCategory(), -sum[0], -sum[1]);
+            rollupRepository.deleteIfEmpty(key.getUsername(), key.getMonth(), key.getCategory());
+        });
+    }
+
+    /**
+     * Aggregates expense totals by category from the rollups of every month between the two dates.
+     * Rollups are kept per whole month, so the result matches the raw expenses as long as the range starts on the
+     * first day of a month and no expense is dated after the end of the range. The totals are read as primitive
+     * minor units, so only one Money per category is allocated.
+     *
+     * @param username  The username of the owner of the expenses.
+     * @param startDate The first day of the range.
+     * @param endDate   The last day of the range.
+     * @return A Map containing total amounts per expense category.
+     */
+    @Override
+    public Map<String, Money> aggregate(String username, LocalDate startDate, LocalDate endDate) {
+        Map<String, Money> aggregatedData = new HashMap<>();
+        rollupRepository.forEachCategoryTotal(username, startDate.withDayOfMonth(1), endDate.withDayOfMonth(1),
+                (category, total) -> aggregatedData.put(NO_CATEGORY.equals(category) ? null : category,
+                        Money.ofMinor(total)));
+        return aggregatedData;
+    }
+
+    /**
+     * Discards all rollups and recomputes them from the raw expenses in a single statement.
+     *
+     * @return The number of rollups created.
+     */
+    @Override
+    public int rebuild() {
+        rollupRepository.deleteAllRollups();
+        return rollupRepository.rebuildFromExpenses();
+    }
+
+    private Map<ExpenseRollupId, long[]> sumByRollup(Collection<Expense> expenses) {
+        Map<ExpenseRollupId, long[]> sums = new HashMap<>();
+        for (Expense expense : expenses) {
+            if (expense.getUsername() == null)
+                continue;
+            long[] sum = sums.computeIfAbsent(new ExpenseRollupId(expense.getUsername(),
+                    expense.getDate().withDayOfMonth(1), toRollupCategory(expense.getExpenseCategory())),
+                    key -> new long[2]);
+            sum[0] += Money.minorUnitsOf(expense.getAmount());
+            sum[1]++;
+        }
+        return sums;
+    }
+
+    private void add(String username, LocalDate month, String category, long amount, long count) {
+        if (rollupRepository.increment(username, month, category, amount, count) == 0)
+            rollupRepository.save(new ExpenseRollup(username, month, category, amount, count));
+    }
+
+    private String toRollupCategory(String category) {
+        return category == null ? NO_CATEGORY : category;
+    }
+}
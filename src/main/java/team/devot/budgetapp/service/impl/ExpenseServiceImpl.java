@@ -1,25 +1,37 @@
 package team.devot.budgetapp.service.impl;
 
 import javax.persistence.EntityNotFoundException;
-import javax.transaction.Transactional;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import team.devot.budgetapp.cache.DataVersions;
 import team.devot.budgetapp.exception.CustomException;
 import team.devot.budgetapp.mapper.impl.ExpenseMapper;
+import team.devot.budgetapp.model.BalanceEntry;
+import team.devot.budgetapp.model.BatchOperation;
+import team.devot.budgetapp.model.BatchResult;
 import team.devot.budgetapp.model.Category;
+import team.devot.budgetapp.model.CursorSlice;
 import team.devot.budgetapp.model.Expense;
+import team.devot.budgetapp.model.ExpenseCursor;
+import team.devot.budgetapp.model.ExpenseView;
 import team.devot.budgetapp.model.Filter;
-import team.devot.budgetapp.model.User;
+import team.devot.budgetapp.model.Granularity;
+import team.devot.budgetapp.model.Money;
+import team.devot.budgetapp.model.SeriesBucket;
 import team.devot.budgetapp.model.dto.ExpenseDTO;
 import team.devot.budgetapp.repository.CategoryRepository;
 import team.devot.budgetapp.repository.ExpenseRepository;
-import team.devot.budgetapp.repository.UserRepository;
+import team.devot.budgetapp.search.ExpenseSearchIndex;
+import team.devot.budgetapp.service.BalanceLedgerService;
 import team.devot.budgetapp.service.CategoryService;
+import team.devot.budgetapp.service.ExpenseRollupService;
 import team.devot.budgetapp.service.ExpenseService;
 
 import java.time.Instant;
@@ -29,15 +41,38 @@ import java.util.*;
 /**
  * ExpenseServiceImpl is an implementation of the ExpenseService interface.
  * It provides business logic for managing expenses in the application.
+ * The read methods run in read-only transactions: Hibernate sets the flush mode to MANUAL and keeps no dirty-checking
+ * snapshots, and the lookups select projections instead of managed entities.
  */
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class ExpenseServiceImpl implements ExpenseService {
 
+    /**
+     * The largest number of operations accepted in one batch.
+     */
+    static final int MAX_BATCH_OPERATIONS = 1000;
+
+    /**
+     * The largest number of buckets returned in one spending series.
+     */
+    static final int MAX_SERIES_BUCKETS = 1000;
+
+    /**
+     * The ledger entry type of every batch operation type.
+     */
+    private static final Map<BatchOperation.Type, BalanceEntry.Type> ENTRY_TYPES = Map.of(
+            BatchOperation.Type.CREATE, BalanceEntry.Type.DEBIT,
+            BatchOperation.Type.UPDATE, BalanceEntry.Type.ADJUSTMENT,
+            BatchOperation.Type.DELETE, BalanceEntry.Type.CREDIT);
+
     private final ExpenseRepository expenseRepository;
-    private final UserRepository userRepository;
+    private final BalanceLedgerService ledgerService;
     private final ExpenseMapper mapper;
+    private final ExpenseRollupService rollupService;
+    private final ExpenseSearchIndex searchIndex;
+    private final DataVersions dataVersions;
 
     /**
      * Retrieves an expense by username and ID.
@@ -48,19 +83,24 @@ public class ExpenseServiceImpl implements ExpenseService {
      * @throws EntityNotFoundException If the expense with the given ID is not found.
      */
     @Override
+    @Transactional(readOnly = true)
     public ExpenseDTO getExpense(String username, Long id) {
-        return mapper.mapTo(expenseRepository.findByUsernameAndId(username, id)
+        return mapper.mapViewTo(expenseRepository.findViewByUsernameAndId(username, id)
                 .orElseThrow(() -> new EntityNotFoundException("Expense with ID " + id + " was not found!")));
     }
 
     /**
-     * Retrieves expenses based on filtering criteria.
+     * Retrieves expenses based on filtering criteria. When the filter has a description, the descriptions are
+     * searched in the full-text index and the expenses are ranked by relevance instead of the requested sort.
      *
      * @param filter The Filter object containing criteria for filtering and pagination.
-     * @return A Page of Expense entities representing filtered expenses.
+     * @return A Page of read-only views of the filtered expenses.
      */
     @Override
-    public Page<Expense> getAllExpenses(Filter filter) {
+    @Transactional(readOnly = true)
+    public Page<ExpenseView> getAllExpenses(Filter filter) {
+        if (filter.getDescription() != null && !filter.getDescription().isBlank())
+            return searchExpenses(filter, PageRequest.of(filter.getPage(), filter.getSize()));
         Pageable pageable = PageRequest.of(filter.getPage(), filter.getSize(),
                 Sort.by(Sort.Direction.fromString(filter.getSortOrder()), filter.getSortField()));
         return expenseRepository.filterExpenses(filter.getUsername(), filter.getExpenseCategory(),
@@ -68,53 +108,204 @@ public class ExpenseServiceImpl implements ExpenseService {
     }
 
     /**
-     * Creates a new expense.
+     * Retrieves a slice of expenses based on filtering criteria, seeking past the cursor of the previous slice.
+     * One extra expense is fetched to find out whether another slice follows, so no count query is needed.
+     *
+     * @param filter The Filter object containing criteria for filtering, the slice size and the cursor.
+     * @return A CursorSlice of Expense entities with the token of the next slice.
+     * @throws CustomException If the size is not positive, the cursor is invalid or it belongs to another sort.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public CursorSlice<Expense> getExpensesByCursor(Filter filter) {
+        if (filter.getSize() <= 0)
+            throw new CustomException("Slice size must be positive!");
+        String sortField = filter.getSortField() == null ? "id" : filter.getSortField();
+        Sort.Direction direction = filter.getSortOrder() == null ? Sort.Direction.ASC
+                : Sort.Direction.fromString(filter.getSortOrder());
+
+        ExpenseCursor cursor = ExpenseCursor.first(sortField, direction);
+        if (filter.getCursor() != null) {
+            cursor = ExpenseCursor.decode(filter.getCursor());
+            if (!cursor.getSortField().equals(sortField) || cursor.getDirection() != direction)
+                throw new CustomException("Cursor does not match the requested sort!");
+        }
+
+        List<Expense> expenses = expenseRepository.findAfterCursor(filter, cursor, filter.getSize() + 1);
+        boolean hasNext = expenses.size() > filter.getSize();
+        if (hasNext)
+            expenses = expenses.subList(0, filter.getSize());
+        String nextCursor = hasNext ? cursor.after(expenses.get(expenses.size() - 1)).encode() : null;
+        return new CursorSlice<>(expenses, filter.getSize(), hasNext, nextCursor);
+    }
+
+    /**
+     * Creates a new expense. The balance is debited in a single conditional statement, which appends a debit entry to
+     * the ledger, so the expense is only kept if the balance covers it.
      *
      * @param expense The ExpenseDTO containing information for the new expense.
+     * @throws EntityNotFoundException If the user is not found.
+     * @throws CustomException         If the amount is missing or not positive, or the balance does not cover it.
      */
     @Override
     public void createExpense(ExpenseDTO expense) {
-        User user = userRepository.findByUsername(expense.getUsername()).orElseThrow(() -> new EntityNotFoundException("User with username " + expense.getUsername() + " was not found!"));
-        if (user.getBalance() >= expense.getAmount()) {
-            user.setBalance(user.getBalance()-expense.getAmount());
-            expenseRepository.save(mapper.mapFrom(expense));
-        }
-        else
-            throw new CustomException("Insufficient balance! Current balance: " + user.getBalance());
+        requirePositive(expense.getAmount());
+        Expense newExpense = mapper.mapFrom(expense);
+        expenseRepository.save(newExpense);
+        if (!ledgerService.tryDebit(entry(expense.getUsername(), BalanceEntry.Type.DEBIT, newExpense.getId(),
+                -Money.minorUnitsOf(expense.getAmount()))))
+            throw new CustomException("Insufficient balance! Current balance: "
+                    + ledgerService.lockBalance(expense.getUsername()));
+        rollupService.record(newExpense);
+        searchIndex.reindex(List.of(newExpense.getId()));
+        dataVersions.userChanged(expense.getUsername());
     }
 
     /**
-     * Updates an existing expense.
+     * Updates an existing expense. Only the difference between the new and the old amount is appended to the ledger as
+     * an adjustment, so an update never charges the balance for an amount that was already paid.
      *
      * @param expense The ExpenseDTO containing updated information for the expense.
      * @return The updated ExpenseDTO.
-     * @throws EntityNotFoundException If the expense with the given ID is not found.
+     * @throws EntityNotFoundException If the expense with the given ID or the user is not found.
+     * @throws CustomException         If the amount is missing or not positive, or the balance does not cover its
+     *                                 increase.
      */
     @Override
     public ExpenseDTO updateExpense(ExpenseDTO expense) {
-        getExpense(expense.getUsername(), expense.getId());
-        User user = userRepository.findByUsername(expense.getUsername()).orElseThrow(() -> new EntityNotFoundException("User with username " + expense.getUsername() + " was not found!"));
-        if (user.getBalance() >= expense.getAmount()) {
-            user.setBalance(user.getBalance()-expense.getAmount());
-            return mapper.mapTo(expenseRepository.save(mapper.mapFrom(expense)));
-        }
-        else
-            throw new CustomException("Insufficient balance! Current balance: " + user.getBalance());
+        requirePositive(expense.getAmount());
+        Money balance = ledgerService.lockBalance(expense.getUsername());
+        Expense existing = findExpense(expense.getUsername(), expense.getId());
+        long change = Money.minorUnitsOf(expense.getAmount()) - Money.minorUnitsOf(existing.getAmount());
+        requireCovered(balance, change);
+        rollupService.remove(existing);
+        Expense updated = expenseRepository.save(mapper.mapFrom(expense));
+        ledgerService.append(List.of(entry(expense.getUsername(), BalanceEntry.Type.ADJUSTMENT, expense.getId(), -change)));
+        rollupService.record(updated);
+        searchIndex.reindex(List.of(expense.getId()));
+        dataVersions.userChanged(expense.getUsername());
+        return mapper.mapTo(updated);
     }
 
     /**
-     * Deletes an expense by username and ID.
+     * Deletes an expense by username and ID, returning its amount to the balance with a credit entry.
      *
      * @param username The username associated with the expense.
      * @param id       The unique identifier of the expense to be deleted.
-     * @throws EntityNotFoundException If the expense with the given ID is not found.
+     * @throws EntityNotFoundException If the expense with the given ID or the user is not found.
      */
     @Override
     public void deleteExpense(String username, Long id) {
-        ExpenseDTO expense = getExpense(username, id);
-        User user = userRepository.findByUsername(username).orElseThrow(() -> new EntityNotFoundException("User with username " + expense.getUsername() + " was not found!"));
-        user.setBalance(user.getBalance()+expense.getAmount());
+        ledgerService.lockBalance(username);
+        Expense expense = findExpense(username, id);
+        rollupService.remove(expense);
         expenseRepository.deleteById(id);
+        ledgerService.append(List.of(entry(username, BalanceEntry.Type.CREDIT, id,
+                Money.minorUnitsOf(expense.getAmount()))));
+        searchIndex.reindex(List.of(id));
+        dataVersions.userChanged(username);
+    }
+
+    /**
+     * Applies a mixed batch of creates, updates and deletes in one transaction, so either all of them take effect
+     * or none does. The operations are applied in order, so a later operation sees the outcome of the earlier ones.
+     * All referenced expenses are loaded with one query, the balance is checked once against the net amount of the
+     * whole batch, one ledger entry is appended per operation, and the rollups are updated once per affected month
+     * and category.
+     *
+     * @param username   The username of the owner of the expenses.
+     * @param operations The operations to apply.
+     * @return The results of the operations, in the order of the operations.
+     * @throws CustomException         If the batch is empty or too large, an operation is incomplete, a created or
+     *                                 updated amount is missing or not positive, or the balance does not cover the
+     *                                 net amount of the batch.
+     * @throws EntityNotFoundException If a referenced expense or the user is not found.
+     */
+    @Override
+    public List<BatchResult> applyBatch(String username, List<BatchOperation> operations) {
+        if (operations == null || operations.isEmpty())
+            throw new CustomException("Batch must contain at least one operation!");
+        if (operations.size() > MAX_BATCH_OPERATIONS)
+            throw new CustomException("Batch must not contain more than " + MAX_BATCH_OPERATIONS + " operations!");
+
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < operations.size(); i++) {
+            BatchOperation operation = operations.get(i);
+            if (operation == null || operation.getType() == null || operation.getExpense() == null)
+                throw new CustomException("Batch operation " + i + " needs a type and an expense!");
+            if (operation.getType() != BatchOperation.Type.CREATE) {
+                if (operation.getExpense().getId() == null)
+                    throw new CustomException("Batch operation " + i + " needs an expense id!");
+                ids.add(operation.getExpense().getId());
+            }
+            if (operation.getType() != BatchOperation.Type.DELETE && !isPositive(operation.getExpense().getAmount()))
+                throw new CustomException("Batch operation " + i + " needs a positive amount!");
+        }
+
+        Money balance = ledgerService.lockBalance(username);
+        Map<Long, Expense> originals = new HashMap<>();
+        if (!ids.isEmpty()) {
+            for (Expense expense : expenseRepository.findAllByUsernameAndIdIn(username, ids))
+                originals.put(expense.getId(), expense);
+        }
+
+        Map<Long, Expense> current = new HashMap<>(originals);
+        List<Expense> created = new ArrayList<>();
+        Expense[] versions = new Expense[operations.size()];
+        long[] changes = new long[operations.size()];
+        long net = 0;
+        for (int i = 0; i < operations.size(); i++) {
+            ExpenseDTO expense = operations.get(i).getExpense();
+            expense.setUsername(username);
+            switch (operations.get(i).getType()) {
+                case CREATE -> {
+                    versions[i] = mapper.mapFrom(expense);
+                    created.add(versions[i]);
+                    changes[i] = Money.minorUnitsOf(versions[i].getAmount());
+                }
+                case UPDATE -> {
+                    Expense previous = currentVersion(current, expense.getId());
+                    versions[i] = mapper.mapFrom(expense);
+                    current.put(expense.getId(), versions[i]);
+                    changes[i] = Money.minorUnitsOf(versions[i].getAmount()) - Money.minorUnitsOf(previous.getAmount());
+                }
+                case DELETE -> {
+                    versions[i] = currentVersion(current, expense.getId());
+                    current.remove(expense.getId());
+                    changes[i] = -Money.minorUnitsOf(versions[i].getAmount());
+                }
+            }
+            net += changes[i];
+        }
+        requireCovered(balance, net);
+
+        rollupService.removeAll(originals.values());
+        List<Expense> deleted = new ArrayList<>();
+        List<Expense> saved = new ArrayList<>(created);
+        originals.forEach((id, original) -> {
+            Expense version = current.get(id);
+            if (version == null)
+                deleted.add(original);
+            else
+                saved.add(version);
+        });
+        expenseRepository.deleteAll(deleted);
+        expenseRepository.saveAll(saved);
+        List<BalanceEntry> entries = new ArrayList<>(operations.size());
+        for (int i = 0; i < operations.size(); i++)
+            entries.add(entry(username, ENTRY_TYPES.get(operations.get(i).getType()), versions[i].getId(), -changes[i]));
+        ledgerService.append(entries);
+        rollupService.recordAll(saved);
+        List<Long> touched = new ArrayList<>(originals.keySet());
+        for (Expense expense : created)
+            touched.add(expense.getId());
+        searchIndex.reindex(touched);
+        dataVersions.userChanged(username);
+
+        List<BatchResult> results = new ArrayList<>(operations.size());
+        for (int i = 0; i < operations.size(); i++)
+            results.add(new BatchResult(i, operations.get(i).getType(), mapper.mapTo(versions[i])));
+        return results;
     }
 
     /**
@@ -126,30 +317,135 @@ public class ExpenseServiceImpl implements ExpenseService {
      * @throws CustomException If the specified period is invalid.
      */
     @Override
-    public Map<String, Double> aggregateDataByPeriod(String username, String period) {
-        LocalDate startDate;
+    @Transactional(readOnly = true)
+    public Map<String, Money> aggregateDataByPeriod(String username, String period) {
         LocalDate endDate = LocalDate.now();
+        return performDataAggregation(username, startOfPeriod(period, endDate), endDate);
+    }
 
-        switch (period) {
-            case "lastMonth" -> startDate = endDate.minusMonths(1).withDayOfMonth(1);
-            case "lastQuarter" -> startDate = endDate.minusMonths(3).withDayOfMonth(1);
-            case "lastYear" -> startDate = endDate.minusYears(1).withDayOfYear(1);
-            default -> throw new CustomException("Invalid period: " + period);
+    /**
+     * Computes the spending series of a user from one query grouped by day and category, folding every daily total
+     * into its bucket in a single pass. Buckets and categories without expenses are filled with zero totals, so every
+     * bucket has the same categories. Expenses without a category are totalled under an empty category name.
+     *
+     * @param username    The username associated with the expenses.
+     * @param startDate   The first day of the range.
+     * @param endDate     The last day of the range.
+     * @param granularity The size of the buckets.
+     * @return The buckets of the range in date order, with the categories of each in alphabetical order.
+     * @throws CustomException If the range ends before it starts or spans more than MAX_SERIES_BUCKETS buckets.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<SeriesBucket> getSpendingSeries(String username, LocalDate startDate, LocalDate endDate,
+                                                Granularity granularity) {
+        if (endDate.isBefore(startDate))
+            throw new CustomException("Invalid range: " + startDate + " is after " + endDate);
+        long bucketCount = granularity.bucketsBetween(startDate, endDate) + 1;
+        if (bucketCount > MAX_SERIES_BUCKETS)
+            throw new CustomException("A series can have at most " + MAX_SERIES_BUCKETS + " buckets, "
+                    + startDate + " to " + endDate + " has " + bucketCount);
+
+        int buckets = (int) bucketCount;
+        Map<String, long[]> totals = new TreeMap<>();
+        expenseRepository.forEachDailyTotal(username, startDate, endDate, (date, category, total) -> {
+            String key = category == null ? ExpenseRollupServiceImpl.NO_CATEGORY : category;
+            long[] categoryTotals = totals.computeIfAbsent(key, k -> new long[buckets]);
+            categoryTotals[(int) granularity.bucketsBetween(startDate, date)] += total;
+        });
+
+        List<SeriesBucket> series = new ArrayList<>(buckets);
+        LocalDate bucketStart = granularity.bucketStart(startDate);
+        for (int i = 0; i < buckets; i++) {
+            LocalDate next = granularity.next(bucketStart);
+            Map<String, Money> bucketTotals = new LinkedHashMap<>();
+            for (Map.Entry<String, long[]> category : totals.entrySet())
+                bucketTotals.put(category.getKey(), Money.ofMinor(category.getValue()[i]));
+            series.add(new SeriesBucket(bucketStart.isBefore(startDate) ? startDate : bucketStart,
+                    next.isAfter(endDate) ? endDate : next.minusDays(1), bucketTotals));
+            bucketStart = next;
         }
-        return performDataAggregation(username, startDate, endDate);
+        return series;
     }
 
-    private Map<String, Double> performDataAggregation(String username, LocalDate startDate, LocalDate endDate) {
+    /**
+     * Resolves the first day of an aggregation period ending on the given date.
+     *
+     * @param period  The period, one of lastMonth, lastQuarter and lastYear.
+     * @param endDate The last day of the period.
+     * @return The first day of the period.
+     * @throws CustomException If the specified period is invalid.
+     */
+    static LocalDate startOfPeriod(String period, LocalDate endDate) {
+        return switch (period) {
+            case "lastMonth" -> endDate.minusMonths(1).withDayOfMonth(1);
+            case "lastQuarter" -> endDate.minusMonths(3).withDayOfMonth(1);
+            case "lastYear" -> endDate.minusYears(1).withDayOfYear(1);
+            default -> throw new CustomException("Invalid period: " + period);
+        };
+    }
+
+    /**
+     * Aggregates expense data from the monthly rollups instead of the raw expenses.
+     * Every period starts on the first day of a month and ends today, so reading whole months of rollups gives the
+     * same totals as summing the raw expenses as long as no expense is dated after today. Expenses dated in the past,
+     * as imported and journaled ones are, are covered.
+     */
+    private Map<String, Money> performDataAggregation(String username, LocalDate startDate, LocalDate endDate) {
+        return rollupService.aggregate(username, startDate, endDate);
+    }
 
-        List<Object[]> result = expenseRepository.aggregateExpensesByCategory(username, startDate, endDate);
-        Map<String, Double> aggregatedData = new HashMap<>();
+    /**
+     * Searches the descriptions in the full-text index, then loads the views of the ranked page with one query.
+     */
+    private Page<ExpenseView> searchExpenses(Filter filter, Pageable pageable) {
+        ExpenseSearchIndex.Hits hits = searchIndex.search(filter, pageable.getOffset(), pageable.getPageSize());
+        if (hits.ids().isEmpty())
+            return new PageImpl<>(List.of(), pageable, hits.total());
 
-        for (Object[] row : result) {
-            String category = (String) row[0];
-            Double totalAmount = (Double) row[1];
-            aggregatedData.put(category, totalAmount);
+        Map<Long, ExpenseView> views = new HashMap<>();
+        for (ExpenseView view : expenseRepository.findViewsByUsernameAndIdIn(filter.getUsername(), hits.ids()))
+            views.put(view.getId(), view);
+        List<ExpenseView> ranked = new ArrayList<>(views.size());
+        for (Long id : hits.ids()) {
+            ExpenseView view = views.get(id);
+            if (view != null)
+                ranked.add(view);
         }
+        return new PageImpl<>(ranked, pageable, hits.total());
+    }
+
+    private void requirePositive(Money amount) {
+        if (!isPositive(amount))
+            throw new CustomException("Amount must be positive!");
+    }
+
+    private static boolean isPositive(Money amount) {
+        return amount != null && amount.compareTo(Money.ZERO) > 0;
+    }
+
+    /**
+     * Checks that a balance locked with the ledger covers a debit; credits, given as negative amounts, always pass.
+     */
+    private void requireCovered(Money balance, long amount) {
+        if (amount > Money.minorUnitsOf(balance))
+            throw new CustomException("Insufficient balance! Current balance: " + balance);
+    }
+
+    private BalanceEntry entry(String username, BalanceEntry.Type type, Long expenseId, long amount) {
+        return BalanceEntry.builder().username(username).type(type).expenseId(expenseId)
+                .amount(Money.ofMinor(amount)).build();
+    }
+
+    private Expense currentVersion(Map<Long, Expense> current, Long id) {
+        Expense expense = current.get(id);
+        if (expense == null)
+            throw new EntityNotFoundException("Expense with ID " + id + " was not found!");
+        return expense;
+    }
 
-        return aggregatedData;
+    private Expense findExpense(String username, Long id) {
+        return expenseRepository.findByUsernameAndId(username, id)
+                .orElseThrow(() -> new EntityNotFoundException("Expense with ID " + id + " was not found!"));
     }
 }
@@ -0,0 +1,369 @@
+package team.devot.budgetapp.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import team.devot.budgetapp.cache.DataVersions;
+import team.devot.budgetapp.exception.CustomException;
+import team.devot.budgetapp.journal.ExpenseJournal;
+import team.devot.budgetapp.model.BalanceEntry;
+import team.devot.budgetapp.model.Expense;
+import team.devot.budgetapp.model.JournalCheckpoint;
+import team.devot.budgetapp.model.Money;
+import team.devot.budgetapp.model.dto.ExpenseDTO;
+import team.devot.budgetapp.repository.ExpenseRepository;
+import team.devot.budgetapp.repository.JournalCheckpointRepository;
+import team.devot.budgetapp.search.ExpenseSearchIndex;
+import team.devot.budgetapp.service.BalanceLedgerService;
+import team.devot.budgetapp.service.ExpenseRollupService;
+import team.devot.budgetapp.service.ExpenseWriteBehindService;
+
+import javax.persistence.EntityNotFoundException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ExpenseWriteBehindServiceImpl is an implementation of the ExpenseWriteBehindService interface.
+ * An accepted expense is checked against the balance under the lock of the user and reserves its amount in the
+ * ledger, so neither later accepted expenses nor synchronous writes can spend it, and the request is acknowledged
+ * once the expense is in the group-committed journal. Accepting needs no insert, so the only commit it waits for is
+ * the shared fsync of the journal.
+ * <p>
+ * A writer thread drains the journaled expenses in batches: the expenses of all users of a batch are inserted in one
+ * transaction, together with their debit entries and the journal checkpoint of every user, and the reservations are
+ * released once it commits. When a batch fails, its users are written one transaction each, so a user that no longer
+ * exists is dropped without holding back the others, and any other failure is retried. The journal is emptied whenever
+ * the writer has caught up with it. After a restart, the entries after the checkpoint of their user are reserved again
+ * and written like new ones.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ExpenseWriteBehindServiceImpl implements ExpenseWriteBehindService {
+
+    /**
+     * How long the writer waits before retrying a batch that could not be written.
+     */
+    private static final long RETRY_DELAY_MILLIS = 1000;
+
+    private static final ExpenseJournal.Entry STOP = new ExpenseJournal.Entry(-1, null);
+
+    private final ExpenseRepository expenseRepository;
+    private final JournalCheckpointRepository checkpointRepository;
+    private final BalanceLedgerService ledgerService;
+    private final ExpenseRollupService rollupService;
+    private final ExpenseSearchIndex searchIndex;
+    private final DataVersions dataVersions;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final BlockingQueue<ExpenseJournal.Entry> queue = new LinkedBlockingQueue<>();
+    private final Object progress = new Object();
+
+    @Value("${budgetapp.write-behind.journal-file:./data/expense-journal.log}")
+    private String journalFile;
+
+    @Value("${budgetapp.write-behind.commit-interval:2ms}")
+    private Duration commitInterval;
+
+    @Value("${budgetapp.write-behind.batch-size:500}")
+    private int batchSize;
+
+    private volatile ExpenseJournal journal;
+    private volatile boolean stopping;
+    private Thread writer;
+    private long journaledSequence;
+    private long writtenSequence;
+
+    /**
+     * Accepts a new expense, dated today, once its amount is reserved and it is on disk in the journal.
+     *
+     * @param expense The ExpenseDTO containing information for the new expense.
+     * @throws CustomException         If the write-behind mode is not started, the amount is not positive or the
+     *                                 balance does not cover it.
+     * @throws EntityNotFoundException If the user is not found.
+     * @throws IllegalStateException   If the expense cannot be journaled.
+     */
+    @Override
+    public void acceptExpense(ExpenseDTO expense) {
+        ExpenseJournal current = journal;
+        if (current == null)
+            throw new CustomException("Asynchronous expense writes are not enabled!");
+        if (expense.getAmount() == null || expense.getAmount().compareTo(Money.ZERO) <= 0)
+            throw new CustomException("Amount must be positive!");
+        expense.setId(null);
+        expense.setDate(LocalDate.now());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Money balance = ledgerService.lockBalance(expense.getUsername());
+            if (expense.getAmount().compareTo(balance) > 0)
+                throw new CustomException("Insufficient balance! Current balance: " + balance);
+            ledgerService.reserve(expense.getUsername(), expense.getAmount());
+        });
+        try {
+            current.append(expense).join();
+        } catch (IllegalStateException | CompletionException e) {
+            ledgerService.release(expense.getUsername(), expense.getAmount());
+            throw new IllegalStateException("Could not journal the expense", e.getCause() == null ? e : e.getCause());
+        }
+    }
+
+    /**
+     * Waits until the writer has passed the last journaled expense.
+     *
+     * @param timeout How long to wait at most.
+     * @return true if the expenses are written, false if the timeout passed first or the thread was interrupted.
+     */
+    @Override
+    public boolean awaitWritten(Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        synchronized (progress) {
+            long target = journaledSequence;
+            while (writtenSequence < target) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0)
+                    return false;
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(progress, remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Opens the journal, reserves the amounts of the entries after the checkpoints of their users and starts the
+     * writer with them. If nothing is left to write, because every entry is behind its checkpoint or belongs to a
+     * user that no longer exists, the journal is emptied right away; otherwise the writer empties it once the
+     * replayed entries are written.
+     */
+    @Override
+    public synchronized void start() {
+        if (journal != null)
+            return;
+        Map<String, Long> checkpoints = new HashMap<>();
+        for (JournalCheckpoint checkpoint : checkpointRepository.findAll())
+            checkpoints.put(checkpoint.getUsername(), checkpoint.getSequence());
+
+        ExpenseJournal opened = new ExpenseJournal(Path.of(journalFile), commitInterval, objectMapper);
+        long checkpointed = checkpoints.values().stream().mapToLong(Long::longValue).max().orElse(0);
+        List<ExpenseJournal.Entry> entries = opened.open(checkpointed, this::journaled);
+        Map<String, List<ExpenseJournal.Entry>> replayed = byUser(entries.stream()
+                .filter(entry -> entry.sequence() > checkpoints.getOrDefault(entry.expense().getUsername(), 0L))
+                .toList());
+        replayed.forEach((username, userEntries) -> {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    ledgerService.lockBalance(username);
+                    ledgerService.reserve(username, total(userEntries));
+                });
+                queue.addAll(userEntries);
+            } catch (EntityNotFoundException e) {
+                log.error("Dropping {} journaled expenses of {}: {}", userEntries.size(), username, e.getMessage());
+            }
+        });
+        if (!queue.isEmpty()) {
+            log.info("Replaying {} journaled expenses", queue.size());
+            synchronized (progress) {
+                journaledSequence = Math.max(journaledSequence, lastSequence(queue));
+            }
+        } else if (!entries.isEmpty()) {
+            opened.truncate(Math.max(checkpointed, lastSequence(entries)));
+        }
+
+        stopping = false;
+        writer = new Thread(this::writeLoop, "expense-writer");
+        writer.setDaemon(true);
+        writer.start();
+        journal = opened;
+    }
+
+    /**
+     * Stops accepting expenses, commits the journal appends in flight and waits for the writer to write everything
+     * journaled. A batch that fails while stopping is not retried and stays in the journal for the next start.
+     */
+    @Override
+    public synchronized void stop() {
+        ExpenseJournal closing = journal;
+        if (closing == null)
+            return;
+        journal = null;
+        closing.close();
+        stopping = true;
+        queue.add(STOP);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Checks whether expenses are accepted.
+     *
+     * @return true if the service is started, false otherwise.
+     */
+    @Override
+    public boolean isRunning() {
+        return journal != null;
+    }
+
+    /**
+     * Hands a group of entries on disk to the writer; called by the journal in the order of the sequences.
+     */
+    private void journaled(List<ExpenseJournal.Entry> entries) {
+        queue.addAll(entries);
+        synchronized (progress) {
+            journaledSequence = entries.get(entries.size() - 1).sequence();
+        }
+    }
+
+    private void writeLoop() {
+        List<ExpenseJournal.Entry> batch = new ArrayList<>(batchSize);
+        while (true) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            queue.drainTo(batch, batchSize - 1);
+            boolean stop = batch.remove(STOP);
+            if (!batch.isEmpty())
+                writeBatch(batch);
+            batch.clear();
+            if (stop)
+                return;
+        }
+    }
+
+    private void writeBatch(List<ExpenseJournal.Entry> batch) {
+        Map<String, List<ExpenseJournal.Entry>> users = byUser(batch);
+        while (!write(users)) {
+            if (stopping) {
+                log.warn("Leaving {} expenses in the journal for the next start", batch.size());
+                users.forEach((username, entries) -> ledgerService.release(username, total(entries)));
+                return;
+            }
+            try {
+                Thread.sleep(RETRY_DELAY_MILLIS);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+
+        long last = lastSequence(batch);
+        ExpenseJournal current = journal;
+        if (current != null && queue.isEmpty())
+            current.truncate(last);
+        synchronized (progress) {
+            writtenSequence = Math.max(writtenSequence, last);
+            progress.notifyAll();
+        }
+    }
+
+    /**
+     * Writes the expenses of all users in one transaction, or else one user at a time, removing the users that are
+     * written or dropped.
+     *
+     * @return true if no user is left, false if a user has to be retried.
+     */
+    private boolean write(Map<String, List<ExpenseJournal.Entry>> users) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> users.forEach(this::write));
+            users.clear();
+            return true;
+        } catch (RuntimeException e) {
+            if (users.size() == 1 && !(e instanceof EntityNotFoundException)) {
+                log.warn("Could not write {} journaled expenses", users.values().iterator().next().size(), e);
+                return false;
+            }
+        }
+
+        Iterator<Map.Entry<String, List<ExpenseJournal.Entry>>> iterator = users.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, List<ExpenseJournal.Entry>> user = iterator.next();
+            try {
+                transactionTemplate.executeWithoutResult(status -> write(user.getKey(), user.getValue()));
+                iterator.remove();
+            } catch (EntityNotFoundException e) {
+                log.error("Dropping {} journaled expenses of {}: {}", user.getValue().size(), user.getKey(),
+                        e.getMessage());
+                ledgerService.release(user.getKey(), total(user.getValue()));
+                iterator.remove();
+            } catch (RuntimeException e) {
+                log.warn("Could not write {} journaled expenses of {}", user.getValue().size(), user.getKey(), e);
+            }
+        }
+        return users.isEmpty();
+    }
+
+    /**
+     * Writes the expenses of one user with their debit entries and moves the checkpoint of the user past them, under
+     * the lock of the user, which keeps the rollup writes of the user serialized.
+     */
+    private void write(String username, List<ExpenseJournal.Entry> entries) {
+        ledgerService.lockBalance(username);
+        List<Expense> expenses = new ArrayList<>(entries.size());
+        for (ExpenseJournal.Entry entry : entries) {
+            ExpenseDTO expense = entry.expense();
+            expenses.add(Expense.builder()
+                    .description(expense.getDescription())
+                    .amount(expense.getAmount())
+                    .expenseCategory(expense.getExpenseCategory())
+                    .username(username)
+                    .date(expense.getDate())
+                    .build());
+        }
+        expenseRepository.saveAll(expenses);
+
+        List<BalanceEntry> debits = new ArrayList<>(expenses.size());
+        List<Long> ids = new ArrayList<>(expenses.size());
+        for (Expense expense : expenses) {
+            debits.add(BalanceEntry.builder().username(username).type(BalanceEntry.Type.DEBIT)
+                    .expenseId(expense.getId()).amount(expense.getAmount().negate()).build());
+            ids.add(expense.getId());
+        }
+        ledgerService.append(debits);
+        checkpointRepository.save(new JournalCheckpoint(username, entries.get(entries.size() - 1).sequence()));
+        ledgerService.release(username, total(entries));
+        rollupService.recordAll(expenses);
+        searchIndex.reindex(ids);
+        dataVersions.userChanged(username);
+    }
+
+    private Map<String, List<ExpenseJournal.Entry>> byUser(List<ExpenseJournal.Entry> entries) {
+        Map<String, List<ExpenseJournal.Entry>> users = new LinkedHashMap<>();
+        for (ExpenseJournal.Entry entry : entries)
+            users.computeIfAbsent(entry.expense().getUsername(), key -> new ArrayList<>()).add(entry);
+        return users;
+    }
+
+    /**
+     * Returns the highest sequence of some entries, which are in sequence order per user but not across users after
+     * a replay.
+     */
+    private long lastSequence(Collection<ExpenseJournal.Entry> entries) {
+        long last = 0;
+        for (ExpenseJournal.Entry entry : entries)
+            last = Math.max(last, entry.sequence());
+        return last;
+    }
+
+    private Money total(List<ExpenseJournal.Entry> entries) {
+        long total = 0;
+        for (ExpenseJournal.Entry entry : entries)
+            total += Money.minorUnitsOf(entry.expense().getAmount());
+        return Money.ofMinor(total);
+    }
+}
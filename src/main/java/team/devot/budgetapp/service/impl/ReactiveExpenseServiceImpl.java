@@ -0,0 +1,84 @@
+package team.devot.budgetapp.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import team.devot.budgetapp.exception.CustomException;
+import team.devot.budgetapp.model.ExpenseView;
+import team.devot.budgetapp.model.Filter;
+import team.devot.budgetapp.model.Money;
+import team.devot.budgetapp.repository.ReactiveExpenseRepository;
+import team.devot.budgetapp.search.ExpenseSearchIndex;
+import team.devot.budgetapp.service.ReactiveExpenseService;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * ReactiveExpenseServiceImpl is an implementation of the ReactiveExpenseService interface.
+ * It mirrors the read operations of ExpenseServiceImpl on the reactive repository. Requests are validated before the
+ * publisher is returned, so invalid requests fail with the same exceptions as on the blocking path.
+ */
+@Service
+@RequiredArgsConstructor
+public class ReactiveExpenseServiceImpl implements ReactiveExpenseService {
+
+    private final ReactiveExpenseRepository reactiveExpenseRepository;
+    private final ExpenseSearchIndex searchIndex;
+
+    /**
+     * Retrieves a page of expenses based on filtering criteria, emitting the expenses as they are read. Unlike the
+     * blocking path no total count is computed, so the first expense can be sent before the query completes. When the
+     * filter has a description, the descriptions are searched in the full-text index and the expenses are ranked by
+     * relevance instead of the requested sort, as on the blocking path.
+     *
+     * @param filter The Filter object containing criteria for filtering and pagination.
+     * @return A Flux of the expenses of the requested page.
+     * @throws CustomException If the sort refers to an unknown field.
+     */
+    @Override
+    public Flux<ExpenseView> getAllExpenses(Filter filter) {
+        if (filter.getDescription() != null && !filter.getDescription().isBlank())
+            return searchExpenses(filter, PageRequest.of(filter.getPage(), filter.getSize()));
+        Pageable pageable = PageRequest.of(filter.getPage(), filter.getSize(),
+                Sort.by(Sort.Direction.fromString(filter.getSortOrder()), filter.getSortField()));
+        return reactiveExpenseRepository.filterExpenses(filter, pageable.getSort(), pageable.getOffset(),
+                pageable.getPageSize());
+    }
+
+    /**
+     * Aggregates expense data by category for a specified period from the monthly rollups.
+     *
+     * @param username The username associated with the expenses.
+     * @param period   The period for which data should be aggregated (e.g., "lastMonth").
+     * @return A Mono of the aggregated data by category.
+     * @throws CustomException If the specified period is invalid.
+     */
+    @Override
+    public Mono<Map<String, Money>> aggregateDataByPeriod(String username, String period) {
+        LocalDate endDate = LocalDate.now();
+        LocalDate startDate = ExpenseServiceImpl.startOfPeriod(period, endDate);
+        return reactiveExpenseRepository.aggregateByCategory(username, startDate.withDayOfMonth(1),
+                endDate.withDayOfMonth(1));
+    }
+
+    /**
+     * Searches the descriptions in the full-text index, then loads the views of the ranked page with one query and
+     * emits them in rank order once all of them are read.
+     */
+    private Flux<ExpenseView> searchExpenses(Filter filter, Pageable pageable) {
+        return Flux.defer(() -> {
+            ExpenseSearchIndex.Hits hits = searchIndex.search(filter, pageable.getOffset(), pageable.getPageSize());
+            if (hits.ids().isEmpty())
+                return Flux.empty();
+            return reactiveExpenseRepository.findViews(filter.getUsername(), hits.ids())
+                    .collectMap(ExpenseView::getId)
+                    .flatMapIterable(views -> hits.ids().stream().map(views::get).filter(Objects::nonNull).toList());
+        });
+    }
+}
@@ -5,17 +5,20 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import team.devot.budgetapp.exception.CustomException;
+import team.devot.budgetapp.model.TokenResponse;
 import team.devot.budgetapp.model.User;
 import team.devot.budgetapp.model.dto.UserDTO;
 import team.devot.budgetapp.repository.UserRepository;
+import team.devot.budgetapp.security.LoginSessionRegistry;
+import team.devot.budgetapp.security.TokenService;
 import team.devot.budgetapp.service.UserService;
 
-import java.util.HashMap;
-import java.util.Map;
+import javax.persistence.EntityNotFoundException;
 
 /**
  * UserServiceImpl is an implementation of the UserService interface.
@@ -29,8 +32,8 @@ public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
     private final AuthenticationManager authenticationManager;
     private final PasswordEncoder passwordEncoder;
-
-    private final Map<String, Boolean> userLoginStatus = new HashMap<>();
+    private final TokenService tokenService;
+    private final LoginSessionRegistry sessionRegistry;
 
     /**
      * Registers a new user.
@@ -39,7 +42,7 @@ public class UserServiceImpl implements UserService {
      * @throws CustomException If the user is already registered, or the email is already in use.
      */
     public void registerUser(UserDTO userDTO) {
-        if (userLoginStatus.containsKey(userDTO.getUsername()) && userLoginStatus.get(userDTO.getUsername())) {
+        if (sessionRegistry.isActive(userDTO.getUsername())) {
             throw new CustomException("User must log out before registering a new account");
         }
         if (userRepository.existsByUsername(userDTO.getUsername()))
@@ -53,27 +56,45 @@ public class UserServiceImpl implements UserService {
         user.setEmail(userDTO.getEmail());
         user.setBalance(userDTO.getBalance());
         userRepository.save(user);
-
-        userLoginStatus.put(userDTO.getUsername(), false);
     }
 
     /**
-     * Logs in a user.
+     * Logs in a user. The session is started atomically after authentication, so of two concurrent logins of the
+     * same user only one succeeds.
      *
      * @param userDTO The UserDTO containing the username and password for login.
      * @throws CustomException If the user is already logged in or authentication fails.
      */
     @Override
     public void login(UserDTO userDTO) {
-        if (userLoginStatus.containsKey(userDTO.getUsername()) && userLoginStatus.get(userDTO.getUsername())) {
+        if (sessionRegistry.isActive(userDTO.getUsername())) {
             throw new CustomException("User is already logged in");
         }
         Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(userDTO.getUsername(), userDTO.getPassword())
         );
 
+        if (!sessionRegistry.start(userDTO.getUsername()))
+            throw new CustomException("User is already logged in");
         SecurityContextHolder.getContext().setAuthentication(authentication);
-        userLoginStatus.put(userDTO.getUsername(), true);
+    }
+
+    /**
+     * Logs in a user and issues a signed token. The password is checked once here; later requests present the
+     * token instead, which is verified without loading the user. No login status is kept for token logins.
+     *
+     * @param userDTO The UserDTO containing the username and password for login.
+     * @return A TokenResponse with the issued token.
+     * @throws AuthenticationException If authentication fails.
+     */
+    @Override
+    public TokenResponse loginWithToken(UserDTO userDTO) {
+        authenticationManager.authenticate(
+                new UsernamePasswordAuthenticationToken(userDTO.getUsername(), userDTO.getPassword())
+        );
+        User user = userRepository.findByUsername(userDTO.getUsername())
+                .orElseThrow(() -> new EntityNotFoundException("User with username " + userDTO.getUsername() + " was not found!"));
+        return tokenService.issue(user.getId(), user.getUsername());
     }
 
     /**
@@ -84,7 +105,7 @@ public class UserServiceImpl implements UserService {
     @Override
     public void logout(UserDTO userDTO) {
 
-        userLoginStatus.put(userDTO.getUsername(), false);
+        sessionRegistry.end(userDTO.getUsername());
         SecurityContextHolder.getContext().setAuthentication(null);
     }
 }
\ No newline at end of file
@@ -0,0 +1,48 @@
+-- Schema of the entities, owned by this migration in the prod profile instead of Hibernate auto-DDL.
+-- Column names and types match what Hibernate validates against (spring.jpa.hibernate.ddl-auto=validate).
+
+-- Expense ids are drawn in blocks of 50 by the pooled optimizer of the entity, so inserts can be batched.
+CREATE SEQUENCE EXPENSE_SEQ START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE CATEGORY (
+    CATEGORY_ID   BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    CATEGORY_NAME VARCHAR(255),
+    CONSTRAINT PK_CATEGORY PRIMARY KEY (CATEGORY_ID),
+    CONSTRAINT UK_CATEGORY_NAME UNIQUE (CATEGORY_NAME)
+);
+
+CREATE TABLE USERS (
+    USER_ID       BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    USER_USERNAME VARCHAR(255),
+    USER_PASSWORD VARCHAR(255),
+    USER_EMAIL    VARCHAR(255),
+    USER_BALANCE  BIGINT,
+    CONSTRAINT PK_USERS PRIMARY KEY (USER_ID),
+    CONSTRAINT UK_USERS_USERNAME UNIQUE (USER_USERNAME),
+    CONSTRAINT UK_USERS_EMAIL UNIQUE (USER_EMAIL)
+);
+
+CREATE TABLE EXPENSE (
+    EXPENSE_ID          BIGINT NOT NULL,
+    EXPENSE_DESCRIPTION VARCHAR(255),
+    EXPENSE_AMOUNT      BIGINT,
+    EXPENSE_CATEGORY    VARCHAR(255),
+    EXPENSE_USERNAME    VARCHAR(255),
+    "DATE"              DATE NOT NULL,
+    CONSTRAINT PK_EXPENSE PRIMARY KEY (EXPENSE_ID)
+);
+
+-- Listings, totals and series of one user over a date range, optionally of one category.
+CREATE INDEX IDX_EXPENSE_USERNAME_DATE ON EXPENSE (EXPENSE_USERNAME, "DATE");
+CREATE INDEX IDX_EXPENSE_USERNAME_CATEGORY_DATE ON EXPENSE (EXPENSE_USERNAME, EXPENSE_CATEGORY, "DATE");
+
+-- The primary key leads with the username and month, so it also serves the month range reads of the aggregates, and
+-- the separate IDX_ROLLUP_USERNAME_MONTH index that auto-DDL creates is left out.
+CREATE TABLE EXPENSE_ROLLUP (
+    ROLLUP_USERNAME VARCHAR(255) NOT NULL,
+    ROLLUP_MONTH    DATE         NOT NULL,
+    ROLLUP_CATEGORY VARCHAR(255) NOT NULL,
+    ROLLUP_TOTAL    BIGINT       NOT NULL,
+    ROLLUP_COUNT    BIGINT       NOT NULL,
+    CONSTRAINT PK_EXPENSE_ROLLUP PRIMARY KEY (ROLLUP_USERNAME, ROLLUP_MONTH, ROLLUP_CATEGORY)
+);
@@ -0,0 +1,7 @@
+-- The categories data.sql inserts into the in-memory database of the default profile.
+INSERT INTO CATEGORY (CATEGORY_NAME) VALUES
+    ('Food'),
+    ('Utility'),
+    ('Car'),
+    ('Gym'),
+    ('Fun');
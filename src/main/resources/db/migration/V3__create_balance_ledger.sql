@@ -0,0 +1,27 @@
+-- Append-only balance ledger. USERS.USER_BALANCE is no longer written after registration and becomes the opening
+-- balance, so the balances of existing users carry over without moving any data.
+
+-- Entry ids are drawn in blocks of 50 by the pooled optimizer of the entity, so the entries of a batch are inserted
+-- with JDBC batching.
+CREATE SEQUENCE BALANCE_ENTRY_SEQ START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE BALANCE_ENTRY (
+    ENTRY_ID         BIGINT       NOT NULL,
+    ENTRY_USERNAME   VARCHAR(255) NOT NULL,
+    ENTRY_TYPE       VARCHAR(255) NOT NULL,
+    ENTRY_AMOUNT     BIGINT       NOT NULL,
+    ENTRY_EXPENSE_ID BIGINT,
+    ENTRY_CREATED_AT TIMESTAMP    NOT NULL,
+    CONSTRAINT PK_BALANCE_ENTRY PRIMARY KEY (ENTRY_ID)
+);
+
+-- The tail of a user after its snapshot, and the history of a user newest first.
+CREATE INDEX IDX_BALANCE_ENTRY_USERNAME_ID ON BALANCE_ENTRY (ENTRY_USERNAME, ENTRY_ID);
+
+CREATE TABLE BALANCE_SNAPSHOT (
+    SNAPSHOT_USERNAME      VARCHAR(255) NOT NULL,
+    SNAPSHOT_BALANCE       BIGINT       NOT NULL,
+    SNAPSHOT_LAST_ENTRY_ID BIGINT       NOT NULL,
+    SNAPSHOT_TAKEN_AT      TIMESTAMP    NOT NULL,
+    CONSTRAINT PK_BALANCE_SNAPSHOT PRIMARY KEY (SNAPSHOT_USERNAME)
+);
@@ -0,0 +1,7 @@
+-- The last expense journal entry of every user that is written to the database, updated in the same transaction as
+-- the expenses, so the journal replay after a restart never writes an entry twice.
+CREATE TABLE JOURNAL_CHECKPOINT (
+    CHECKPOINT_USERNAME VARCHAR(255) NOT NULL,
+    CHECKPOINT_SEQUENCE BIGINT       NOT NULL,
+    CONSTRAINT PK_JOURNAL_CHECKPOINT PRIMARY KEY (CHECKPOINT_USERNAME)
+);
@@ -0,0 +1,11 @@
+-- USERS.USER_BALANCE holds the live balance again and BALANCE_ENTRY is written alongside it as an audit trail. The
+-- balance of every user with entries becomes its snapshot, or its opening balance, plus the entries written after it.
+UPDATE USERS u SET USER_BALANCE = COALESCE(
+        (SELECT s.SNAPSHOT_BALANCE FROM BALANCE_SNAPSHOT s WHERE s.SNAPSHOT_USERNAME = u.USER_USERNAME),
+        u.USER_BALANCE, 0) + COALESCE(
+        (SELECT SUM(e.ENTRY_AMOUNT) FROM BALANCE_ENTRY e WHERE e.ENTRY_USERNAME = u.USER_USERNAME
+            AND e.ENTRY_ID > COALESCE((SELECT s.SNAPSHOT_LAST_ENTRY_ID FROM BALANCE_SNAPSHOT s
+                WHERE s.SNAPSHOT_USERNAME = u.USER_USERNAME), 0)), 0)
+WHERE EXISTS (SELECT 1 FROM BALANCE_ENTRY e WHERE e.ENTRY_USERNAME = u.USER_USERNAME);
+
+DROP TABLE BALANCE_SNAPSHOT;
@@ -0,0 +1,18 @@
+-- Converts an existing database from DOUBLE amounts to BIGINT minor units (cents).
+-- Amounts are rounded to the nearest cent. Rollups are rebuilt from the converted expenses instead of being
+-- converted, so any drift their floating point sums accumulated is dropped.
+
+UPDATE EXPENSE SET EXPENSE_AMOUNT = ROUND(EXPENSE_AMOUNT * 100);
+ALTER TABLE EXPENSE ALTER COLUMN EXPENSE_AMOUNT SET DATA TYPE BIGINT;
+
+UPDATE USERS SET USER_BALANCE = ROUND(USER_BALANCE * 100);
+ALTER TABLE USERS ALTER COLUMN USER_BALANCE SET DATA TYPE BIGINT;
+
+DELETE FROM EXPENSE_ROLLUP;
+ALTER TABLE EXPENSE_ROLLUP ALTER COLUMN ROLLUP_TOTAL SET DATA TYPE BIGINT;
+INSERT INTO EXPENSE_ROLLUP (ROLLUP_USERNAME, ROLLUP_MONTH, ROLLUP_CATEGORY, ROLLUP_TOTAL, ROLLUP_COUNT)
+SELECT e.EXPENSE_USERNAME, CAST(DATE_TRUNC('MONTH', e."DATE") AS DATE), COALESCE(e.EXPENSE_CATEGORY, ''),
+       SUM(e.EXPENSE_AMOUNT), COUNT(*)
+FROM EXPENSE e
+WHERE e.EXPENSE_USERNAME IS NOT NULL
+GROUP BY e.EXPENSE_USERNAME, CAST(DATE_TRUNC('MONTH', e."DATE") AS DATE), COALESCE(e.EXPENSE_CATEGORY, '');
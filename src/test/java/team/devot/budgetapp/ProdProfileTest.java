@@ -0,0 +1,60 @@
+package team.devot.budgetapp;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import team.devot.budgetapp.model.Filter;
+import team.devot.budgetapp.model.Money;
+import team.devot.budgetapp.model.User;
+import team.devot.budgetapp.model.dto.ExpenseDTO;
+import team.devot.budgetapp.repository.UserRepository;
+import team.devot.budgetapp.service.CategoryService;
+import team.devot.budgetapp.service.ExpenseService;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProdProfileTest {
+
+    @TempDir
+    Path dataDir;
+
+    @Test
+    void testDataSurvivesRestart() {
+        try (ConfigurableApplicationContext context = start()) {
+            assertEquals(5, context.getBean(CategoryService.class).getAllCategories().size());
+            context.getBean(UserRepository.class).save(User.builder().username("prodUser").email("prod@example.com")
+                    .balance(Money.parse("100.00")).build());
+            context.getBean(ExpenseService.class).createExpense(new ExpenseDTO(null, "Durable groceries",
+                    Money.parse("12.50"), "Food", "prodUser", LocalDate.now()));
+        }
+        assertTrue(Files.exists(dataDir.resolve("budget-app.mv.db")));
+
+        try (ConfigurableApplicationContext context = start()) {
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+            assertEquals(5, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM \"flyway_schema_history\" " +
+                    "WHERE \"type\" = 'SQL' AND \"success\"", Integer.class));
+            assertEquals(5, context.getBean(CategoryService.class).getAllCategories().size());
+            assertEquals(Map.of("Food", Money.parse("12.50")),
+                    context.getBean(ExpenseService.class).aggregateDataByPeriod("prodUser", "lastMonth"));
+
+            Filter search = new Filter();
+            search.setUsername("prodUser");
+            search.setDescription("groceries");
+            search.setSize(10);
+            assertEquals(1, context.getBean(ExpenseService.class).getAllExpenses(search).getTotalElements());
+        }
+    }
+
+    private ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(BudgetappApplication.class)
+                .profiles("prod")
+                .run("--server.port=0", "--budgetapp.data-dir=" + dataDir.toAbsolutePath());
+    }
+}
@@ -0,0 +1,69 @@
+package team.devot.budgetapp.cache;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import team.devot.budgetapp.model.Category;
+import team.devot.budgetapp.repository.CategoryRepository;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import(CategoryCache.class)
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class CategoryCacheTest {
+
+    @Autowired
+    private CategoryCache categoryCache;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        categoryCache.invalidate();
+    }
+
+    @Test
+    void testReadsAfterLoadRunNoSql() {
+        int categories = categoryCache.getAll().size();
+        statistics.clear();
+
+        assertEquals(categories, categoryCache.getAll().size());
+        assertTrue(categoryCache.findByName("Food").isPresent());
+        assertTrue(categoryCache.findById(categoryCache.getAll().get(0).getId()).isPresent());
+        assertFalse(categoryCache.findByName("Unknown").isPresent());
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testInvalidateReloadsWrites() {
+        categoryCache.getAll();
+        categoryRepository.save(new Category(null, "Travel"));
+        assertFalse(categoryCache.findByName("Travel").isPresent());
+
+        categoryCache.invalidate();
+
+        assertTrue(categoryCache.findByName("Travel").isPresent());
+        assertEquals("Travel", categoryCache.getAll().get(categoryCache.getAll().size() - 1).getName());
+    }
+
+    @Test
+    void testCachedListIsUnmodifiable() {
+        assertThrows(UnsupportedOperationException.class, () -> categoryCache.getAll().add(new Category()));
+    }
+}
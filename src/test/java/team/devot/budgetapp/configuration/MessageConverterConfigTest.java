@@ -0,0 +1,133 @@
+package team.devot.budgetapp.configuration;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import team.devot.budgetapp.model.Filter;
+import team.devot.budgetapp.model.Money;
+import team.devot.budgetapp.model.dto.CategoryDTO;
+import team.devot.budgetapp.security.TokenService;
+import team.devot.budgetapp.service.CategoryService;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.datasource.url=jdbc:h2:mem:message-converters")
+@AutoConfigureMockMvc
+class MessageConverterConfigTest {
+
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    @WithMockUser(username = "binaryUser")
+    void testNegotiatesBinaryFormats() throws Exception {
+        String json = mockMvc.perform(MockMvcRequestBuilders.get("/api/category").accept(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        byte[] cbor = mockMvc.perform(MockMvcRequestBuilders.get("/api/category").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+        byte[] smile = mockMvc.perform(MockMvcRequestBuilders.get("/api/category").accept(SMILE))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentType(SMILE))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        TypeReference<List<CategoryDTO>> type = new TypeReference<>() {
+        };
+        List<CategoryDTO> categories = objectMapper.readValue(json, type);
+        assertFalse(categories.isEmpty());
+        assertEquals(categories, new CBORMapper().readValue(cbor, type));
+        assertEquals(categories, new SmileMapper().readValue(smile, type));
+    }
+
+    @Test
+    @WithMockUser(username = "binaryUser")
+    void testReadsBinaryRequestBodies() throws Exception {
+        Filter filter = new Filter();
+        filter.setMinAmount(Money.parse("12.50"));
+        filter.setSize(5);
+        filter.setSortField("date");
+        filter.setSortOrder("desc");
+
+        byte[] page = mockMvc.perform(MockMvcRequestBuilders.post("/api/expense/filter")
+                .contentType(SMILE)
+                .accept(MediaType.APPLICATION_CBOR)
+                .content(new SmileMapper().writeValueAsBytes(filter)))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+
+        Map<?, ?> body = new CBORMapper().readValue(page, Map.class);
+        assertEquals(List.of(), body.get("content"));
+        assertEquals(5, body.get("size"));
+    }
+
+    @Test
+    void testCompressesJson() throws Exception {
+        for (int i = 0; i < 100; i++)
+            categoryService.createCategory(new CategoryDTO(null, "Compressed category " + i));
+        String token = tokenService.issue(1L, "gzipUser").getToken();
+        HttpClient client = HttpClient.newHttpClient();
+
+        HttpResponse<byte[]> gzip = client.send(request(token, "gzip", MediaType.APPLICATION_JSON_VALUE),
+                HttpResponse.BodyHandlers.ofByteArray());
+        HttpResponse<byte[]> plain = client.send(request(token, "identity", MediaType.APPLICATION_JSON_VALUE),
+                HttpResponse.BodyHandlers.ofByteArray());
+        HttpResponse<byte[]> cbor = client.send(request(token, "gzip", MediaType.APPLICATION_CBOR_VALUE),
+                HttpResponse.BodyHandlers.ofByteArray());
+
+        assertEquals(200, gzip.statusCode());
+        assertEquals("gzip", gzip.headers().firstValue(HttpHeaders.CONTENT_ENCODING).orElse(null));
+        assertTrue(plain.headers().firstValue(HttpHeaders.CONTENT_ENCODING).isEmpty());
+        assertTrue(gzip.body().length < plain.body().length / 2);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip.body()))) {
+            assertArrayEquals(plain.body(), in.readAllBytes());
+        }
+        assertTrue(cbor.headers().firstValue(HttpHeaders.CONTENT_ENCODING).isEmpty());
+        assertTrue(cbor.body().length < plain.body().length);
+    }
+
+    private HttpRequest request(String token, String encoding, String accept) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/category"))
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .header(HttpHeaders.ACCEPT_ENCODING, encoding)
+                .header(HttpHeaders.ACCEPT, accept)
+                .build();
+    }
+}
@@ -0,0 +1,58 @@
+package team.devot.budgetapp.configuration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:metrics")
+@AutoConfigureMockMvc
+@AutoConfigureMetrics
+class MetricsConfigTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    @WithMockUser(username = "metricsUser")
+    void testPrometheusScrape() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/expense/total").param("period", "lastMonth"))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/expense/total").param("period", "lastDecade"))
+                .andExpect(MockMvcResultMatchers.status().isPreconditionFailed());
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/category"))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/category"))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+
+        String scrape = mockMvc.perform(MockMvcRequestBuilders.get("/actuator/prometheus"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertTrue(scrape.matches("(?s).*http_server_requests_seconds_bucket\\{[^}]*period=\"lastMonth\"[^}]*uri=\"/api/expense/total\".*"));
+        assertTrue(scrape.matches("(?s).*http_server_requests_seconds_count\\{[^}]*period=\"invalid\"[^}]*uri=\"/api/expense/total\".*"));
+        assertTrue(scrape.matches("(?s).*http_server_requests_seconds_count\\{[^}]*period=\"none\"[^}]*uri=\"/api/category\".*"));
+        assertTrue(scrape.matches("(?s).*spring_data_repository_invocations_seconds_bucket\\{[^}]*method=\"forEachCategoryTotal\"[^}]*repository=\"ExpenseRollupRepository\".*"));
+        assertTrue(scrape.contains("hibernate_statements_total"));
+        assertTrue(scrape.contains("hibernate_entities_loads_total"));
+        assertTrue(scrape.contains("hibernate_flushes_total"));
+        assertTrue(scrape.contains("hikaricp_connections_active"));
+        assertTrue(scrape.contains("budgetapp_category_cache_requests_total{result=\"hit\",} 1.0"));
+        assertTrue(scrape.contains("budgetapp_sessions_active"));
+    }
+
+    @Test
+    void testPrometheusScrapeNeedsAuthentication() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/actuator/prometheus"))
+                .andExpect(MockMvcResultMatchers.status().isForbidden());
+        mockMvc.perform(MockMvcRequestBuilders.get("/actuator/health"))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+    }
+}
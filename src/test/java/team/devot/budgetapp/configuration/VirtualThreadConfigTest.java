@@ -0,0 +1,31 @@
+package team.devot.budgetapp.configuration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.WebApplicationContextRunner;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VirtualThreadConfigTest {
+
+    private final WebApplicationContextRunner contextRunner = new WebApplicationContextRunner()
+            .withUserConfiguration(VirtualThreadConfig.class);
+
+    @Test
+    void testDisabledByDefault() {
+        contextRunner.run(context -> assertThat(context).doesNotHaveBean(VirtualThreadConfig.class));
+    }
+
+    @Test
+    void testEnabled() {
+        contextRunner.withPropertyValues("budgetapp.threads.virtual=true").run(context -> {
+            if (Runtime.version().feature() >= 21) {
+                assertThat(context).hasSingleBean(TomcatProtocolHandlerCustomizer.class);
+            } else {
+                assertThat(context).hasFailed();
+                assertThat(context.getStartupFailure()).hasRootCauseMessage(
+                        "budgetapp.threads.virtual needs a JDK 21 or newer runtime, running on " + Runtime.version());
+            }
+        });
+    }
+}
@@ -0,0 +1,98 @@
+package team.devot.budgetapp.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import team.devot.budgetapp.cache.DataVersions;
+import team.devot.budgetapp.model.BalanceEntry;
+import team.devot.budgetapp.model.BalanceHistoryEntry;
+import team.devot.budgetapp.model.Money;
+import team.devot.budgetapp.service.BalanceLedgerService;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BalanceControllerTest {
+
+    @Mock
+    private BalanceLedgerService ledgerService;
+
+    @Spy
+    private DataVersions dataVersions = new DataVersions();
+
+    @InjectMocks
+    private BalanceController balanceController;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        Authentication authentication = mock(Authentication.class);
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+        when(authentication.getPrincipal()).thenReturn(new User("username", "password", Collections.emptyList()));
+        mockMvc = MockMvcBuilders.standaloneSetup(balanceController).build();
+    }
+
+    @Test
+    void testGetBalance() throws Exception {
+        when(ledgerService.getBalance("username")).thenReturn(Money.parse("42.50"));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/balance"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().string("42.50"));
+    }
+
+    @Test
+    void testGetHistory() throws Exception {
+        when(ledgerService.getHistory("username", 1, 2)).thenReturn(new PageImpl<>(List.of(
+                new BalanceHistoryEntry(9L, BalanceEntry.Type.DEBIT, Money.parse("-10.00"), Money.parse("90.00"), 3L,
+                        Instant.parse("2024-01-01T10:00:00Z"))), PageRequest.of(1, 2), 3));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/balance/history").param("page", "1").param("size", "2"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].type").value("DEBIT"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].amount").value(-10.0))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].balance").value(90.0))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.totalElements").value(3));
+    }
+
+    @Test
+    void testGetHistoryNotModified() throws Exception {
+        when(ledgerService.getHistory("username", 0, 20)).thenReturn(new PageImpl<>(List.of()));
+
+        String etag = mockMvc.perform(MockMvcRequestBuilders.get("/api/balance/history"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/balance/history").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(MockMvcResultMatchers.status().isNotModified());
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/balance/history").param("page", "1")
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+
+        dataVersions.userChanged("username");
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/balance/history").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+
+        verify(ledgerService, times(2)).getHistory("username", 0, 20);
+    }
+}
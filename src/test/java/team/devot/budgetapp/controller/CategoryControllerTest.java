@@ -5,18 +5,23 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import team.devot.budgetapp.cache.DataVersions;
 import team.devot.budgetapp.model.dto.CategoryDTO;
 import team.devot.budgetapp.service.CategoryService;
 
 import java.util.Arrays;
 import java.util.List;
 
+import static org.hamcrest.Matchers.startsWith;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -25,6 +30,9 @@ class CategoryControllerTest {
     @Mock
     private CategoryService categoryService;
 
+    @Spy
+    private DataVersions dataVersions = new DataVersions();
+
     @InjectMocks
     private CategoryController categoryController;
 
@@ -62,6 +70,31 @@ class CategoryControllerTest {
         verifyNoMoreInteractions(categoryService);
     }
 
+    @Test
+    void testGetAllCategoriesNotModified() throws Exception {
+        when(categoryService.getAllCategories()).thenReturn(List.of(new CategoryDTO()));
+
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(categoryController).build();
+
+        MvcResult first = mockMvc.perform(MockMvcRequestBuilders.get("/api/category"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, startsWith("W/\"")))
+                .andReturn();
+        String etag = first.getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/category").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(MockMvcResultMatchers.status().isNotModified())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, etag));
+
+        dataVersions.categoriesChanged();
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/category").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+
+        verify(categoryService, times(2)).getAllCategories();
+        verifyNoMoreInteractions(categoryService);
+    }
+
     @Test
     void testCreateCategory() throws Exception {
         CategoryDTO categoryDTO = new CategoryDTO();
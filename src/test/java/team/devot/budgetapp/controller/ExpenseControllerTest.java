@@ -5,25 +5,44 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import team.devot.budgetapp.cache.DataVersions;
+import team.devot.budgetapp.model.BatchOperation;
+import team.devot.budgetapp.model.BatchResult;
+import team.devot.budgetapp.model.CursorSlice;
 import team.devot.budgetapp.model.Expense;
+import team.devot.budgetapp.model.ExpenseFormat;
+import team.devot.budgetapp.model.ExpenseView;
 import team.devot.budgetapp.model.Filter;
+import team.devot.budgetapp.model.Granularity;
+import team.devot.budgetapp.model.ImportReport;
+import team.devot.budgetapp.model.Money;
+import team.devot.budgetapp.model.SeriesBucket;
 import team.devot.budgetapp.model.dto.ExpenseDTO;
+import team.devot.budgetapp.service.ExpenseExportService;
+import team.devot.budgetapp.service.ExpenseImportService;
 import team.devot.budgetapp.service.ExpenseService;
+import team.devot.budgetapp.service.ExpenseWriteBehindService;
 
+import java.io.OutputStream;
+import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 
 import static org.mockito.ArgumentMatchers.any;
@@ -35,6 +54,18 @@ class ExpenseControllerTest {
     @Mock
     private ExpenseService expenseService;
 
+    @Mock
+    private ExpenseImportService expenseImportService;
+
+    @Mock
+    private ExpenseExportService expenseExportService;
+
+    @Mock
+    private ExpenseWriteBehindService expenseWriteBehindService;
+
+    @Spy
+    private DataVersions dataVersions = new DataVersions();
+
     @InjectMocks
     private ExpenseController expenseController;
 
@@ -65,7 +96,7 @@ class ExpenseControllerTest {
     @Test
     void testGetAllExpenses() throws Exception {
         Filter filter = new Filter();
-        Page<Expense> expensePage = new PageImpl<>(Arrays.asList(new Expense(), new Expense()));
+        Page<ExpenseView> expensePage = new PageImpl<>(Arrays.asList(new ExpenseView(), new ExpenseView()));
 
         Authentication authentication = mock(Authentication.class);
         SecurityContextHolder.getContext().setAuthentication(authentication);
@@ -87,6 +118,63 @@ class ExpenseControllerTest {
         verifyNoMoreInteractions(expenseService);
     }
 
+    @Test
+    void testGetExpensesByCursor() throws Exception {
+        Filter filter = new Filter();
+        CursorSlice<Expense> slice = new CursorSlice<>(Arrays.asList(new Expense(), new Expense()), 2, true, "next");
+
+        Authentication authentication = mock(Authentication.class);
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+
+        UserDetails userDetails = new User("username", "password", Collections.emptyList());
+        when(authentication.getPrincipal()).thenReturn(userDetails);
+
+        when(expenseService.getExpensesByCursor(any())).thenReturn(slice);
+
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(expenseController).build();
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/expense/filter")
+                .param("mode", "cursor")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(filter)))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content.length()").value(2))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.nextCursor").value("next"));
+
+        verify(expenseService, times(1)).getExpensesByCursor(any());
+        verifyNoMoreInteractions(expenseService);
+    }
+
+    @Test
+    void testApplyBatch() throws Exception {
+        List<BatchOperation> operations = List.of(
+                new BatchOperation(BatchOperation.Type.CREATE, new ExpenseDTO(null, "New", Money.parse("10.0"), "Food", null, null)),
+                new BatchOperation(BatchOperation.Type.DELETE, new ExpenseDTO(2L, null, null, null, null, null)));
+
+        Authentication authentication = mock(Authentication.class);
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+
+        UserDetails userDetails = new User("username", "password", Collections.emptyList());
+        when(authentication.getPrincipal()).thenReturn(userDetails);
+
+        when(expenseService.applyBatch(eq("username"), any())).thenReturn(List.of(
+                new BatchResult(0, BatchOperation.Type.CREATE, new ExpenseDTO(1L, "New", Money.parse("10.0"), "Food", null, null)),
+                new BatchResult(1, BatchOperation.Type.DELETE, new ExpenseDTO(2L, "Old", Money.parse("5.0"), "Food", null, null))));
+
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(expenseController).build();
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/expense/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(operations)))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(2))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].expense.id").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[1].type").value("DELETE"));
+
+        verify(expenseService, times(1)).applyBatch(eq("username"), argThat(list -> list.size() == 2));
+        verifyNoMoreInteractions(expenseService);
+    }
+
     @Test
     void testCreateExpense() throws Exception {
         ExpenseDTO expenseDTO = new ExpenseDTO();
@@ -108,6 +196,83 @@ class ExpenseControllerTest {
         verifyNoMoreInteractions(expenseService);
     }
 
+    @Test
+    void testAcceptExpense() throws Exception {
+        ExpenseDTO expenseDTO = new ExpenseDTO();
+        expenseDTO.setUsername("username");
+        expenseDTO.setAmount(Money.parse("12.50"));
+
+        Authentication authentication = mock(Authentication.class);
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+        UserDetails userDetails = new User("username", "password", Collections.emptyList());
+        when(authentication.getPrincipal()).thenReturn(userDetails);
+
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(expenseController).build();
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/expense")
+                .param("mode", "async")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(expenseDTO)))
+                .andExpect(MockMvcResultMatchers.status().isAccepted());
+
+        verify(expenseWriteBehindService, times(1)).acceptExpense(expenseDTO);
+        verifyNoInteractions(expenseService);
+    }
+
+    @Test
+    void testImportExpenses() throws Exception {
+        Authentication authentication = mock(Authentication.class);
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+        UserDetails userDetails = new User("username", "password", Collections.emptyList());
+        when(authentication.getPrincipal()).thenReturn(userDetails);
+
+        when(expenseImportService.importExpenses(eq("username"), any(), eq(ExpenseFormat.CSV)))
+                .thenReturn(new ImportReport(2, 0, Collections.emptyList()));
+
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(expenseController).build();
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/expense/import")
+                .contentType("text/csv")
+                .content("amount,category\n10.0,Food\n5.0,Car\n"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.imported").value(2));
+
+        verify(expenseImportService, times(1)).importExpenses(eq("username"), any(), eq(ExpenseFormat.CSV));
+        verifyNoInteractions(expenseService);
+    }
+
+    @Test
+    void testExportExpenses() throws Exception {
+        Authentication authentication = mock(Authentication.class);
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+        UserDetails userDetails = new User("username", "password", Collections.emptyList());
+        when(authentication.getPrincipal()).thenReturn(userDetails);
+
+        doAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(2).write("id,date,amount,category,description\n".getBytes());
+            return null;
+        }).when(expenseExportService).exportExpenses(any(), eq(ExpenseFormat.CSV), any());
+
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(expenseController).build();
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.post("/api/expense/export")
+                .param("format", "csv")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(new Filter())))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(result))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string("Content-Disposition",
+                        "attachment; filename=\"expenses.csv\""))
+                .andExpect(MockMvcResultMatchers.content().string("id,date,amount,category,description\n"));
+
+        verify(expenseExportService, times(1)).exportExpenses(
+                argThat(filter -> "username".equals(filter.getUsername())), eq(ExpenseFormat.CSV), any());
+        verifyNoInteractions(expenseService);
+    }
+
     @Test
     void testUpdateExpense() throws Exception {
         ExpenseDTO expenseDTO = new ExpenseDTO();
@@ -154,7 +319,7 @@ class ExpenseControllerTest {
     @Test
     void testAggregateDataByPeriod() throws Exception {
         String period = "monthly";
-        Map<String, Double> aggregatedData = Collections.singletonMap("key", 123.45);
+        Map<String, Money> aggregatedData = Collections.singletonMap("key", Money.parse("123.45"));
 
         Authentication authentication = mock(Authentication.class);
         SecurityContextHolder.getContext().setAuthentication(authentication);
@@ -175,6 +340,76 @@ class ExpenseControllerTest {
         verifyNoMoreInteractions(expenseService);
     }
 
+    @Test
+    void testAggregateDataByPeriodNotModified() throws Exception {
+        String period = "monthly";
+
+        Authentication authentication = mock(Authentication.class);
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+
+        UserDetails userDetails = new User("username", "password", Collections.emptyList());
+        when(authentication.getPrincipal()).thenReturn(userDetails);
+
+        when(expenseService.aggregateDataByPeriod("username", period))
+                .thenReturn(Collections.singletonMap("key", Money.parse("123.45")));
+
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(expenseController).build();
+
+        String etag = mockMvc.perform(MockMvcRequestBuilders.get("/api/expense/total").param("period", period))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/expense/total").param("period", period)
+                .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(MockMvcResultMatchers.status().isNotModified());
+
+        dataVersions.userChanged("otherUser");
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/expense/total").param("period", period)
+                .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(MockMvcResultMatchers.status().isNotModified());
+
+        dataVersions.userChanged("username");
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/expense/total").param("period", period)
+                .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+
+        verify(expenseService, times(2)).aggregateDataByPeriod("username", period);
+        verifyNoMoreInteractions(expenseService);
+    }
+
+    @Test
+    void testGetSpendingSeries() throws Exception {
+        LocalDate start = LocalDate.of(2024, 1, 1);
+        LocalDate end = LocalDate.of(2024, 1, 2);
+
+        Authentication authentication = mock(Authentication.class);
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+
+        UserDetails userDetails = new User("username", "password", Collections.emptyList());
+        when(authentication.getPrincipal()).thenReturn(userDetails);
+
+        when(expenseService.getSpendingSeries("username", start, end, Granularity.DAY)).thenReturn(List.of(
+                new SeriesBucket(start, start, Map.of("Food", Money.parse("12.50"))),
+                new SeriesBucket(end, end, Map.of("Food", Money.ZERO))));
+
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(expenseController).build();
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/expense/series")
+                .param("start", "2024-01-01")
+                .param("end", "2024-01-02")
+                .param("granularity", "day"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().exists(HttpHeaders.ETAG))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(2))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].totals.Food").value(12.5))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[1].totals.Food").value(0));
+
+        verify(expenseService, times(1)).getSpendingSeries("username", start, end, Granularity.DAY);
+        verifyNoMoreInteractions(expenseService);
+    }
+
     private String asJsonString(final Object obj) {
         try {
             return new ObjectMapper().writeValueAsString(obj);
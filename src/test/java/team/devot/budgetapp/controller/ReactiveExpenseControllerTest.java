@@ -0,0 +1,112 @@
+package team.devot.budgetapp.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import team.devot.budgetapp.model.ExpenseView;
+import team.devot.budgetapp.model.Filter;
+import team.devot.budgetapp.model.Money;
+import team.devot.budgetapp.service.ReactiveExpenseService;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveExpenseControllerTest {
+
+    @Mock
+    private ReactiveExpenseService reactiveExpenseService;
+
+    @InjectMocks
+    private ReactiveExpenseController reactiveExpenseController;
+
+    @Test
+    void testGetAllExpenses() throws Exception {
+        Authentication authentication = mock(Authentication.class);
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+
+        UserDetails userDetails = new User("username", "password", Collections.emptyList());
+        when(authentication.getPrincipal()).thenReturn(userDetails);
+
+        when(reactiveExpenseService.getAllExpenses(any())).thenReturn(Flux.just(
+                new ExpenseView(1L, "Lunch", Money.parse("12.5"), "Food", LocalDate.of(2024, 1, 2)),
+                new ExpenseView(2L, "Rent", Money.parse("500.0"), "Rent", LocalDate.of(2024, 1, 3))));
+
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(reactiveExpenseController).build();
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.post("/api/reactive/expense/filter")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .content(asJsonString(new Filter())))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(result))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(MockMvcResultMatchers.content().string(allOf(
+                        containsString("\"description\":\"Lunch\""),
+                        containsString("\"description\":\"Rent\""))));
+
+        verify(reactiveExpenseService, times(1)).getAllExpenses(argThat(filter ->
+                "username".equals(filter.getUsername())));
+        verifyNoMoreInteractions(reactiveExpenseService);
+    }
+
+    @Test
+    void testAggregateDataByPeriod() throws Exception {
+        String period = "lastMonth";
+
+        Authentication authentication = mock(Authentication.class);
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+
+        UserDetails userDetails = new User("username", "password", Collections.emptyList());
+        when(authentication.getPrincipal()).thenReturn(userDetails);
+
+        when(reactiveExpenseService.aggregateDataByPeriod("username", period))
+                .thenReturn(Mono.just(Map.of("key", Money.parse("123.45"))));
+
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(reactiveExpenseController).build();
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/api/reactive/expense/total")
+                .param("period", period))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(result))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.key").value(123.45));
+
+        verify(reactiveExpenseService, times(1)).aggregateDataByPeriod("username", period);
+        verifyNoMoreInteractions(reactiveExpenseService);
+    }
+
+    private String asJsonString(final Object obj) {
+        try {
+            return new ObjectMapper().writeValueAsString(obj);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
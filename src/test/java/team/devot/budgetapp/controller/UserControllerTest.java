@@ -14,6 +14,7 @@ import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import team.devot.budgetapp.exception.CustomException;
+import team.devot.budgetapp.model.TokenResponse;
 import team.devot.budgetapp.model.dto.UserDTO;
 import team.devot.budgetapp.service.UserService;
 
@@ -60,6 +61,24 @@ class UserControllerTest {
         verifyNoMoreInteractions(userService);
     }
 
+    @Test
+    void testLoginUserWithToken() throws Exception {
+        UserDTO userDTO = new UserDTO();
+        when(userService.loginWithToken(userDTO)).thenReturn(new TokenResponse("token", "Bearer", null));
+
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(userController).build();
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/login/token")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(userDTO)))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.token").value("token"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.tokenType").value("Bearer"));
+
+        verify(userService, times(1)).loginWithToken(userDTO);
+        verifyNoMoreInteractions(userService);
+    }
+
     @Test
     void testLogoutUser() throws Exception {
         UserDTO userDTO = new UserDTO();
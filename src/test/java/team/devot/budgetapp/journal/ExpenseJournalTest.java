@@ -0,0 +1,89 @@
+package team.devot.budgetapp.journal;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import team.devot.budgetapp.model.Money;
+import team.devot.budgetapp.model.dto.ExpenseDTO;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExpenseJournalTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testAppendsAreNumberedAndReadBack() {
+        Path file = directory.resolve("journal/expenses.log");
+        List<ExpenseJournal.Entry> committed = new CopyOnWriteArrayList<>();
+        ExpenseJournal journal = new ExpenseJournal(file, Duration.ofMillis(5), objectMapper);
+        assertTrue(journal.open(0, committed::addAll).isEmpty());
+
+        List<CompletableFuture<ExpenseJournal.Entry>> appends = new ArrayList<>();
+        for (int i = 1; i <= 3; i++)
+            appends.add(journal.append(expense("Expense " + i)));
+        assertEquals(List.of(1L, 2L, 3L), appends.stream().map(append -> append.join().sequence()).toList());
+        assertEquals(List.of(1L, 2L, 3L), committed.stream().map(ExpenseJournal.Entry::sequence).toList());
+        journal.close();
+        assertThrows(IllegalStateException.class, () -> journal.append(expense("Late")));
+
+        ExpenseJournal reopened = new ExpenseJournal(file, Duration.ZERO, objectMapper);
+        List<ExpenseJournal.Entry> entries = reopened.open(0, added -> { });
+        assertEquals(committed, entries);
+        assertEquals(LocalDate.of(2024, 3, 1), entries.get(0).expense().getDate());
+        assertEquals(4, reopened.append(expense("Expense 4")).join().sequence());
+        reopened.close();
+    }
+
+    @Test
+    void testTornWriteIsCutOff() throws IOException {
+        Path file = directory.resolve("expenses.log");
+        ExpenseJournal journal = new ExpenseJournal(file, Duration.ZERO, objectMapper);
+        journal.open(0, added -> { });
+        journal.append(expense("Expense 1")).join();
+        journal.append(expense("Expense 2")).join();
+        journal.close();
+        long intact = Files.size(file);
+        Files.write(file, new byte[]{0, 0, 0, 40, 1, 2, 3, 4, '{'}, StandardOpenOption.APPEND);
+
+        ExpenseJournal reopened = new ExpenseJournal(file, Duration.ZERO, objectMapper);
+        assertEquals(2, reopened.open(0, added -> { }).size());
+        assertEquals(intact, Files.size(file));
+        reopened.close();
+    }
+
+    @Test
+    void testTruncateKeepsSequencesGoing() throws IOException {
+        Path file = directory.resolve("expenses.log");
+        ExpenseJournal journal = new ExpenseJournal(file, Duration.ZERO, objectMapper);
+        journal.open(7, added -> { });
+        assertEquals(8, journal.append(expense("Expense 8")).join().sequence());
+        assertEquals(9, journal.append(expense("Expense 9")).join().sequence());
+
+        assertFalse(journal.truncate(8));
+        assertTrue(journal.truncate(9));
+        assertEquals(0, Files.size(file));
+        assertEquals(10, journal.append(expense("Expense 10")).join().sequence());
+        journal.close();
+        assertFalse(journal.truncate(10));
+    }
+
+    private ExpenseDTO expense(String description) {
+        return new ExpenseDTO(null, description, Money.parse("12.50"), "Food", "journalUser", LocalDate.of(2024, 3, 1));
+    }
+}
@@ -5,6 +5,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.junit.jupiter.MockitoExtension;
 import team.devot.budgetapp.model.Expense;
+import team.devot.budgetapp.model.Money;
 import team.devot.budgetapp.model.dto.ExpenseDTO;
 
 import java.time.LocalDate;
@@ -22,7 +23,7 @@ class ExpenseMapperTest {
         Expense expense = Expense.builder()
                 .id(1L)
                 .description("Test Expense")
-                .amount(50.00)
+                .amount(Money.parse("50.00"))
                 .expenseCategory("Test Category")
                 .date(LocalDate.now())
                 .build();
@@ -31,7 +32,7 @@ class ExpenseMapperTest {
 
         assertEquals(1L, expenseDTO.getId());
         assertEquals("Test Expense", expenseDTO.getDescription());
-        assertEquals(50.00, expenseDTO.getAmount());
+        assertEquals(Money.parse("50.00"), expenseDTO.getAmount());
         assertEquals("Test Category", expenseDTO.getExpenseCategory());
         assertEquals(LocalDate.now(), expenseDTO.getDate());
     }
@@ -41,7 +42,7 @@ class ExpenseMapperTest {
         ExpenseDTO expenseDTO = ExpenseDTO.builder()
                 .id(1L)
                 .description("Test Expense")
-                .amount(50.00)
+                .amount(Money.parse("50.00"))
                 .expenseCategory("Test Category")
                 .date(LocalDate.now())
                 .username("Test User")
@@ -51,7 +52,7 @@ class ExpenseMapperTest {
 
         assertEquals(1L, expense.getId());
         assertEquals("Test Expense", expense.getDescription());
-        assertEquals(50.00, expense.getAmount());
+        assertEquals(Money.parse("50.00"), expense.getAmount());
         assertEquals("Test Category", expense.getExpenseCategory());
         assertEquals(LocalDate.now(), expense.getDate());
         assertEquals("Test User", expense.getUsername());
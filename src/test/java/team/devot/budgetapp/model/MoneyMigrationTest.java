@@ -0,0 +1,48 @@
+package team.devot.budgetapp.model;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyMigrationTest {
+
+    @Test
+    void testMigrationConvertsAmountsToMinorUnits() {
+        SingleConnectionDataSource dataSource = new SingleConnectionDataSource("jdbc:h2:mem:money-migration", "sa",
+                "", true);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE USERS (USER_ID BIGINT PRIMARY KEY, USER_USERNAME VARCHAR(255), " +
+                "USER_BALANCE DOUBLE)");
+        jdbcTemplate.execute("CREATE TABLE EXPENSE (EXPENSE_ID BIGINT PRIMARY KEY, EXPENSE_AMOUNT DOUBLE, " +
+                "EXPENSE_CATEGORY VARCHAR(255), EXPENSE_USERNAME VARCHAR(255), \"DATE\" DATE NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE EXPENSE_ROLLUP (ROLLUP_USERNAME VARCHAR(255), ROLLUP_MONTH DATE, " +
+                "ROLLUP_CATEGORY VARCHAR(255), ROLLUP_TOTAL DOUBLE NOT NULL, ROLLUP_COUNT BIGINT NOT NULL, " +
+                "PRIMARY KEY (ROLLUP_USERNAME, ROLLUP_MONTH, ROLLUP_CATEGORY))");
+        jdbcTemplate.update("INSERT INTO USERS VALUES (1, 'testUser', 99.995)");
+        jdbcTemplate.update("INSERT INTO EXPENSE VALUES (1, 0.1, 'Food', 'testUser', DATE '2024-01-05'), " +
+                "(2, 0.2, 'Food', 'testUser', DATE '2024-01-20'), (3, 12.345, NULL, 'testUser', DATE '2024-02-01')");
+        jdbcTemplate.update("INSERT INTO EXPENSE_ROLLUP VALUES ('testUser', DATE '2024-01-01', 'Food', " +
+                "0.30000000000000004, 2)");
+
+        new ResourceDatabasePopulator(new ClassPathResource("db/scripts/amounts-in-minor-units.sql"))
+                .execute(dataSource);
+
+        assertEquals(10000L, jdbcTemplate.queryForObject("SELECT USER_BALANCE FROM USERS", Long.class));
+        assertEquals(10L, jdbcTemplate.queryForObject("SELECT EXPENSE_AMOUNT FROM EXPENSE WHERE EXPENSE_ID = 1",
+                Long.class));
+        assertEquals(1235L, jdbcTemplate.queryForObject("SELECT EXPENSE_AMOUNT FROM EXPENSE WHERE EXPENSE_ID = 3",
+                Long.class));
+        Map<String, Object> food = jdbcTemplate.queryForMap("SELECT ROLLUP_TOTAL, ROLLUP_COUNT FROM EXPENSE_ROLLUP " +
+                "WHERE ROLLUP_CATEGORY = 'Food'");
+        assertEquals(30L, ((Number) food.get("ROLLUP_TOTAL")).longValue());
+        assertEquals(2L, ((Number) food.get("ROLLUP_COUNT")).longValue());
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM EXPENSE_ROLLUP", Integer.class));
+        dataSource.destroy();
+    }
+}
@@ -0,0 +1,57 @@
+package team.devot.budgetapp.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+
+    @Test
+    void testParse() {
+        assertEquals(1250, Money.parse("12.5").minorUnits());
+        assertEquals(1250, Money.parse(" 12.50 ").minorUnits());
+        assertEquals(-5, Money.parse("-0.05").minorUnits());
+        assertEquals(Money.ZERO, Money.parse("0"));
+        assertThrows(IllegalArgumentException.class, () -> Money.parse("12.345"));
+        assertThrows(IllegalArgumentException.class, () -> Money.parse("abc"));
+        assertThrows(IllegalArgumentException.class, () -> Money.parse("1e30"));
+    }
+
+    @Test
+    void testArithmeticIsExact() {
+        Money sum = Money.ZERO;
+        for (int i = 0; i < 1000; i++)
+            sum = sum.plus(Money.parse("0.10"));
+
+        assertEquals(Money.parse("100.00"), sum);
+        assertEquals(Money.parse("99.90"), sum.minus(Money.parse("0.10")));
+        assertEquals(Money.parse("-100.00"), sum.negate());
+        assertTrue(sum.negate().isNegative());
+        assertThrows(ArithmeticException.class, () -> Money.ofMinor(Long.MAX_VALUE).plus(Money.ofMinor(1)));
+    }
+
+    @Test
+    void testToStringRoundTrips() {
+        Money amount = Money.parse("7.5");
+
+        assertEquals("7.50", amount.toString());
+        assertEquals(new BigDecimal("7.50"), amount.toDecimal());
+        assertEquals(amount, Money.parse(amount.toString()));
+        assertEquals(0, amount.compareTo(Money.ofMinor(750)));
+        assertTrue(amount.compareTo(Money.ofMinor(751)) < 0);
+        assertEquals(0, Money.minorUnitsOf(null));
+    }
+
+    @Test
+    void testJson() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        assertEquals("12.50", objectMapper.writeValueAsString(Money.parse("12.5")));
+        assertEquals(Money.parse("12.5"), objectMapper.readValue("12.5", Money.class));
+        assertEquals(Money.parse("3"), objectMapper.readValue("3", Money.class));
+        assertThrows(Exception.class, () -> objectMapper.readValue("0.001", Money.class));
+    }
+}
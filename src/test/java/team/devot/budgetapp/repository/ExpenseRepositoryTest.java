@@ -3,30 +3,54 @@ package team.devot.budgetapp.repository;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import team.devot.budgetapp.exception.CustomException;
+import team.devot.budgetapp.model.CategoryTotal;
 import team.devot.budgetapp.model.Expense;
+import team.devot.budgetapp.model.ExpenseCursor;
+import team.devot.budgetapp.model.ExpenseView;
+import team.devot.budgetapp.model.Filter;
+import team.devot.budgetapp.model.Money;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @DataJpaTest
 class ExpenseRepositoryTest {
 
+    private static final String LEGACY_FILTER_QUERY = "SELECT e FROM Expense e WHERE " +
+            "(:expenseCategory IS NULL OR e.expenseCategory = :expenseCategory) " +
+            "AND (:minPrice IS NULL OR e.amount >= :minPrice) " +
+            "AND (:maxPrice IS NULL OR e.amount <= :maxPrice) " +
+            "AND (:username IS e.username) " +
+            "AND (:startDate IS NULL OR e.date >= :startDate) " +
+            "AND (:endDate IS NULL OR e.date <= :endDate) ORDER BY e.id";
+
     @Autowired
     private ExpenseRepository expenseRepository;
 
+    @Autowired
+    private ExpenseRepositoryImpl expenseRepositoryImpl;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
     @Test
     void testFindByUsernameAndId() {
         Expense expense = new Expense();
         expense.setUsername("testUser");
         expense.setDescription("Test Expense");
         expense.setExpenseCategory("Category1");
-        expense.setAmount(100.0);
+        expense.setAmount(Money.parse("100.0"));
         expense.setDate(LocalDate.now());
         expenseRepository.save(expense);
 
@@ -41,47 +65,203 @@ class ExpenseRepositoryTest {
         Expense expense = new Expense();
         expense.setUsername("testUser");
         expense.setExpenseCategory("Category1");
-        expense.setAmount(100.0);
+        expense.setAmount(Money.parse("100.0"));
         expense.setDate(LocalDate.now());
         expenseRepository.save(expense);
 
         Expense expense2 = new Expense();
         expense2.setUsername("testUser");
         expense2.setExpenseCategory("Category2");
-        expense2.setAmount(150.0);
+        expense2.setAmount(Money.parse("150.0"));
         expense2.setDate(LocalDate.now());
         expenseRepository.save(expense2);
 
-        Page<Expense> filteredExpenses = expenseRepository.filterExpenses("testUser", "Category1", 50.0, 200.0,
+        Page<ExpenseView> filteredExpenses = expenseRepository.filterExpenses("testUser", "Category1", Money.parse("50.0"), Money.parse("200.0"),
                 null, null, PageRequest.of(0, 10));
 
         assertEquals(1, filteredExpenses.getTotalElements());
         assertEquals("Category1", filteredExpenses.getContent().get(0).getExpenseCategory());
     }
 
+    @Test
+    void testFindViewByUsernameAndId() {
+        Expense expense = expenseRepository.save(Expense.builder().description("Lunch").username("testUser")
+                .expenseCategory("Food").amount(Money.parse("12.50")).date(LocalDate.now()).build());
+
+        Optional<ExpenseView> view = expenseRepository.findViewByUsernameAndId("testUser", expense.getId());
+
+        assertEquals(Optional.of(new ExpenseView(expense.getId(), "Lunch", Money.parse("12.50"), "Food",
+                LocalDate.now())), view);
+        assertTrue(expenseRepository.findViewByUsernameAndId("otherUser", expense.getId()).isEmpty());
+    }
+
     @Test
     void testAggregateExpensesByCategory() {
         Expense expense = new Expense();
         expense.setUsername("testUser");
         expense.setExpenseCategory("Category1");
-        expense.setAmount(100.0);
+        expense.setAmount(Money.parse("100.0"));
         expense.setDate(LocalDate.now());
         expenseRepository.save(expense);
 
         Expense expense2 = new Expense();
         expense2.setUsername("testUser");
         expense2.setExpenseCategory("Category2");
-        expense2.setAmount(150.0);
+        expense2.setAmount(Money.parse("150.0"));
         expense2.setDate(LocalDate.now());
         expenseRepository.save(expense2);
 
-        List<Object[]> aggregatedData = expenseRepository.aggregateExpensesByCategory("testUser",
+        List<CategoryTotal> aggregatedData = expenseRepository.aggregateExpensesByCategory("testUser",
                 LocalDate.now().minusDays(1), LocalDate.now());
 
-        assertEquals(2, aggregatedData.size());
-        assertEquals("Category1", aggregatedData.get(0)[0]);
-        assertEquals(100.0, aggregatedData.get(0)[1]);
-        assertEquals("Category2", aggregatedData.get(1)[0]);
-        assertEquals(150.0, aggregatedData.get(1)[1]);
+        assertEquals(List.of(new CategoryTotal("Category1", 10000L), new CategoryTotal("Category2", 15000L)),
+                aggregatedData);
+    }
+
+    @Test
+    void testFindAfterCursorWalksSameOrderAsOffsetPaging() {
+        for (int i = 0; i < 25; i++) {
+            Expense expense = new Expense();
+            expense.setUsername(i % 5 == 0 ? "otherUser" : "testUser");
+            expense.setExpenseCategory("Category1");
+            expense.setAmount(Money.ofMinor(i % 4 * 100L));
+            expense.setDate(LocalDate.now().minusDays(i % 3));
+            expenseRepository.save(expense);
+        }
+        Filter filter = new Filter();
+        filter.setUsername("testUser");
+        filter.setMinAmount(Money.parse("1.0"));
+
+        for (String sortField : List.of("id", "date", "amount")) {
+            for (Sort.Direction direction : Sort.Direction.values()) {
+                List<Long> expected = expenseRepository.filterExpenses("testUser", null, Money.parse("1.0"), null, null, null,
+                                PageRequest.of(0, 100, Sort.by(direction, sortField).and(Sort.by(direction, "id"))))
+                        .map(ExpenseView::getId).getContent();
+
+                List<Long> walked = new ArrayList<>();
+                ExpenseCursor cursor = ExpenseCursor.first(sortField, direction);
+                List<Expense> slice;
+                do {
+                    slice = expenseRepository.findAfterCursor(filter, cursor, 4);
+                    slice.forEach(expense -> walked.add(expense.getId()));
+                    if (!slice.isEmpty())
+                        cursor = ExpenseCursor.decode(cursor.after(slice.get(slice.size() - 1)).encode());
+                } while (slice.size() == 4);
+
+                assertEquals(expected, walked, "Keyset order differs for " + sortField + " " + direction);
+            }
+        }
+    }
+
+    @Test
+    void testFindAfterCursorWalksPastMissingAmounts() {
+        for (int i = 0; i < 12; i++) {
+            Expense expense = new Expense();
+            expense.setUsername("testUser");
+            expense.setExpenseCategory("Category1");
+            expense.setAmount(i % 3 == 0 ? null : Money.ofMinor(i % 2 * 100L + 100));
+            expense.setDate(LocalDate.now());
+            expenseRepository.save(expense);
+        }
+        Filter filter = new Filter();
+        filter.setUsername("testUser");
+
+        for (Sort.Direction direction : Sort.Direction.values()) {
+            List<Long> expected = expenseRepository.filterExpenses("testUser", null, null, null, null, null,
+                            PageRequest.of(0, 100, Sort.by(direction, "amount").and(Sort.by(direction, "id"))))
+                    .map(ExpenseView::getId).getContent();
+
+            List<Long> walked = new ArrayList<>();
+            ExpenseCursor cursor = ExpenseCursor.first("amount", direction);
+            List<Expense> slice;
+            do {
+                slice = expenseRepository.findAfterCursor(filter, cursor, 3);
+                slice.forEach(expense -> walked.add(expense.getId()));
+                if (!slice.isEmpty())
+                    cursor = ExpenseCursor.decode(cursor.after(slice.get(slice.size() - 1)).encode());
+            } while (slice.size() == 3);
+
+            assertEquals(12, walked.size());
+            assertEquals(expected, walked, "Keyset order differs for amount " + direction);
+        }
+    }
+
+    @Test
+    void testFilterExpensesShapesMatchLegacyQuery() {
+        String[] categories = {"Category1", "Category2", null};
+        for (int i = 0; i < 60; i++) {
+            Expense expense = new Expense();
+            expense.setUsername(i % 7 == 0 ? "otherUser" : "testUser");
+            expense.setExpenseCategory(categories[i % 3]);
+            expense.setAmount(Money.ofMinor(i * 5 % 200 * 100L));
+            expense.setDate(LocalDate.now().minusDays(i % 40));
+            expenseRepository.save(expense);
+        }
+
+        for (int shape = 0; shape < 32; shape++) {
+            String category = (shape & 1) != 0 ? "Category1" : null;
+            Money minPrice = (shape & 2) != 0 ? Money.parse("40.00") : null;
+            Money maxPrice = (shape & 4) != 0 ? Money.parse("150.00") : null;
+            LocalDate startDate = (shape & 8) != 0 ? LocalDate.now().minusDays(30) : null;
+            LocalDate endDate = (shape & 16) != 0 ? LocalDate.now().minusDays(5) : null;
+
+            List<Long> expected = entityManager.getEntityManager().createQuery(LEGACY_FILTER_QUERY, Expense.class)
+                    .setParameter("username", "testUser")
+                    .setParameter("expenseCategory", category)
+                    .setParameter("minPrice", minPrice)
+                    .setParameter("maxPrice", maxPrice)
+                    .setParameter("startDate", startDate)
+                    .setParameter("endDate", endDate)
+                    .getResultStream().map(Expense::getId).toList();
+            Page<ExpenseView> filtered = expenseRepository.filterExpenses("testUser", category, minPrice, maxPrice,
+                    startDate, endDate, PageRequest.of(0, 100, Sort.by("id")));
+
+            assertEquals(expected, filtered.map(ExpenseView::getId).getContent(), "Results differ for shape " + shape);
+            assertEquals(expected.size(), filtered.getTotalElements());
+        }
+    }
+
+    @Test
+    void testFilterExpensesCachesOneQueryPerShape() {
+        int cached = expenseRepositoryImpl.cachedQueryCount();
+        for (int i = 0; i < 3; i++) {
+            expenseRepository.filterExpenses("testUser", "Category1", null, null, null, null,
+                    PageRequest.of(0, 10, Sort.by("date")));
+            expenseRepository.filterExpenses("testUser", null, Money.parse("10.0"), null, null, null,
+                    PageRequest.of(0, 10, Sort.by("date")));
+        }
+
+        assertEquals(cached + 2, expenseRepositoryImpl.cachedQueryCount());
+    }
+
+    @Test
+    void testFilterExpensesRejectsUnknownSortField() {
+        assertThrows(CustomException.class, () -> expenseRepository.filterExpenses("testUser", null, null, null,
+                null, null, PageRequest.of(0, 10, Sort.by("username) FROM User u --"))));
+    }
+
+    @Test
+    void testForEachDailyTotal() {
+        LocalDate day = LocalDate.of(2024, 3, 10);
+        save("testUser", "Food", "10.00", day);
+        save("testUser", "Food", "2.50", day);
+        save("testUser", "Car", "40.00", day);
+        save("testUser", "Food", "5.00", day.plusDays(2));
+        save("testUser", "Food", "99.00", day.plusDays(3));
+        save("testUser", "Food", "99.00", day.minusDays(1));
+        save("otherUser", "Food", "99.00", day);
+
+        List<String> totals = new ArrayList<>();
+        expenseRepository.forEachDailyTotal("testUser", day, day.plusDays(2),
+                (date, category, total) -> totals.add(date + " " + category + " " + total));
+
+        assertEquals(3, totals.size());
+        assertTrue(totals.subList(0, 2).containsAll(List.of("2024-03-10 Food 1250", "2024-03-10 Car 4000")));
+        assertEquals("2024-03-12 Food 500", totals.get(2));
+    }
+
+    private void save(String username, String category, String amount, LocalDate date) {
+        expenseRepository.save(Expense.builder().description("Expense").username(username).expenseCategory(category)
+                .amount(Money.parse(amount)).date(date).build());
     }
 }
@@ -0,0 +1,105 @@
+package team.devot.budgetapp.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import team.devot.budgetapp.model.CategoryTotal;
+import team.devot.budgetapp.model.Expense;
+import team.devot.budgetapp.model.Money;
+import team.devot.budgetapp.service.ExpenseRollupService;
+import team.devot.budgetapp.service.impl.ExpenseRollupServiceImpl;
+
+import java.time.LocalDate;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+@Import(ExpenseRollupServiceImpl.class)
+class ExpenseRollupRepositoryTest {
+
+    private static final String[] CATEGORIES = {"Food", "Car", "Gym", null};
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private ExpenseRollupRepository rollupRepository;
+
+    @Autowired
+    private ExpenseRollupService rollupService;
+
+    @Test
+    void testIncrementalRollupsMatchRawAggregation() {
+        LocalDate today = LocalDate.now();
+        List<Expense> expenses = seedExpenses(today, true);
+
+        Random random = new Random(7);
+        for (int i = 0; i < 40; i++) {
+            Expense removed = expenses.remove(random.nextInt(expenses.size()));
+            rollupService.remove(removed);
+            expenseRepository.delete(removed);
+        }
+
+        assertRollupsMatchRawAggregation(today);
+    }
+
+    @Test
+    void testRebuildMatchesRawAggregation() {
+        LocalDate today = LocalDate.now();
+        seedExpenses(today, false);
+
+        rollupService.rebuild();
+
+        assertRollupsMatchRawAggregation(today);
+    }
+
+    @Test
+    void testRemoveDeletesEmptyRollup() {
+        Expense expense = new Expense(null, "Test", Money.parse("10.0"), "Food", "testUser", LocalDate.now());
+        expenseRepository.save(expense);
+        rollupService.record(expense);
+        assertEquals(1, rollupRepository.count());
+
+        rollupService.remove(expense);
+
+        assertEquals(0, rollupRepository.count());
+    }
+
+    private List<Expense> seedExpenses(LocalDate today, boolean recordRollups) {
+        Random random = new Random(42);
+        List<Expense> expenses = new ArrayList<>();
+        for (String username : List.of("testUser", "otherUser")) {
+            for (int i = 0; i < 300; i++) {
+                Expense expense = new Expense();
+                expense.setUsername(username);
+                expense.setDescription("Expense " + i);
+                expense.setExpenseCategory(CATEGORIES[random.nextInt(CATEGORIES.length)]);
+                expense.setAmount(Money.ofMinor(random.nextInt(4000) * 25L));
+                expense.setDate(today.minusDays(random.nextInt(800)));
+                expenseRepository.save(expense);
+                if (recordRollups)
+                    rollupService.record(expense);
+                expenses.add(expense);
+            }
+        }
+        return expenses;
+    }
+
+    private void assertRollupsMatchRawAggregation(LocalDate today) {
+        List<LocalDate> startDates = List.of(today.minusMonths(1).withDayOfMonth(1),
+                today.minusMonths(3).withDayOfMonth(1), today.minusYears(1).withDayOfYear(1),
+                today.minusYears(3).withDayOfYear(1));
+        for (String username : List.of("testUser", "otherUser", "unknownUser")) {
+            for (LocalDate startDate : startDates) {
+                Map<String, Money> expected = new HashMap<>();
+                for (CategoryTotal total : expenseRepository.aggregateExpensesByCategory(username, startDate, today))
+                    expected.put(total.getCategory(), Money.ofMinor(total.getTotal()));
+
+                assertEquals(expected, rollupService.aggregate(username, startDate, today),
+                        "Rollups differ from raw expenses for " + username + " since " + startDate);
+            }
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package team.devot.budgetapp.repository;
+
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Checks the query plans against the schema of the Flyway migrations the prod profile runs, instead of the schema
+ * Hibernate generates.
+ */
+@TestPropertySource(properties = {
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.defer-datasource-initialization=false",
+        "spring.sql.init.mode=never"})
+class FlywayQueryPlanTest extends QueryPlanTest {
+}
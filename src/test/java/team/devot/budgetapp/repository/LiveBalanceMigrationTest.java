@@ -0,0 +1,46 @@
+package team.devot.budgetapp.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LiveBalanceMigrationTest {
+
+    @Test
+    void testMigrationFoldsLedgerIntoBalance() {
+        SingleConnectionDataSource dataSource = new SingleConnectionDataSource("jdbc:h2:mem:live-balance-migration",
+                "sa", "", true);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE USERS (USER_ID BIGINT PRIMARY KEY, USER_USERNAME VARCHAR(255), " +
+                "USER_BALANCE BIGINT)");
+        new ResourceDatabasePopulator(new ClassPathResource("db/migration/V3__create_balance_ledger.sql"))
+                .execute(dataSource);
+        jdbcTemplate.update("INSERT INTO USERS VALUES (1, 'snapshotUser', 10000), (2, 'tailUser', 5000), " +
+                "(3, 'quietUser', 2500)");
+        jdbcTemplate.update("INSERT INTO BALANCE_ENTRY VALUES " +
+                "(1, 'snapshotUser', 'DEBIT', -3000, 1, CURRENT_TIMESTAMP), " +
+                "(2, 'tailUser', 'DEBIT', -1000, 2, CURRENT_TIMESTAMP), " +
+                "(3, 'snapshotUser', 'DEBIT', -2000, 3, CURRENT_TIMESTAMP), " +
+                "(4, 'snapshotUser', 'CREDIT', 3000, 1, CURRENT_TIMESTAMP)");
+        jdbcTemplate.update("INSERT INTO BALANCE_SNAPSHOT VALUES ('snapshotUser', 5000, 3, CURRENT_TIMESTAMP)");
+
+        new ResourceDatabasePopulator(new ClassPathResource("db/migration/V5__keep_live_balance.sql"))
+                .execute(dataSource);
+
+        assertEquals(8000L, balance(jdbcTemplate, "snapshotUser"));
+        assertEquals(4000L, balance(jdbcTemplate, "tailUser"));
+        assertEquals(2500L, balance(jdbcTemplate, "quietUser"));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES " +
+                "WHERE TABLE_NAME = 'BALANCE_SNAPSHOT'", Integer.class));
+        dataSource.destroy();
+    }
+
+    private static long balance(JdbcTemplate jdbcTemplate, String username) {
+        return jdbcTemplate.queryForObject("SELECT USER_BALANCE FROM USERS WHERE USER_USERNAME = ?", Long.class,
+                username);
+    }
+}
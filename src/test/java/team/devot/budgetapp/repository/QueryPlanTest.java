@@ -0,0 +1,158 @@
+package team.devot.budgetapp.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import team.devot.budgetapp.model.Expense;
+import team.devot.budgetapp.model.ExpenseCursor;
+import team.devot.budgetapp.model.Filter;
+import team.devot.budgetapp.model.Money;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Runs the queries of the repositories and checks the plan of every statement they send, as captured from Hibernate,
+ * so the checked SQL is the SQL the application runs. Statements sent as plain JDBC are checked from the constants
+ * they are built from.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "team.devot.budgetapp.repository.QueryPlanTest$CapturedStatements")
+class QueryPlanTest {
+
+    private static final LocalDate START = LocalDate.of(2024, 1, 1);
+    private static final LocalDate END = LocalDate.of(2024, 12, 31);
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private ExpenseRollupRepository rollupRepository;
+
+    @Autowired
+    private BalanceEntryRepository entryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void clearStatements() {
+        CapturedStatements.SQL.clear();
+    }
+
+    static Stream<Arguments> queries() {
+        return Stream.of(
+                query("filter by user with count", test -> test.filter(filter(null, null, null, null, null), "id", 1)),
+                query("filter by category", test -> test.filter(filter("Food", null, null, null, null), "date", 1)),
+                query("filter by dates", test -> test.filter(filter(null, null, null, START, END), "amount", 1)),
+                query("filter by category and start date",
+                        test -> test.filter(filter("Food", null, null, START, null), "date", 1)),
+                query("filter by amounts", test -> test.filter(filter(null, Money.parse("10.00"),
+                        Money.parse("100.00"), null, null), "id", 1)),
+                query("find view by id", test -> test.expenseRepository.findViewByUsernameAndId("testUser", 1L)),
+                query("find views by ids",
+                        test -> test.expenseRepository.findViewsByUsernameAndIdIn("testUser", List.of(1L, 2L))),
+                query("cursor by id", test -> test.cursor("id")),
+                query("cursor by date", test -> test.cursor("date")),
+                query("cursor by amount", test -> test.cursor("amount")),
+                query("aggregate expenses by category",
+                        test -> test.expenseRepository.aggregateExpensesByCategory("testUser", START, END)),
+                query("increment rollup", test -> test.rollupRepository.increment("testUser", START, "Food", 1, 1)),
+                query("delete empty rollup", test -> test.rollupRepository.deleteIfEmpty("testUser", START, "Food")),
+                query("balance after entry", test -> test.entryRepository.findBalanceAfter("testUser", 1L)),
+                query("ledger history",
+                        test -> test.entryRepository.findByUsernameOrderByIdDesc("testUser", PageRequest.of(1, 10))),
+                query("debit balance",
+                        test -> test.userRepository.debitBalance("testUser", Money.parse("1.0"), Money.parse("1.0"))),
+                query("lock balance", test -> test.userRepository.lockBalanceByUsername("testUser")));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("queries")
+    void testQueryUsesIndex(String name, Consumer<QueryPlanTest> query) {
+        query.accept(this);
+
+        List<String> statements = CapturedStatements.SQL.stream()
+                .filter(sql -> !sql.toLowerCase(Locale.ROOT).startsWith("insert")
+                        && !sql.toLowerCase(Locale.ROOT).startsWith("call"))
+                .toList();
+        assertFalse(statements.isEmpty(), "No statement was captured");
+        statements.forEach(this::assertUsesIndex);
+    }
+
+    @ParameterizedTest
+    @MethodSource("jdbcQueries")
+    void testJdbcQueryUsesIndex(String sql) {
+        assertUsesIndex(sql);
+    }
+
+    static Stream<String> jdbcQueries() {
+        return Stream.of(ExpenseRepositoryImpl.DAILY_TOTALS, ExpenseRollupRepositoryImpl.AGGREGATE_BY_CATEGORY);
+    }
+
+    private void assertUsesIndex(String sql) {
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+
+        assertFalse(plan.contains("tableScan"), () -> "Query falls back to a table scan:\n" + plan);
+    }
+
+    private void filter(Filter filter, String sortField, int page) {
+        expenseRepository.filterExpenses(filter.getUsername(), filter.getExpenseCategory(), filter.getMinAmount(),
+                filter.getMaxAmount(), filter.getStartDate(), filter.getEndDate(),
+                PageRequest.of(page, 10, Sort.by(Sort.Direction.DESC, sortField)));
+    }
+
+    private void cursor(String sortField) {
+        Filter filter = filter(null, null, null, null, null);
+        ExpenseCursor first = ExpenseCursor.first(sortField, Sort.Direction.ASC);
+        expenseRepository.findAfterCursor(filter, first, 11);
+        Expense last = Expense.builder().id(7L).date(START).amount(Money.parse("10.00")).build();
+        expenseRepository.findAfterCursor(filter, first.after(last), 11);
+    }
+
+    private static Filter filter(String category, Money minAmount, Money maxAmount, LocalDate startDate,
+                                 LocalDate endDate) {
+        Filter filter = new Filter();
+        filter.setUsername("testUser");
+        filter.setExpenseCategory(category);
+        filter.setMinAmount(minAmount);
+        filter.setMaxAmount(maxAmount);
+        filter.setStartDate(startDate);
+        filter.setEndDate(endDate);
+        return filter;
+    }
+
+    private static Arguments query(String name, Consumer<QueryPlanTest> query) {
+        return Arguments.of(name, query);
+    }
+
+    /**
+     * Records every statement Hibernate prepares.
+     */
+    public static class CapturedStatements implements StatementInspector {
+
+        static final List<String> SQL = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            SQL.add(sql);
+            return sql;
+        }
+    }
+}
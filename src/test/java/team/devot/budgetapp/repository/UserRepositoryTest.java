@@ -3,6 +3,7 @@ package team.devot.budgetapp.repository;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import team.devot.budgetapp.model.Money;
 import team.devot.budgetapp.model.User;
 
 import java.util.Optional;
@@ -65,4 +66,32 @@ class UserRepositoryTest {
 
         assertFalse(exists);
     }
+
+    @Test
+    void testDebitBalance() {
+        userRepository.save(User.builder().username("testUser").email("test@example.com").balance(Money.parse("100.0")).build());
+
+        assertEquals(0, userRepository.debitBalance("testUser", Money.parse("60.0"), Money.parse("120.0")));
+        assertEquals(1, userRepository.debitBalance("testUser", Money.parse("60.0"), Money.parse("60.0")));
+        assertEquals(0, userRepository.debitBalance("testUser", Money.parse("60.0"), Money.parse("60.0")));
+        assertEquals(0, userRepository.debitBalance("nonexistentUser", Money.parse("1.0"), Money.parse("1.0")));
+        assertEquals(Optional.of(Money.parse("40.00")), userRepository.findBalanceByUsername("testUser"));
+    }
+
+    @Test
+    void testCreditBalance() {
+        userRepository.save(User.builder().username("testUser").email("test@example.com").balance(Money.parse("100.0")).build());
+
+        assertEquals(1, userRepository.creditBalance("testUser", Money.parse("25.0")));
+        assertEquals(0, userRepository.creditBalance("nonexistentUser", Money.parse("25.0")));
+        assertEquals(Optional.of(Money.parse("125.00")), userRepository.findBalanceByUsername("testUser"));
+    }
+
+    @Test
+    void testLockBalanceByUsername() {
+        userRepository.save(User.builder().username("testUser").email("test@example.com").balance(Money.parse("100.0")).build());
+
+        assertEquals(Optional.of(Money.parse("100.00")), userRepository.lockBalanceByUsername("testUser"));
+        assertEquals(Optional.empty(), userRepository.lockBalanceByUsername("nonexistentUser"));
+    }
 }
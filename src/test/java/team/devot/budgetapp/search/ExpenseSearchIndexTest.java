@@ -0,0 +1,188 @@
+package team.devot.budgetapp.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.context.transaction.TestTransaction;
+import team.devot.budgetapp.model.Expense;
+import team.devot.budgetapp.model.Filter;
+import team.devot.budgetapp.model.Money;
+import team.devot.budgetapp.repository.ExpenseRepository;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import(ExpenseSearchIndex.class)
+class ExpenseSearchIndexTest {
+
+    @Autowired
+    private ExpenseSearchIndex searchIndex;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    private Long netflix;
+    private Long netflixFamily;
+    private Long netflixCom;
+    private Long groceries;
+
+    @BeforeEach
+    void setUp() {
+        LocalDate today = LocalDate.now();
+        netflix = save("testUser", "Netflix", "Fun", "15.99", today);
+        netflixFamily = save("testUser", "Netflix family plan upgrade", "Fun", "22.99", today.minusMonths(2));
+        netflixCom = save("testUser", "NETFLIX.COM 866-579-7172", "Utility", "9.99", today.minusMonths(1));
+        groceries = save("testUser", "Weekly groceries", "Food", "80.00", today);
+        save("otherUser", "Netflix", "Fun", "15.99", today);
+        entityManager.flush();
+        assertEquals(5, searchIndex.rebuild());
+    }
+
+    @Test
+    void testMatchesWholeWordsIgnoringCase() {
+        assertEquals(List.of(netflix, netflixFamily, netflixCom), ids(filter("netflix")));
+        assertEquals(List.of(groceries), ids(filter("GROCERIES weekly")));
+    }
+
+    @Test
+    void testMatchesStartOfWords() {
+        ExpenseSearchIndex.Hits hits = searchIndex.search(filter("netf"), 0, 10);
+
+        assertEquals(3, hits.total());
+        assertTrue(hits.ids().containsAll(List.of(netflix, netflixFamily, netflixCom)));
+        assertEquals(List.of(netflixFamily), ids(filter("fam upg")));
+        assertTrue(ids(filter("netflix groceries")).isEmpty());
+    }
+
+    @Test
+    void testRanksWholeWordsFirstThenNewest() {
+        assertEquals(List.of(netflix, netflixFamily, netflixCom), ids(filter("netflix")));
+        assertEquals(List.of(netflixCom, netflixFamily, netflix), ids(filter("netfl")));
+    }
+
+    @Test
+    void testCombinesOtherCriteria() {
+        Filter category = filter("netf");
+        category.setExpenseCategory("Utility");
+        assertEquals(List.of(netflixCom), ids(category));
+
+        Filter amount = filter("netf");
+        amount.setMinAmount(Money.parse("10.00"));
+        amount.setMaxAmount(Money.parse("20.00"));
+        assertEquals(List.of(netflix), ids(amount));
+
+        Filter dates = filter("netf");
+        dates.setStartDate(LocalDate.now().minusMonths(3));
+        dates.setEndDate(LocalDate.now().minusDays(1));
+        assertEquals(2, searchIndex.search(dates, 0, 10).total());
+    }
+
+    @Test
+    void testPagesRankedResults() {
+        ExpenseSearchIndex.Hits first = searchIndex.search(filter("netf"), 0, 2);
+        ExpenseSearchIndex.Hits second = searchIndex.search(filter("netf"), 2, 2);
+
+        assertEquals(2, first.ids().size());
+        assertEquals(1, second.ids().size());
+        assertEquals(3, second.total());
+        assertFalse(first.ids().contains(second.ids().get(0)));
+    }
+
+    @Test
+    void testReindexAppliesCommittedRowsAfterCommit() {
+        Expense expense = expenseRepository.findById(groceries).orElseThrow();
+        expense.setDescription("Netflix gift card");
+        entityManager.flush();
+        entityManager.getEntityManager().createQuery("DELETE FROM Expense e WHERE e.id = :id")
+                .setParameter("id", netflix).executeUpdate();
+
+        searchIndex.reindex(List.of(groceries, netflix));
+        assertEquals(5, searchIndex.size());
+
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+        try {
+            assertEquals(4, searchIndex.size());
+            assertTrue(ids(filter("groceries")).isEmpty());
+            assertEquals(List.of(netflixFamily, netflixCom, groceries), ids(filter("netflix")).stream().sorted().toList());
+        } finally {
+            TestTransaction.start();
+            expenseRepository.deleteAll();
+            TestTransaction.flagForCommit();
+            TestTransaction.end();
+        }
+    }
+
+    @Test
+    void testReindexIsDroppedOnRollback() {
+        expenseRepository.deleteById(netflix);
+        entityManager.flush();
+        searchIndex.reindex(List.of(netflix));
+
+        TestTransaction.end();
+
+        assertEquals(5, searchIndex.size());
+    }
+
+    @Test
+    void testStoredIndexIsReusedOnlyWhileCurrent(@TempDir Path indexDir) throws IOException {
+        ExpenseSearchIndex stored = new ExpenseSearchIndex(jdbcTemplate, indexDir.toString());
+        assertFalse(stored.isCurrent());
+        assertEquals(5, stored.rebuild());
+        stored.close();
+
+        stored = new ExpenseSearchIndex(jdbcTemplate, indexDir.toString());
+        try {
+            assertTrue(stored.isCurrent());
+            assertEquals(List.of(netflix, netflixFamily, netflixCom), stored.search(filter("netflix"), 0, 10).ids());
+        } finally {
+            stored.close();
+        }
+
+        save("testUser", "Gym membership", "Gym", "30.00", LocalDate.now());
+        entityManager.flush();
+        stored = new ExpenseSearchIndex(jdbcTemplate, indexDir.toString());
+        try {
+            assertFalse(stored.isCurrent());
+        } finally {
+            stored.close();
+        }
+    }
+
+    @Test
+    void testBlankSearchFindsNothing() {
+        assertEquals(new ExpenseSearchIndex.Hits(List.of(), 0), searchIndex.search(filter("-- !"), 0, 10));
+    }
+
+    private List<Long> ids(Filter filter) {
+        return searchIndex.search(filter, 0, 10).ids();
+    }
+
+    private Filter filter(String description) {
+        Filter filter = new Filter();
+        filter.setUsername("testUser");
+        filter.setDescription(description);
+        return filter;
+    }
+
+    private Long save(String username, String description, String category, String amount, LocalDate date) {
+        return expenseRepository.save(Expense.builder().username(username).description(description)
+                .expenseCategory(category).amount(Money.parse(amount)).date(date).build()).getId();
+    }
+}
@@ -0,0 +1,177 @@
+package team.devot.budgetapp.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginSessionRegistryTest {
+
+    private static final int THREADS = 32;
+    private static final int LOGINS = 100_000;
+    private static final int MAX_SIZE = 5_000;
+
+    @Test
+    void testStartAndEnd() {
+        LoginSessionRegistry registry = new LoginSessionRegistry(Duration.ofMinutes(30), 10);
+
+        assertTrue(registry.start("testUser"));
+        assertFalse(registry.start("testUser"));
+        assertTrue(registry.isActive("testUser"));
+
+        registry.end("testUser");
+
+        assertFalse(registry.isActive("testUser"));
+        assertEquals(0, registry.getSessionCount());
+    }
+
+    @Test
+    void testIdleSessionExpires() {
+        MutableClock clock = new MutableClock();
+        LoginSessionRegistry registry = new LoginSessionRegistry(Duration.ofMinutes(30), 10, clock);
+        registry.start("testUser");
+
+        clock.advance(Duration.ofMinutes(30));
+
+        assertFalse(registry.isActive("testUser"));
+        assertEquals(0, registry.getSessionCount());
+        assertEquals(1, registry.getEvictionCount());
+        assertTrue(registry.start("testUser"));
+    }
+
+    @Test
+    void testActivityRestartsIdleTimeout() {
+        MutableClock clock = new MutableClock();
+        LoginSessionRegistry registry = new LoginSessionRegistry(Duration.ofMinutes(30), 10, clock);
+        registry.start("testUser");
+
+        clock.advance(Duration.ofMinutes(20));
+        registry.touch("testUser");
+        clock.advance(Duration.ofMinutes(20));
+
+        assertTrue(registry.isActive("testUser"));
+        clock.advance(Duration.ofMinutes(10));
+        assertFalse(registry.isActive("testUser"));
+
+        registry.touch("otherUser");
+        assertFalse(registry.isActive("otherUser"));
+    }
+
+    @Test
+    void testOldestSessionsEvictedAtMaxSize() {
+        MutableClock clock = new MutableClock();
+        LoginSessionRegistry registry = new LoginSessionRegistry(Duration.ofMinutes(30), 10, clock);
+        for (int i = 0; i <= 10; i++) {
+            registry.start("user" + i);
+            clock.advance(Duration.ofSeconds(1));
+        }
+
+        assertEquals(9, registry.getSessionCount());
+        assertEquals(2, registry.getEvictionCount());
+        assertFalse(registry.isActive("user0"));
+        assertFalse(registry.isActive("user1"));
+        assertTrue(registry.isActive("user10"));
+    }
+
+    @Test
+    void testConcurrentLoginBurstStaysBounded() throws Exception {
+        LoginSessionRegistry registry = new LoginSessionRegistry(Duration.ofMinutes(30), MAX_SIZE);
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger started = new AtomicInteger();
+        AtomicInteger maxSeen = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                workers.add(executor.submit(() -> {
+                    start.await();
+                    int i;
+                    while ((i = next.getAndIncrement()) < LOGINS) {
+                        if (registry.start("user" + i))
+                            started.incrementAndGet();
+                        maxSeen.accumulateAndGet(registry.getSessionCount(), Math::max);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> worker : workers)
+                worker.get(1, TimeUnit.MINUTES);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(LOGINS, started.get());
+        assertTrue(registry.getSessionCount() <= MAX_SIZE);
+        assertTrue(maxSeen.get() <= MAX_SIZE + THREADS, "Registry grew to " + maxSeen.get());
+        assertEquals(LOGINS, registry.getSessionCount() + registry.getEvictionCount());
+        assertTrue(registry.isActive("user" + (LOGINS - 1)));
+    }
+
+    @Test
+    void testConcurrentLoginsOfSameUser() throws Exception {
+        LoginSessionRegistry registry = new LoginSessionRegistry(Duration.ofMinutes(30), MAX_SIZE);
+        AtomicInteger started = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                workers.add(executor.submit(() -> {
+                    start.await();
+                    if (registry.start("sameUser"))
+                        started.incrementAndGet();
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> worker : workers)
+                worker.get(1, TimeUnit.MINUTES);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, started.get());
+        assertEquals(1, registry.getSessionCount());
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2024-01-01T12:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
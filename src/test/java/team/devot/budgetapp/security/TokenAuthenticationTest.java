@@ -0,0 +1,89 @@
+package team.devot.budgetapp.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import team.devot.budgetapp.model.Money;
+import team.devot.budgetapp.model.TokenResponse;
+import team.devot.budgetapp.model.User;
+import team.devot.budgetapp.model.dto.UserDTO;
+import team.devot.budgetapp.repository.UserRepository;
+import team.devot.budgetapp.service.impl.UserDetailServiceImpl;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:token-authentication")
+@AutoConfigureMockMvc
+class TokenAuthenticationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @SpyBean
+    private UserDetailServiceImpl userDetailService;
+
+    @Test
+    void testTokenLoginAuthenticatesWithoutUserLookup() throws Exception {
+        userRepository.save(User.builder().username("tokenUser").password(passwordEncoder.encode("password"))
+                .email("token@example.com").balance(Money.parse("100.0")).build());
+
+        MvcResult login = mockMvc.perform(MockMvcRequestBuilders.post("/api/login/token")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(UserDTO.builder().username("tokenUser").password("password").build())))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.tokenType").value("Bearer"))
+                .andReturn();
+        String token = objectMapper.readValue(login.getResponse().getContentAsString(), TokenResponse.class).getToken();
+        clearInvocations(userDetailService);
+
+        for (int i = 0; i < 3; i++) {
+            MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/api/category")
+                    .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                    .andExpect(MockMvcResultMatchers.status().isOk())
+                    .andReturn();
+            assertNull(result.getRequest().getSession(false));
+        }
+        verify(userDetailService, never()).loadUserByUsername(any());
+    }
+
+    @Test
+    void testInvalidTokenIsRejected() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/category")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer forged.token"))
+                .andExpect(MockMvcResultMatchers.status().isUnauthorized())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.WWW_AUTHENTICATE,
+                        "Bearer error=\"invalid_token\""));
+    }
+
+    @Test
+    void testTokenLoginWithWrongPassword() throws Exception {
+        userRepository.save(User.builder().username("wrongPasswordUser").password(passwordEncoder.encode("password"))
+                .email("wrong@example.com").balance(Money.parse("100.0")).build());
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/login/token")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(UserDTO.builder().username("wrongPasswordUser").password("wrong").build())))
+                .andExpect(MockMvcResultMatchers.status().isUnauthorized());
+    }
+}
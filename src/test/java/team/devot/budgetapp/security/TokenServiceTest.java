@@ -0,0 +1,69 @@
+package team.devot.budgetapp.security;
+
+import org.junit.jupiter.api.Test;
+import team.devot.budgetapp.model.TokenResponse;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenServiceTest {
+
+    private static final Instant NOW = Instant.parse("2024-01-01T12:00:00Z");
+
+    private final TokenService tokenService = new TokenService("test-secret", Duration.ofHours(1),
+            Clock.fixed(NOW, ZoneOffset.UTC));
+
+    @Test
+    void testIssueAndVerify() {
+        TokenResponse response = tokenService.issue(42L, "test|user");
+
+        Optional<TokenUserDetails> principal = tokenService.verify(response.getToken());
+
+        assertEquals("Bearer", response.getTokenType());
+        assertEquals(NOW.plus(Duration.ofHours(1)), response.getExpiresAt());
+        assertTrue(principal.isPresent());
+        assertEquals(42L, principal.get().getUserId());
+        assertEquals("test|user", principal.get().getUsername());
+        assertTrue(principal.get().getAuthorities().stream()
+                .anyMatch(authority -> "ROLE_USER".equals(authority.getAuthority())));
+    }
+
+    @Test
+    void testVerifyExpiredToken() {
+        String token = tokenService.issue(42L, "testUser").getToken();
+        TokenService later = new TokenService("test-secret", Duration.ofHours(1),
+                Clock.fixed(NOW.plus(Duration.ofHours(1)), ZoneOffset.UTC));
+
+        assertTrue(later.verify(token).isEmpty());
+    }
+
+    @Test
+    void testVerifyTokenOfOtherSecret() {
+        String token = new TokenService("other-secret", Duration.ofHours(1), Clock.fixed(NOW, ZoneOffset.UTC))
+                .issue(42L, "testUser").getToken();
+
+        assertTrue(tokenService.verify(token).isEmpty());
+    }
+
+    @Test
+    void testVerifyTamperedPayload() {
+        String token = tokenService.issue(42L, "testUser").getToken();
+        String forgedPayload = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("v1|1|9999999999|admin".getBytes());
+
+        assertTrue(tokenService.verify(forgedPayload + token.substring(token.indexOf('.'))).isEmpty());
+    }
+
+    @Test
+    void testVerifyMalformedToken() {
+        assertTrue(tokenService.verify("not-a-token").isEmpty());
+        assertTrue(tokenService.verify("%%%.%%%").isEmpty());
+        assertTrue(tokenService.verify(".").isEmpty());
+    }
+}
@@ -0,0 +1,132 @@
+package team.devot.budgetapp.service.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.test.context.transaction.TestTransaction;
+import team.devot.budgetapp.model.BalanceEntry;
+import team.devot.budgetapp.model.BalanceHistoryEntry;
+import team.devot.budgetapp.model.Money;
+import team.devot.budgetapp.model.User;
+import team.devot.budgetapp.repository.BalanceEntryRepository;
+import team.devot.budgetapp.repository.UserRepository;
+import team.devot.budgetapp.service.BalanceLedgerService;
+
+import javax.persistence.EntityNotFoundException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import(BalanceLedgerServiceImpl.class)
+class BalanceLedgerServiceImplTest {
+
+    @Autowired
+    private BalanceLedgerService ledgerService;
+
+    @Autowired
+    private BalanceEntryRepository entryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.save(User.builder().username("ledgerUser").email("ledger@example.com").balance(Money.parse("100.0")).build());
+    }
+
+    @Test
+    void testAppendMovesBalanceAndRecordsEntries() {
+        assertEquals(Money.parse("100.00"), ledgerService.lockBalance("ledgerUser"));
+
+        ledgerService.append(List.of(entry(BalanceEntry.Type.DEBIT, 1L, "-30.0"),
+                entry(BalanceEntry.Type.ADJUSTMENT, 1L, "0.0"), entry(BalanceEntry.Type.CREDIT, 2L, "10.0")));
+
+        assertEquals(Money.parse("80.00"), ledgerService.getBalance("ledgerUser"));
+        assertEquals(2, entryRepository.count());
+        assertThrows(EntityNotFoundException.class, () -> ledgerService.lockBalance("nonexistentUser"));
+        assertThrows(EntityNotFoundException.class, () -> ledgerService.append(List.of(BalanceEntry.builder()
+                .username("nonexistentUser").type(BalanceEntry.Type.CREDIT).amount(Money.parse("1.0")).build())));
+    }
+
+    @Test
+    void testTryDebitLeavesReservationsCovered() {
+        ledgerService.reserve("ledgerUser", Money.parse("30.0"));
+
+        assertFalse(ledgerService.tryDebit(entry(BalanceEntry.Type.DEBIT, 1L, "-80.0")));
+        assertEquals(Money.parse("100.00"), ledgerService.getBalance("ledgerUser"));
+        assertTrue(ledgerService.tryDebit(entry(BalanceEntry.Type.DEBIT, 2L, "-70.0")));
+        assertEquals(Money.parse("30.00"), ledgerService.getBalance("ledgerUser"));
+        assertEquals(List.of(2L), entryRepository.findAll().stream().map(BalanceEntry::getExpenseId).toList());
+        assertFalse(ledgerService.tryDebit(BalanceEntry.builder().username("nonexistentUser")
+                .type(BalanceEntry.Type.DEBIT).amount(Money.parse("-1.0")).build()));
+    }
+
+    @Test
+    void testHistoryWalksBackFromBalance() {
+        for (int i = 1; i <= 4; i++)
+            ledgerService.append(List.of(entry(BalanceEntry.Type.DEBIT, (long) i, "-" + i * 10 + ".0")));
+        ledgerService.append(List.of(entry(BalanceEntry.Type.CREDIT, 4L, "40.0")));
+
+        Page<BalanceHistoryEntry> newest = ledgerService.getHistory("ledgerUser", 0, 3);
+        Page<BalanceHistoryEntry> oldest = ledgerService.getHistory("ledgerUser", 1, 3);
+
+        assertEquals(5, newest.getTotalElements());
+        assertEquals(List.of(Money.parse("40.00"), Money.parse("0.00"), Money.parse("40.00")), balances(newest));
+        assertEquals(List.of(Money.parse("70.00"), Money.parse("90.00")), balances(oldest));
+        assertEquals(List.of(2L, 1L), oldest.map(BalanceHistoryEntry::getExpenseId).getContent());
+        assertEquals(Money.parse("-10.00"), oldest.getContent().get(1).getAmount());
+    }
+
+    @Test
+    void testReservationsAreReleasedAfterCommit() {
+        ledgerService.reserve("ledgerUser", Money.parse("30.0"));
+        assertEquals(Money.parse("70.00"), ledgerService.lockBalance("ledgerUser"));
+        assertEquals(Money.parse("100.00"), ledgerService.getBalance("ledgerUser"));
+
+        ledgerService.release("ledgerUser", Money.parse("30.0"));
+        assertEquals(Money.parse("70.00"), ledgerService.lockBalance("ledgerUser"));
+
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+        try {
+            TestTransaction.start();
+            assertEquals(Money.parse("100.00"), ledgerService.lockBalance("ledgerUser"));
+        } finally {
+            userRepository.delete(userRepository.findByUsername("ledgerUser").orElseThrow());
+            TestTransaction.flagForCommit();
+            TestTransaction.end();
+        }
+    }
+
+    @Test
+    void testReservationIsUndoneOnRollback() {
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+        try {
+            TestTransaction.start();
+            ledgerService.reserve("ledgerUser", Money.parse("30.0"));
+            assertEquals(Money.parse("70.00"), ledgerService.lockBalance("ledgerUser"));
+            TestTransaction.flagForRollback();
+            TestTransaction.end();
+
+            TestTransaction.start();
+            assertEquals(Money.parse("100.00"), ledgerService.lockBalance("ledgerUser"));
+        } finally {
+            userRepository.delete(userRepository.findByUsername("ledgerUser").orElseThrow());
+            TestTransaction.flagForCommit();
+            TestTransaction.end();
+        }
+    }
+
+    private List<Money> balances(Page<BalanceHistoryEntry> page) {
+        return page.map(BalanceHistoryEntry::getBalance).getContent();
+    }
+
+    private BalanceEntry entry(BalanceEntry.Type type, Long expenseId, String amount) {
+        return BalanceEntry.builder().username("ledgerUser").type(type).expenseId(expenseId).amount(Money.parse(amount)).build();
+    }
+}
@@ -1,10 +1,12 @@
 package team.devot.budgetapp.service.impl;
 
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import team.devot.budgetapp.cache.CategoryCache;
+import team.devot.budgetapp.cache.DataVersions;
 import team.devot.budgetapp.exception.CustomException;
 import team.devot.budgetapp.mapper.impl.CategoryMapper;
 import team.devot.budgetapp.model.Category;
@@ -13,8 +15,8 @@ import team.devot.budgetapp.repository.CategoryRepository;
 
 import javax.persistence.EntityNotFoundException;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
-import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -28,31 +30,40 @@ class CategoryServiceImplTest {
     @Mock
     private CategoryMapper categoryMapper;
 
-    @InjectMocks
+    private CategoryCache categoryCache;
+
+    private DataVersions dataVersions;
+
     private CategoryServiceImpl categoryService;
 
+    @BeforeEach
+    void setUp() {
+        categoryCache = new CategoryCache(categoryRepository, 100);
+        dataVersions = new DataVersions();
+        categoryService = new CategoryServiceImpl(categoryRepository, categoryCache, categoryMapper, dataVersions);
+    }
+
     @Test
     void testGetCategory() {
         Long categoryId = 1L;
-        Category category = new Category();
-        category.setId(categoryId);
-        when(categoryRepository.findById(categoryId)).thenReturn(Optional.of(category));
+        Category category = new Category(categoryId, "TestCategory");
+        when(categoryRepository.findAllByOrderByid()).thenReturn(List.of(category));
         when(categoryMapper.mapTo(category)).thenReturn(new CategoryDTO(categoryId, "TestCategory"));
 
         CategoryDTO result = categoryService.getCategory(categoryId);
 
         assertNotNull(result);
         assertEquals(categoryId, result.getId());
-        verify(categoryRepository, times(1)).findById(categoryId);
+        verify(categoryRepository, times(1)).findAllByOrderByid();
     }
 
     @Test
     void testGetCategoryNotFound() {
         Long categoryId = 1L;
-        when(categoryRepository.findById(categoryId)).thenReturn(Optional.empty());
+        when(categoryRepository.findAllByOrderByid()).thenReturn(Collections.emptyList());
 
         assertThrows(EntityNotFoundException.class, () -> categoryService.getCategory(categoryId));
-        verify(categoryRepository, times(1)).findById(categoryId);
+        verify(categoryRepository, times(1)).findAllByOrderByid();
     }
 
     @Test
@@ -80,42 +91,58 @@ class CategoryServiceImplTest {
         verify(categoryRepository, times(1)).findAllByOrderByid();
     }
 
+    @Test
+    void testGetAllCategoriesServedFromCache() {
+        when(categoryRepository.findAllByOrderByid()).thenReturn(List.of(new Category(1L, "Category 1")));
+        when(categoryMapper.mapTo(any())).thenReturn(new CategoryDTO(1L, "Category 1"));
+
+        categoryService.getAllCategories();
+        categoryService.getAllCategories();
+        categoryService.getCategory(1L);
+
+        verify(categoryRepository, times(1)).findAllByOrderByid();
+        verifyNoMoreInteractions(categoryRepository);
+        assertEquals(1, categoryCache.getMissCount());
+        assertEquals(2, categoryCache.getHitCount());
+    }
+
     @Test
     void testCreateCategory() {
         CategoryDTO categoryDTO = new CategoryDTO(null, "New Category");
-        when(categoryRepository.findByName("New Category")).thenReturn(Optional.empty());
+        when(categoryRepository.findAllByOrderByid()).thenReturn(Collections.emptyList());
+        String tag = dataVersions.categoryVersion();
 
         assertDoesNotThrow(() -> categoryService.createCategory(categoryDTO));
 
-        verify(categoryRepository, times(1)).findByName("New Category");
+        verify(categoryRepository, times(1)).findAllByOrderByid();
         verify(categoryRepository, times(1)).save(any());
+        assertEquals(0, categoryCache.size());
+        assertNotEquals(tag, dataVersions.categoryVersion());
     }
 
     @Test
     void testCreateCategoryAlreadyExists() {
         CategoryDTO categoryDTO = new CategoryDTO(null, "Existing Category");
-        when(categoryRepository.findByName("Existing Category")).thenReturn(Optional.of(new Category()));
+        when(categoryRepository.findAllByOrderByid()).thenReturn(List.of(new Category(1L, "Existing Category")));
 
         assertThrows(CustomException.class, () -> categoryService.createCategory(categoryDTO));
-        verify(categoryRepository, times(1)).findByName("Existing Category");
+        verify(categoryRepository, times(1)).findAllByOrderByid();
         verify(categoryRepository, times(0)).save(any());
     }
 
     @Test
     void testUpdateCategory() {
         CategoryDTO categoryDTO = new CategoryDTO(1L, "Updated Category");
-        Category category = new Category(1L, "Test");
-        when(categoryRepository.findById(1L)).thenReturn(Optional.of(category));
-        when(categoryRepository.findByName("Updated Category")).thenReturn(Optional.empty());
+        when(categoryRepository.findAllByOrderByid()).thenReturn(List.of(new Category(1L, "Test")));
         when(categoryRepository.save(any())).thenReturn(new Category(1L, "Updated Category"));
         when(categoryMapper.mapFrom(any())).thenReturn(new Category());
         when(categoryMapper.mapTo(any())).thenReturn(new CategoryDTO());
         CategoryDTO result = categoryService.updateCategory(categoryDTO);
 
         assertNotNull(result);
-        verify(categoryRepository, times(1)).findById(1L);
-        verify(categoryRepository, times(1)).findByName("Updated Category");
+        verify(categoryRepository, times(1)).findAllByOrderByid();
         verify(categoryRepository, times(1)).save(any());
+        assertEquals(0, categoryCache.size());
     }
 
     @Test
@@ -123,41 +150,53 @@ class CategoryServiceImplTest {
         CategoryDTO categoryDTO = new CategoryDTO(null, "Updated Category");
 
         assertThrows(CustomException.class, () -> categoryService.updateCategory(categoryDTO));
-        verify(categoryRepository, times(0)).findById(any());
-        verify(categoryRepository, times(0)).findByName(any());
-        verify(categoryRepository, times(0)).save(any());
+        verifyNoInteractions(categoryRepository);
     }
 
     @Test
     void testUpdateCategoryAlreadyExists() {
         CategoryDTO categoryDTO = new CategoryDTO(1L, "Existing Category");
-        when(categoryRepository.findById(1L)).thenReturn(Optional.of(new Category()));
-        when(categoryRepository.findByName("Existing Category")).thenReturn(Optional.of(new Category()));
+        when(categoryRepository.findAllByOrderByid()).thenReturn(
+                List.of(new Category(1L, "Test"), new Category(2L, "Existing Category")));
 
         assertThrows(CustomException.class, () -> categoryService.updateCategory(categoryDTO));
-        verify(categoryRepository, times(1)).findById(1L);
-        verify(categoryRepository, times(1)).findByName("Existing Category");
+        verify(categoryRepository, times(1)).findAllByOrderByid();
         verify(categoryRepository, times(0)).save(any());
     }
 
     @Test
     void testDeleteCategory() {
         Long categoryId = 1L;
-        when(categoryRepository.findById(categoryId)).thenReturn(Optional.of(new Category()));
+        when(categoryRepository.findAllByOrderByid()).thenReturn(List.of(new Category(categoryId, "Test")));
 
         assertDoesNotThrow(() -> categoryService.deleteCategory(categoryId));
 
-        verify(categoryRepository, times(1)).findById(categoryId);
+        verify(categoryRepository, times(1)).findAllByOrderByid();
         verify(categoryRepository, times(1)).deleteById(categoryId);
+        assertEquals(0, categoryCache.size());
     }
 
     @Test
     void testDeleteCategoryNotFound() {
         Long categoryId = 1L;
-        when(categoryRepository.findById(categoryId)).thenReturn(Optional.empty());
+        when(categoryRepository.findAllByOrderByid()).thenReturn(Collections.emptyList());
 
         assertThrows(EntityNotFoundException.class, () -> categoryService.deleteCategory(categoryId));
-        verify(categoryRepository, times(1)).findById(categoryId);
+        verify(categoryRepository, times(1)).findAllByOrderByid();
         verify(categoryRepository, times(0)).deleteById(categoryId);
     }
+
+    @Test
+    void testOversizedTableIsNotCached() {
+        categoryCache = new CategoryCache(categoryRepository, 1);
+        categoryService = new CategoryServiceImpl(categoryRepository, categoryCache, categoryMapper, dataVersions);
+        when(categoryRepository.findAllByOrderByid())
+                .thenReturn(List.of(new Category(1L, "Category 1"), new Category(2L, "Category 2")));
+
+        categoryService.getAllCategories();
+        categoryService.getAllCategories();
+
+        verify(categoryRepository, times(2)).findAllByOrderByid();
+        assertEquals(0, categoryCache.size());
+    }
 }
@@ -0,0 +1,116 @@
+package team.devot.budgetapp.service.impl;
+
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import team.devot.budgetapp.mapper.impl.ExpenseMapper;
+import team.devot.budgetapp.model.Expense;
+import team.devot.budgetapp.model.ExpenseFormat;
+import team.devot.budgetapp.model.Filter;
+import team.devot.budgetapp.model.Money;
+import team.devot.budgetapp.repository.ExpenseRepository;
+import team.devot.budgetapp.service.ExpenseExportService;
+
+import javax.persistence.EntityManager;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import({ExpenseExportServiceImpl.class, ExpenseMapper.class, JacksonAutoConfiguration.class})
+@TestPropertySource(properties = "budgetapp.export.fetch-size=10")
+class ExpenseExportServiceImplTest {
+
+    private static final int EXPENSE_COUNT = 250;
+
+    @Autowired
+    private ExpenseExportService exportService;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        List<Expense> expenses = new ArrayList<>();
+        for (int i = 0; i < EXPENSE_COUNT; i++) {
+            expenses.add(Expense.builder().username("testUser").description(i == 0 ? "Bread, \"fresh\"" : "Item " + i)
+                    .amount(Money.ofMinor((i + 1) * 100L)).expenseCategory(i % 2 == 0 ? "Food" : "Car")
+                    .date(LocalDate.of(2024, 1, 1).plusDays(i % 28)).build());
+        }
+        expenseRepository.saveAll(expenses);
+        expenseRepository.save(Expense.builder().username("otherUser").description("Other").amount(Money.parse("1.0"))
+                .expenseCategory("Food").date(LocalDate.of(2024, 1, 1)).build());
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void testExportCsv() throws IOException {
+        Filter filter = new Filter();
+        filter.setUsername("testUser");
+        filter.setExpenseCategory("Food");
+
+        String csv = export(filter, ExpenseFormat.CSV);
+
+        String[] lines = csv.split("\n");
+        assertEquals("id,date,amount,category,description", lines[0]);
+        assertEquals(EXPENSE_COUNT / 2 + 1, lines.length);
+        assertTrue(lines[1].endsWith(",2024-01-01,1.00,Food,\"Bread, \"\"fresh\"\"\""));
+    }
+
+    @Test
+    void testExportNdjsonSorted() throws IOException {
+        Filter filter = new Filter();
+        filter.setUsername("testUser");
+        filter.setSortField("amount");
+        filter.setSortOrder("desc");
+
+        String[] lines = export(filter, ExpenseFormat.NDJSON).split("\n");
+
+        assertEquals(EXPENSE_COUNT, lines.length);
+        assertTrue(lines[0].contains("\"amount\":250.0"));
+        assertTrue(lines[EXPENSE_COUNT - 1].contains("\"amount\":1.0"));
+    }
+
+    @Test
+    void testExportKeepsPersistenceContextSmall() throws IOException {
+        Session session = entityManager.unwrap(Session.class);
+        Filter filter = new Filter();
+        filter.setUsername("testUser");
+        int[] maxManaged = new int[1];
+        int[] lines = new int[1];
+
+        exportService.exportExpenses(filter, ExpenseFormat.NDJSON, new OutputStream() {
+            @Override
+            public void write(int b) {
+                if (b == '\n')
+                    lines[0]++;
+                maxManaged[0] = Math.max(maxManaged[0], session.getStatistics().getEntityCount());
+            }
+        });
+
+        assertEquals(EXPENSE_COUNT, lines[0]);
+        assertTrue(maxManaged[0] <= 1, "Managed entities during export: " + maxManaged[0]);
+        assertEquals(0, session.getStatistics().getEntityCount());
+    }
+
+    private String export(Filter filter, ExpenseFormat format) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        exportService.exportExpenses(filter, format, output);
+        return output.toString(StandardCharsets.UTF_8);
+    }
+}
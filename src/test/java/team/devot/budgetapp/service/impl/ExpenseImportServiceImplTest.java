@@ -0,0 +1,121 @@
+package team.devot.budgetapp.service.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import team.devot.budgetapp.cache.DataVersions;
+import team.devot.budgetapp.model.BalanceEntry;
+import team.devot.budgetapp.model.ExpenseFormat;
+import team.devot.budgetapp.model.ImportReport;
+import team.devot.budgetapp.model.Money;
+import team.devot.budgetapp.model.User;
+import team.devot.budgetapp.repository.BalanceEntryRepository;
+import team.devot.budgetapp.repository.ExpenseRepository;
+import team.devot.budgetapp.repository.ExpenseRollupRepository;
+import team.devot.budgetapp.repository.UserRepository;
+import team.devot.budgetapp.search.ExpenseSearchIndex;
+import team.devot.budgetapp.service.BalanceLedgerService;
+import team.devot.budgetapp.service.ExpenseImportService;
+
+import javax.persistence.EntityNotFoundException;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import({ExpenseImportServiceImpl.class, BalanceLedgerServiceImpl.class, ExpenseRollupServiceImpl.class, ExpenseSearchIndex.class, DataVersions.class,
+        JacksonAutoConfiguration.class})
+@TestPropertySource(properties = "budgetapp.import.batch-size=3")
+class ExpenseImportServiceImplTest {
+
+    @Autowired
+    private ExpenseImportService importService;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private ExpenseRollupRepository rollupRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BalanceEntryRepository entryRepository;
+
+    @Autowired
+    private BalanceLedgerService ledgerService;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.save(User.builder().username("testUser").email("test@example.com").balance(Money.parse("100.0")).build());
+    }
+
+    @Test
+    void testImportNdjson() {
+        String body = """
+                {"description":"Groceries","amount":20.0,"expenseCategory":"Food","date":"2024-01-15"}
+                {"description":"Fuel","amount":30.0,"expenseCategory":"Car","date":"2024-02-01"}
+                not json
+
+                {"description":"Negative","amount":-5.0,"expenseCategory":"Food"}
+                {"description":"Rent","amount":60.0,"expenseCategory":"Utility"}
+                {"description":"Gym","amount":40.0,"expenseCategory":"Gym"}
+                {"description":"Later","amount":1.0,"expenseCategory":"Fun","date":"%s"}
+                """.formatted(LocalDate.now().plusDays(1));
+
+        ImportReport report = importService.importExpenses("testUser", stream(body), ExpenseFormat.NDJSON);
+
+        assertEquals(3, report.getImported());
+        assertEquals(4, report.getRejected());
+        assertEquals(3, report.getRejections().get(0).getLine());
+        assertEquals(5, report.getRejections().get(1).getLine());
+        assertEquals(6, report.getRejections().get(2).getLine());
+        assertTrue(report.getRejections().get(2).getReason().startsWith("Insufficient balance"));
+        assertEquals(3, expenseRepository.count());
+        assertEquals(Money.parse("10.00"), ledgerService.getBalance("testUser"));
+        assertEquals(List.of(Money.parse("-50.00"), Money.parse("-40.00")), entryRepository.findAll().stream()
+                .filter(entry -> entry.getType() == BalanceEntry.Type.IMPORT).map(BalanceEntry::getAmount).toList());
+        assertEquals(LocalDate.of(2024, 1, 15), expenseRepository.findAll().stream()
+                .filter(expense -> "Groceries".equals(expense.getDescription())).findFirst().orElseThrow().getDate());
+        assertEquals(3, rollupRepository.count());
+    }
+
+    @Test
+    void testImportCsv() {
+        String body = """
+                date,amount,category,description
+                2024-03-01,12.5,Food,"Bread, milk and ""eggs\"\"\"
+                2024-03-02,abc,Food,Broken
+                2024-03-03,7.5,Food,Coffee
+                """;
+
+        ImportReport report = importService.importExpenses("testUser", stream(body), ExpenseFormat.CSV);
+
+        assertEquals(2, report.getImported());
+        assertEquals(1, report.getRejected());
+        assertEquals("Invalid amount: abc", report.getRejections().get(0).getReason());
+        assertTrue(expenseRepository.findAll().stream()
+                .anyMatch(expense -> "Bread, milk and \"eggs\"".equals(expense.getDescription())));
+        assertEquals(Money.parse("80.00"), ledgerService.getBalance("testUser"));
+        assertEquals(1, rollupRepository.count());
+    }
+
+    @Test
+    void testImportUnknownUser() {
+        assertThrows(EntityNotFoundException.class,
+                () -> importService.importExpenses("unknownUser", stream(""), ExpenseFormat.NDJSON));
+    }
+
+    private InputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
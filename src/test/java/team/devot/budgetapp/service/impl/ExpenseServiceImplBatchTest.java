@@ -0,0 +1,111 @@
+package team.devot.budgetapp.service.impl;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import team.devot.budgetapp.exception.CustomException;
+import team.devot.budgetapp.model.BatchOperation;
+import team.devot.budgetapp.model.BatchResult;
+import team.devot.budgetapp.model.Expense;
+import team.devot.budgetapp.model.ExpenseRollup;
+import team.devot.budgetapp.model.Money;
+import team.devot.budgetapp.model.User;
+import team.devot.budgetapp.model.dto.ExpenseDTO;
+import team.devot.budgetapp.repository.ExpenseRepository;
+import team.devot.budgetapp.repository.ExpenseRollupRepository;
+import team.devot.budgetapp.repository.UserRepository;
+import team.devot.budgetapp.service.BalanceLedgerService;
+import team.devot.budgetapp.service.ExpenseService;
+
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.EntityNotFoundException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:expense-batch")
+class ExpenseServiceImplBatchTest {
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private ExpenseRollupRepository rollupRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BalanceLedgerService ledgerService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void testApplyBatchOfHundredOperations() {
+        userRepository.save(User.builder().username("batchUser").email("batch@example.com").balance(Money.parse("1000.0")).build());
+        List<Expense> existing = new ArrayList<>();
+        for (int i = 0; i < 40; i++)
+            existing.add(new Expense(null, "Existing " + i, Money.parse("10.0"), "Food", "batchUser", LocalDate.now()));
+        expenseService.applyBatch("batchUser", existing.stream()
+                .map(expense -> new BatchOperation(BatchOperation.Type.CREATE, new ExpenseDTO(null,
+                        expense.getDescription(), expense.getAmount(), expense.getExpenseCategory(), null, null)))
+                .toList());
+        List<Long> ids = expenseRepository.findAll().stream()
+                .filter(expense -> "batchUser".equals(expense.getUsername())).map(Expense::getId).toList();
+
+        List<BatchOperation> operations = new ArrayList<>();
+        for (int i = 0; i < 60; i++)
+            operations.add(new BatchOperation(BatchOperation.Type.CREATE,
+                    new ExpenseDTO(null, "Created " + i, Money.parse("5.0"), "Rent", null, null)));
+        for (int i = 0; i < 20; i++)
+            operations.add(new BatchOperation(BatchOperation.Type.UPDATE,
+                    new ExpenseDTO(ids.get(i), "Updated " + i, Money.parse("15.0"), "Food", null, null)));
+        for (int i = 20; i < 40; i++)
+            operations.add(new BatchOperation(BatchOperation.Type.DELETE,
+                    new ExpenseDTO(ids.get(i), null, null, null, null, null)));
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        List<BatchResult> results = expenseService.applyBatch("batchUser", operations);
+
+        assertEquals(100, results.size());
+        assertTrue(results.stream().allMatch(result -> result.getExpense().getId() != null));
+        assertTrue(statistics.getPrepareStatementCount() < 20, () -> statistics.getPrepareStatementCount()
+                + " statements for 100 operations");
+        assertEquals(Money.parse("400.00"), ledgerService.getBalance("batchUser"));
+        assertEquals(80, expenseRepository.findAll().stream()
+                .filter(expense -> "batchUser".equals(expense.getUsername())).count());
+        assertEquals(60000L, rollupRepository.findAll().stream()
+                .filter(rollup -> "batchUser".equals(rollup.getUsername())).mapToLong(ExpenseRollup::getTotal).sum());
+    }
+
+    @Test
+    void testFailedBatchChangesNothing() {
+        userRepository.save(User.builder().username("atomicUser").email("atomic@example.com").balance(Money.parse("100.0")).build());
+        expenseService.applyBatch("atomicUser", List.of(new BatchOperation(BatchOperation.Type.CREATE,
+                new ExpenseDTO(null, "Kept", Money.parse("40.0"), "Food", null, null))));
+        Long id = expenseRepository.findAll().stream()
+                .filter(expense -> "atomicUser".equals(expense.getUsername())).findFirst().orElseThrow().getId();
+
+        assertThrows(EntityNotFoundException.class, () -> expenseService.applyBatch("atomicUser", List.of(
+                new BatchOperation(BatchOperation.Type.CREATE, new ExpenseDTO(null, "New", Money.parse("10.0"), "Food", null, null)),
+                new BatchOperation(BatchOperation.Type.DELETE, new ExpenseDTO(id, null, null, null, null, null)),
+                new BatchOperation(BatchOperation.Type.UPDATE, new ExpenseDTO(id, "Gone", Money.parse("5.0"), "Food", null, null)))));
+        assertThrows(CustomException.class, () -> expenseService.applyBatch("atomicUser", List.of(
+                new BatchOperation(BatchOperation.Type.DELETE, new ExpenseDTO(id, null, null, null, null, null)),
+                new BatchOperation(BatchOperation.Type.CREATE, new ExpenseDTO(null, "Big", Money.parse("150.0"), "Food", null, null)))));
+
+        assertEquals(Money.parse("60.00"), ledgerService.getBalance("atomicUser"));
+        assertEquals("Kept", expenseRepository.findById(id).orElseThrow().getDescription());
+        assertEquals(1, expenseRepository.findAll().stream()
+                .filter(expense -> "atomicUser".equals(expense.getUsername())).count());
+    }
+}
@@ -0,0 +1,94 @@
+package team.devot.budgetapp.service.impl;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import team.devot.budgetapp.exception.CustomException;
+import team.devot.budgetapp.model.Money;
+import team.devot.budgetapp.model.User;
+import team.devot.budgetapp.model.dto.ExpenseDTO;
+import team.devot.budgetapp.repository.ExpenseRepository;
+import team.devot.budgetapp.repository.ExpenseRollupRepository;
+import team.devot.budgetapp.repository.UserRepository;
+import team.devot.budgetapp.service.BalanceLedgerService;
+import team.devot.budgetapp.service.ExpenseService;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:expense-concurrency;LOCK_TIMEOUT=30000",
+        "spring.datasource.hikari.maximum-pool-size=64"
+})
+class ExpenseServiceImplConcurrencyTest {
+
+    private static final int WRITERS = 64;
+    private static final int EXPENSES_PER_WRITER = 20;
+    private static final int BALANCE = 1000;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BalanceLedgerService ledgerService;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private ExpenseRollupRepository rollupRepository;
+
+    @Test
+    void testConcurrentCreateExpenseKeepsBalance() throws Exception {
+        userRepository.save(User.builder().username("concurrentUser").email("concurrent@example.com")
+                .balance(Money.ofMinor(BALANCE * 100L)).build());
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int i = 0; i < WRITERS; i++) {
+                writers.add(executor.submit(() -> {
+                    start.await();
+                    for (int j = 0; j < EXPENSES_PER_WRITER; j++) {
+                        try {
+                            expenseService.createExpense(new ExpenseDTO(null, "Concurrent", Money.parse("1.0"), "Food",
+                                    "concurrentUser", LocalDate.now()));
+                            created.incrementAndGet();
+                        } catch (CustomException e) {
+                            rejected.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> writer : writers)
+                writer.get(2, TimeUnit.MINUTES);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(BALANCE, created.get());
+        assertEquals(WRITERS * EXPENSES_PER_WRITER - BALANCE, rejected.get());
+        assertEquals(Money.ZERO, ledgerService.getBalance("concurrentUser"));
+        assertEquals((long) BALANCE, expenseRepository.count());
+        assertEquals(1, rollupRepository.count());
+        assertEquals((long) BALANCE, rollupRepository.findAll().get(0).getCount());
+        assertEquals(BALANCE * 100L, rollupRepository.findAll().get(0).getTotal());
+    }
+}
@@ -0,0 +1,94 @@
+package team.devot.budgetapp.service.impl;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import team.devot.budgetapp.exception.CustomException;
+import team.devot.budgetapp.model.BatchOperation;
+import team.devot.budgetapp.model.ExpenseView;
+import team.devot.budgetapp.model.Filter;
+import team.devot.budgetapp.model.Money;
+import team.devot.budgetapp.model.User;
+import team.devot.budgetapp.model.dto.ExpenseDTO;
+import team.devot.budgetapp.repository.ExpenseRepository;
+import team.devot.budgetapp.repository.UserRepository;
+import team.devot.budgetapp.search.ExpenseSearchIndex;
+import team.devot.budgetapp.service.ExpenseService;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:expense-search")
+class ExpenseServiceImplSearchTest {
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ExpenseSearchIndex searchIndex;
+
+    @Test
+    void testSearchFollowsCommittedWrites() {
+        userRepository.save(User.builder().username("searchUser").email("search@example.com").balance(Money.parse("1000.0")).build());
+        expenseService.createExpense(expense(null, "Netflix", "10.0", "Fun"));
+        expenseService.createExpense(expense(null, "Netflix family plan", "20.0", "Fun"));
+        expenseService.createExpense(expense(null, "Groceries", "30.0", "Food"));
+
+        Page<ExpenseView> page = expenseService.getAllExpenses(filter("netf", null));
+        assertEquals(List.of("Netflix", "Netflix family plan"), descriptions(page));
+        assertEquals(2, page.getTotalElements());
+        assertEquals(List.of("Netflix family plan"),
+                descriptions(expenseService.getAllExpenses(filter("netflix", Money.parse("15.00")))));
+
+        Long groceries = idOf("Groceries");
+        expenseService.updateExpense(expense(groceries, "Netflix gift card", "30.0", "Food"));
+        expenseService.deleteExpense("searchUser", idOf("Netflix family plan"));
+
+        assertTrue(expenseService.getAllExpenses(filter("groceries", null)).isEmpty());
+        assertEquals(List.of("Netflix", "Netflix gift card"),
+                descriptions(expenseService.getAllExpenses(filter("netflix", null))));
+    }
+
+    @Test
+    void testRolledBackBatchIsNotIndexed() {
+        userRepository.save(User.builder().username("poorUser").email("poor@example.com").balance(Money.parse("5.0")).build());
+        int indexed = searchIndex.size();
+
+        assertThrows(CustomException.class, () -> expenseService.applyBatch("poorUser", List.of(
+                new BatchOperation(BatchOperation.Type.CREATE, new ExpenseDTO(null, "Spotify", Money.parse("50.0"), "Fun", null, null)))));
+
+        assertEquals(indexed, searchIndex.size());
+        assertEquals(indexed, searchIndex.rebuild());
+    }
+
+    private Filter filter(String description, Money minAmount) {
+        Filter filter = new Filter();
+        filter.setUsername("searchUser");
+        filter.setDescription(description);
+        filter.setMinAmount(minAmount);
+        filter.setSize(10);
+        return filter;
+    }
+
+    private List<String> descriptions(Page<ExpenseView> page) {
+        return page.map(ExpenseView::getDescription).getContent().stream().sorted().toList();
+    }
+
+    private Long idOf(String description) {
+        return expenseRepository.findAll().stream()
+                .filter(expense -> description.equals(expense.getDescription())).findFirst().orElseThrow().getId();
+    }
+
+    private ExpenseDTO expense(Long id, String description, String amount, String category) {
+        return new ExpenseDTO(id, description, Money.parse(amount), category, "searchUser", LocalDate.now());
+    }
+}
@@ -8,14 +8,27 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import team.devot.budgetapp.cache.DataVersions;
 import team.devot.budgetapp.exception.CustomException;
 import team.devot.budgetapp.mapper.impl.ExpenseMapper;
+import team.devot.budgetapp.model.BalanceEntry;
+import team.devot.budgetapp.model.BatchOperation;
+import team.devot.budgetapp.model.BatchResult;
+import team.devot.budgetapp.model.CursorSlice;
 import team.devot.budgetapp.model.Expense;
+import team.devot.budgetapp.model.ExpenseCursor;
+import team.devot.budgetapp.model.ExpenseView;
 import team.devot.budgetapp.model.Filter;
-import team.devot.budgetapp.model.User;
+import team.devot.budgetapp.model.Granularity;
+import team.devot.budgetapp.model.Money;
+import team.devot.budgetapp.model.SeriesBucket;
 import team.devot.budgetapp.model.dto.ExpenseDTO;
 import team.devot.budgetapp.repository.ExpenseRepository;
-import team.devot.budgetapp.repository.UserRepository;
+import team.devot.budgetapp.repository.ExpenseRepositoryCustom;
+import team.devot.budgetapp.search.ExpenseSearchIndex;
+import team.devot.budgetapp.service.BalanceLedgerService;
+import team.devot.budgetapp.service.ExpenseRollupService;
 
 import javax.persistence.EntityNotFoundException;
 import java.time.LocalDate;
@@ -31,11 +44,20 @@ class ExpenseServiceImplTest {
     private ExpenseRepository expenseRepository;
 
     @Mock
-    private UserRepository userRepository;
+    private BalanceLedgerService ledgerService;
 
     @Mock
     private ExpenseMapper expenseMapper;
 
+    @Mock
+    private ExpenseRollupService rollupService;
+
+    @Mock
+    private ExpenseSearchIndex searchIndex;
+
+    @Mock
+    private DataVersions dataVersions;
+
     @InjectMocks
     private ExpenseServiceImpl expenseService;
 
@@ -43,34 +65,34 @@ class ExpenseServiceImplTest {
     void testGetExpense() {
         String username = "testUser";
         Long expenseId = 1L;
-        Expense expense = new Expense();
-        expense.setId(expenseId);
-        when(expenseRepository.findByUsernameAndId(username, expenseId)).thenReturn(Optional.of(expense));
-        when(expenseMapper.mapTo(expense)).thenReturn(new ExpenseDTO(expenseId, "Test Expense", 100.0, "Category", "username",LocalDate.now()));
+        ExpenseView view = new ExpenseView(expenseId, "Test Expense", Money.parse("100.0"), "Category", LocalDate.now());
+        when(expenseRepository.findViewByUsernameAndId(username, expenseId)).thenReturn(Optional.of(view));
+        when(expenseMapper.mapViewTo(view)).thenReturn(new ExpenseDTO(expenseId, "Test Expense", Money.parse("100.0"), "Category", null, view.getDate()));
 
         ExpenseDTO result = expenseService.getExpense(username, expenseId);
 
         assertNotNull(result);
         assertEquals(expenseId, result.getId());
-        verify(expenseRepository, times(1)).findByUsernameAndId(username, expenseId);
+        verify(expenseRepository, times(1)).findViewByUsernameAndId(username, expenseId);
+        verify(expenseRepository, times(0)).findByUsernameAndId(any(), any());
     }
 
     @Test
     void testGetExpenseNotFound() {
         String username = "testUser";
         Long expenseId = 1L;
-        when(expenseRepository.findByUsernameAndId(username, expenseId)).thenReturn(Optional.empty());
+        when(expenseRepository.findViewByUsernameAndId(username, expenseId)).thenReturn(Optional.empty());
 
         assertThrows(EntityNotFoundException.class, () -> expenseService.getExpense(username, expenseId));
-        verify(expenseRepository, times(1)).findByUsernameAndId(username, expenseId);
+        verify(expenseRepository, times(1)).findViewByUsernameAndId(username, expenseId);
     }
 
     @Test
     void testGetAllExpenses() {
-        Filter filter = new Filter(null,null,null,null,null,null,null,null, 0, 10, "asc", "id");
-        List<Expense> expenses = Arrays.asList(
-                new Expense(1L, "Expense 1", 50.0, "Category 1", "username",LocalDate.now()),
-                new Expense(2L, "Expense 2", 75.0, "Category 2", "username",LocalDate.now())
+        Filter filter = new Filter(null,null,null,null,null,null,null,null, 0, 10, "asc", "id", null);
+        List<ExpenseView> expenses = Arrays.asList(
+                new ExpenseView(1L, "Expense 1", Money.parse("50.0"), "Category 1", LocalDate.now()),
+                new ExpenseView(2L, "Expense 2", Money.parse("75.0"), "Category 2", LocalDate.now())
         );
         when(expenseRepository.filterExpenses(any(),any(),any(),any(),any(),any(),any()))
                 .thenReturn(new PageImpl<>(expenses));
@@ -78,36 +100,118 @@ class ExpenseServiceImplTest {
         assertNotNull(expenseService.getAllExpenses(filter));
     }
 
+    @Test
+    void testGetAllExpensesSearchesDescription() {
+        Filter filter = new Filter(null, "netflix", null, null, null, "username", null, null, 0, 10, "asc", "id", null);
+        when(searchIndex.search(filter, 0, 10)).thenReturn(new ExpenseSearchIndex.Hits(List.of(3L, 1L), 2));
+        when(expenseRepository.findViewsByUsernameAndIdIn("username", List.of(3L, 1L))).thenReturn(List.of(
+                new ExpenseView(1L, "Netflix family", Money.parse("20.0"), "Fun", LocalDate.now()),
+                new ExpenseView(3L, "Netflix", Money.parse("10.0"), "Fun", LocalDate.now())));
+
+        Page<ExpenseView> result = expenseService.getAllExpenses(filter);
+
+        assertEquals(List.of(3L, 1L), result.map(ExpenseView::getId).getContent());
+        assertEquals(2, result.getTotalElements());
+        verify(expenseRepository, times(0)).filterExpenses(any(),any(),any(),any(),any(),any(),any());
+    }
+
+    @Test
+    void testGetExpensesByCursor() {
+        Filter filter = new Filter(null,null,null,null,null,null,null,null, 0, 2, "asc", "id", null);
+        List<Expense> expenses = new ArrayList<>(Arrays.asList(
+                new Expense(1L, "Expense 1", Money.parse("50.0"), "Category 1", "username",LocalDate.now()),
+                new Expense(2L, "Expense 2", Money.parse("75.0"), "Category 2", "username",LocalDate.now()),
+                new Expense(3L, "Expense 3", Money.parse("25.0"), "Category 2", "username",LocalDate.now())
+        ));
+        when(expenseRepository.findAfterCursor(eq(filter), any(), eq(3))).thenReturn(expenses);
+
+        CursorSlice<Expense> result = expenseService.getExpensesByCursor(filter);
+
+        assertEquals(2, result.getContent().size());
+        assertTrue(result.isHasNext());
+        assertEquals(2L, ExpenseCursor.decode(result.getNextCursor()).getId());
+        verify(expenseRepository, times(0)).filterExpenses(any(),any(),any(),any(),any(),any(),any());
+    }
+
+    @Test
+    void testGetExpensesByCursorRejectsCursorOfOtherSort() {
+        String cursor = ExpenseCursor.first("date", Sort.Direction.DESC)
+                .after(new Expense(1L, "Expense 1", Money.parse("50.0"), "Category 1", "username",LocalDate.now())).encode();
+        Filter filter = new Filter(null,null,null,null,null,null,null,null, 0, 2, "asc", "id", cursor);
+
+        assertThrows(CustomException.class, () -> expenseService.getExpensesByCursor(filter));
+        verify(expenseRepository, times(0)).findAfterCursor(any(), any(), anyInt());
+    }
+
     @Test
     void testCreateExpense() {
-        ExpenseDTO expenseDTO = new ExpenseDTO(null, "New Expense", 100.0, "Category", "username",LocalDate.now());
-        User user = new User();
-        user.setBalance(150.0);
-        when(userRepository.findByUsername(any())).thenReturn(Optional.of(user));
+        ExpenseDTO expenseDTO = new ExpenseDTO(null, "New Expense", Money.parse("100.0"), "Category", "username",LocalDate.now());
+        when(expenseMapper.mapFrom(expenseDTO)).thenReturn(new Expense(5L, "New Expense", Money.parse("100.0"), "Category", "username", LocalDate.now()));
+        when(ledgerService.tryDebit(ledgerEntry("username", BalanceEntry.Type.DEBIT, 5L, "-100.0"))).thenReturn(true);
         assertDoesNotThrow(() -> expenseService.createExpense(expenseDTO));
 
+        verify(ledgerService, times(0)).lockBalance(any());
         verify(expenseRepository, times(1)).save(any());
+        verify(rollupService, times(1)).record(any());
+        verify(searchIndex, times(1)).reindex(List.of(5L));
+        verify(dataVersions, times(1)).userChanged("username");
+    }
+
+    @Test
+    void testCreateExpenseInsufficientBalance() {
+        ExpenseDTO expenseDTO = new ExpenseDTO(null, "New Expense", Money.parse("100.0"), "Category", "username",LocalDate.now());
+        when(expenseMapper.mapFrom(expenseDTO)).thenReturn(new Expense(5L, "New Expense", Money.parse("100.0"), "Category", "username", LocalDate.now()));
+        when(ledgerService.tryDebit(any())).thenReturn(false);
+        when(ledgerService.lockBalance("username")).thenReturn(Money.parse("50.0"));
+
+        CustomException exception = assertThrows(CustomException.class, () -> expenseService.createExpense(expenseDTO));
+        assertEquals("Insufficient balance! Current balance: 50.00", exception.getMessage());
+        verify(ledgerService, times(1)).tryDebit(ledgerEntry("username", BalanceEntry.Type.DEBIT, 5L, "-100.0"));
+        verify(rollupService, times(0)).record(any());
+        verify(searchIndex, times(0)).reindex(any());
+    }
+
+    @Test
+    void testCreateExpenseWithoutPositiveAmount() {
+        for (Money amount : Arrays.asList(null, Money.ZERO, Money.parse("-5.0"))) {
+            ExpenseDTO expenseDTO = new ExpenseDTO(null, "New Expense", amount, "Category", "username", LocalDate.now());
+
+            CustomException exception = assertThrows(CustomException.class, () -> expenseService.createExpense(expenseDTO));
+            assertEquals("Amount must be positive!", exception.getMessage());
+        }
+        verifyNoInteractions(expenseRepository, ledgerService, rollupService, searchIndex);
+    }
+
+    @Test
+    void testCreateExpenseUserNotFound() {
+        ExpenseDTO expenseDTO = new ExpenseDTO(null, "New Expense", Money.parse("100.0"), "Category", "username",LocalDate.now());
+        when(expenseMapper.mapFrom(expenseDTO)).thenReturn(new Expense(5L, "New Expense", Money.parse("100.0"), "Category", "username", LocalDate.now()));
+        when(ledgerService.tryDebit(any())).thenReturn(false);
+        when(ledgerService.lockBalance("username")).thenThrow(new EntityNotFoundException("User with username username was not found!"));
+
+        assertThrows(EntityNotFoundException.class, () -> expenseService.createExpense(expenseDTO));
+        verify(rollupService, times(0)).record(any());
     }
 
     @Test
     void testUpdateExpense() {
-        ExpenseDTO expenseDTO = new ExpenseDTO(1L, "Updated Expense", 150.0, "Updated Category", "username",LocalDate.now());
-        when(expenseRepository.findByUsernameAndId(expenseDTO.getUsername(), expenseDTO.getId())).thenReturn(Optional.of(new Expense()));
+        ExpenseDTO expenseDTO = new ExpenseDTO(1L, "Updated Expense", Money.parse("150.0"), "Updated Category", "username",LocalDate.now());
+        Expense existing = new Expense(1L, "Expense", Money.parse("100.0"), "Category", "username", LocalDate.now());
+        when(expenseRepository.findByUsernameAndId(expenseDTO.getUsername(), expenseDTO.getId())).thenReturn(Optional.of(existing));
         when(expenseRepository.save(any())).thenReturn(new Expense());
         when(expenseMapper.mapTo(any(Expense.class))).thenReturn(expenseDTO);
-        User user = new User();
-        user.setBalance(150.0);
-        when(userRepository.findByUsername(any())).thenReturn(Optional.of(user));
+        when(ledgerService.lockBalance("username")).thenReturn(Money.parse("50.0"));
         ExpenseDTO result = expenseService.updateExpense(expenseDTO);
 
         assertNotNull(result);
+        verify(ledgerService, times(1)).append(List.of(ledgerEntry("username", BalanceEntry.Type.ADJUSTMENT, 1L, "-50.0")));
         verify(expenseRepository, times(1)).findByUsernameAndId(expenseDTO.getUsername(), expenseDTO.getId());
         verify(expenseRepository, times(1)).save(any());
     }
 
     @Test
     void testUpdateExpenseNotFound() {
-        ExpenseDTO expenseDTO = new ExpenseDTO(1L, "Updated Expense", 150.0, "Updated Category", "username",LocalDate.now());
+        ExpenseDTO expenseDTO = new ExpenseDTO(1L, "Updated Expense", Money.parse("150.0"), "Updated Category", "username",LocalDate.now());
         when(expenseRepository.findByUsernameAndId(expenseDTO.getUsername(), expenseDTO.getId())).thenReturn(Optional.empty());
 
         assertThrows(EntityNotFoundException.class, () -> expenseService.updateExpense(expenseDTO));
@@ -115,20 +219,28 @@ class ExpenseServiceImplTest {
         verify(expenseRepository, times(0)).save(any());
     }
 
+    @Test
+    void testUpdateExpenseWithoutAmount() {
+        ExpenseDTO expenseDTO = new ExpenseDTO(1L, "Updated Expense", null, "Updated Category", "username", LocalDate.now());
+
+        assertThrows(CustomException.class, () -> expenseService.updateExpense(expenseDTO));
+        verifyNoInteractions(expenseRepository, ledgerService, rollupService, searchIndex);
+    }
+
     @Test
     void testDeleteExpense() {
         String username = "testUser";
         Long expenseId = 1L;
-        Expense expense = new Expense(1L, "Test", 100.0, "Test", "testUser", LocalDate.now());
+        Expense expense = new Expense(1L, "Test", Money.parse("100.0"), "Test", "testUser", LocalDate.now());
         when(expenseRepository.findByUsernameAndId(username, expenseId)).thenReturn(Optional.of(expense));
-        when(expenseService.getExpense(username, expenseId)).thenReturn(new ExpenseDTO(1L,"Test", 100.0, "Test", "testUser", LocalDate.now()));
-        User user = new User();
-        user.setBalance(150.0);
-        when(userRepository.findByUsername(username)).thenReturn(Optional.of(user));
         assertDoesNotThrow(() -> expenseService.deleteExpense(username, expenseId));
 
-        verify(expenseRepository, times(2)).findByUsernameAndId(username, expenseId);
+        verify(ledgerService, times(1)).lockBalance(username);
+        verify(expenseRepository, times(1)).findByUsernameAndId(username, expenseId);
         verify(expenseRepository, times(1)).deleteById(expenseId);
+        verify(ledgerService, times(1)).append(List.of(ledgerEntry(username, BalanceEntry.Type.CREDIT, 1L, "100.0")));
+        verify(rollupService, times(1)).remove(expense);
+        verify(dataVersions, times(1)).userChanged(username);
     }
 
     @Test
@@ -142,21 +254,113 @@ class ExpenseServiceImplTest {
         verify(expenseRepository, times(0)).deleteById(expenseId);
     }
 
+    @Test
+    void testApplyBatch() {
+        String username = "testUser";
+        Expense updated = new Expense(1L, "Old", Money.parse("100.0"), "Food", username, LocalDate.now());
+        Expense deleted = new Expense(2L, "Deleted", Money.parse("30.0"), "Food", username, LocalDate.now());
+        ExpenseDTO create = new ExpenseDTO(null, "New", Money.parse("50.0"), "Food", null, null);
+        ExpenseDTO update = new ExpenseDTO(1L, "Updated", Money.parse("120.0"), "Food", null, null);
+        when(expenseRepository.findAllByUsernameAndIdIn(eq(username), eq(Set.of(1L, 2L))))
+                .thenReturn(List.of(updated, deleted));
+        when(expenseMapper.mapFrom(any())).thenAnswer(invocation -> new ExpenseMapper().mapFrom(invocation.getArgument(0)));
+        when(expenseMapper.mapTo(any())).thenAnswer(invocation -> new ExpenseMapper().mapTo(invocation.getArgument(0)));
+        when(ledgerService.lockBalance(username)).thenReturn(Money.parse("40.0"));
+        doAnswer(invocation -> {
+            ((List<Expense>) invocation.getArgument(0)).get(0).setId(7L);
+            return null;
+        }).when(expenseRepository).saveAll(any());
+
+        List<BatchResult> results = expenseService.applyBatch(username, List.of(
+                new BatchOperation(BatchOperation.Type.CREATE, create),
+                new BatchOperation(BatchOperation.Type.UPDATE, update),
+                new BatchOperation(BatchOperation.Type.DELETE, new ExpenseDTO(2L, null, null, null, null, null))));
+
+        assertEquals(3, results.size());
+        assertEquals("New", results.get(0).getExpense().getDescription());
+        assertEquals(Money.parse("120.00"), results.get(1).getExpense().getAmount());
+        assertEquals(2L, results.get(2).getExpense().getId());
+        verify(ledgerService, times(1)).append(List.of(
+                ledgerEntry(username, BalanceEntry.Type.DEBIT, 7L, "-50.0"),
+                ledgerEntry(username, BalanceEntry.Type.ADJUSTMENT, 1L, "-20.0"),
+                ledgerEntry(username, BalanceEntry.Type.CREDIT, 2L, "30.0")));
+        verify(expenseRepository, times(1)).findAllByUsernameAndIdIn(any(), any());
+        verify(expenseRepository, times(1)).deleteAll(List.of(deleted));
+        verify(expenseRepository, times(1)).saveAll(argThat(saved -> saved instanceof List<Expense> list
+                && list.size() == 2 && list.stream().allMatch(expense -> username.equals(expense.getUsername()))));
+        verify(rollupService, times(1)).removeAll(argThat(removed -> removed.size() == 2));
+        verify(rollupService, times(1)).recordAll(any());
+    }
+
+    @Test
+    void testApplyBatchCreditsNetRefund() {
+        String username = "testUser";
+        Expense expense = new Expense(1L, "Old", Money.parse("100.0"), "Food", username, LocalDate.now());
+        when(expenseRepository.findAllByUsernameAndIdIn(eq(username), any())).thenReturn(List.of(expense));
+        when(ledgerService.lockBalance(username)).thenReturn(Money.ZERO);
+
+        expenseService.applyBatch(username, List.of(
+                new BatchOperation(BatchOperation.Type.DELETE, new ExpenseDTO(1L, null, null, null, null, null))));
+
+        verify(ledgerService, times(1)).append(List.of(ledgerEntry(username, BalanceEntry.Type.CREDIT, 1L, "100.0")));
+    }
+
+    @Test
+    void testApplyBatchInsufficientBalance() {
+        String username = "testUser";
+        when(expenseMapper.mapFrom(any())).thenAnswer(invocation -> new ExpenseMapper().mapFrom(invocation.getArgument(0)));
+        when(ledgerService.lockBalance(username)).thenReturn(Money.parse("100.0"));
+
+        assertThrows(CustomException.class, () -> expenseService.applyBatch(username, List.of(
+                new BatchOperation(BatchOperation.Type.CREATE, new ExpenseDTO(null, "A", Money.parse("100.0"), null, null, null)),
+                new BatchOperation(BatchOperation.Type.CREATE, new ExpenseDTO(null, "B", Money.parse("50.0"), null, null, null)))));
+        verify(expenseRepository, times(0)).saveAll(any());
+    }
+
+    @Test
+    void testApplyBatchUnknownExpense() {
+        String username = "testUser";
+        when(expenseRepository.findAllByUsernameAndIdIn(eq(username), any())).thenReturn(List.of());
+
+        assertThrows(EntityNotFoundException.class, () -> expenseService.applyBatch(username, List.of(
+                new BatchOperation(BatchOperation.Type.UPDATE, new ExpenseDTO(1L, "A", Money.parse("10.0"), null, null, null)))));
+        verify(ledgerService, times(0)).append(any());
+        verify(expenseRepository, times(0)).saveAll(any());
+    }
+
+    @Test
+    void testApplyBatchInvalidOperations() {
+        assertThrows(CustomException.class, () -> expenseService.applyBatch("testUser", List.of()));
+        assertThrows(CustomException.class, () -> expenseService.applyBatch("testUser",
+                List.of(new BatchOperation(BatchOperation.Type.DELETE, new ExpenseDTO()))));
+        assertThrows(CustomException.class, () -> expenseService.applyBatch("testUser",
+                List.of(new BatchOperation(null, new ExpenseDTO()))));
+        assertThrows(CustomException.class, () -> expenseService.applyBatch("testUser",
+                Collections.nCopies(ExpenseServiceImpl.MAX_BATCH_OPERATIONS + 1,
+                        new BatchOperation(BatchOperation.Type.CREATE, new ExpenseDTO()))));
+        assertThrows(CustomException.class, () -> expenseService.applyBatch("testUser",
+                List.of(new BatchOperation(BatchOperation.Type.CREATE, new ExpenseDTO(null, "A", null, null, null, null)))));
+        assertThrows(CustomException.class, () -> expenseService.applyBatch("testUser",
+                List.of(new BatchOperation(BatchOperation.Type.UPDATE, new ExpenseDTO(1L, "A", Money.ZERO, null, null, null)))));
+        verifyNoInteractions(expenseRepository, ledgerService, rollupService);
+    }
+
     @Test
     void testAggregateDataByPeriod() {
         String username = "testUser";
         String period = "lastMonth";
         LocalDate startDate = LocalDate.now().minusMonths(1).withDayOfMonth(1);
         LocalDate endDate = LocalDate.now();
-        when(expenseRepository.aggregateExpensesByCategory(username, startDate, endDate)).thenReturn(Collections.singletonList(new Object[]{"Category", 100.0}));
+        when(rollupService.aggregate(username, startDate, endDate)).thenReturn(Collections.singletonMap("Category", Money.parse("100.0")));
 
-        Map<String, Double> result = expenseService.aggregateDataByPeriod(username, period);
+        Map<String, Money> result = expenseService.aggregateDataByPeriod(username, period);
 
         assertNotNull(result);
         assertEquals(1, result.size());
         assertTrue(result.containsKey("Category"));
-        assertEquals(100.0, result.get("Category"));
-        verify(expenseRepository, times(1)).aggregateExpensesByCategory(username, startDate, endDate);
+        assertEquals(Money.parse("100.0"), result.get("Category"));
+        verify(rollupService, times(1)).aggregate(username, startDate, endDate);
+        verify(expenseRepository, times(0)).aggregateExpensesByCategory(any(), any(), any());
     }
 
     @Test
@@ -165,6 +369,77 @@ class ExpenseServiceImplTest {
         String period = "invalidPeriod";
 
         assertThrows(CustomException.class, () -> expenseService.aggregateDataByPeriod(username, period));
-        verify(expenseRepository, times(0)).aggregateExpensesByCategory(any(), any(), any());
+        verify(rollupService, times(0)).aggregate(any(), any(), any());
+    }
+
+    @Test
+    void testGetSpendingSeries() {
+        LocalDate start = LocalDate.of(2024, 1, 10);
+        LocalDate end = LocalDate.of(2024, 3, 5);
+        doAnswer(invocation -> {
+            ExpenseRepositoryCustom.DailyTotalConsumer action = invocation.getArgument(3);
+            action.accept(LocalDate.of(2024, 1, 10), "Food", 1000);
+            action.accept(LocalDate.of(2024, 1, 31), "Food", 250);
+            action.accept(LocalDate.of(2024, 3, 5), "Car", 4000);
+            return null;
+        }).when(expenseRepository).forEachDailyTotal(eq("testUser"), eq(start), eq(end), any());
+
+        List<SeriesBucket> series = expenseService.getSpendingSeries("testUser", start, end, Granularity.MONTH);
+
+        assertEquals(List.of(
+                new SeriesBucket(start, LocalDate.of(2024, 1, 31), Map.of("Car", Money.ZERO, "Food", Money.parse("12.50"))),
+                new SeriesBucket(LocalDate.of(2024, 2, 1), LocalDate.of(2024, 2, 29), Map.of("Car", Money.ZERO, "Food", Money.ZERO)),
+                new SeriesBucket(LocalDate.of(2024, 3, 1), end, Map.of("Car", Money.parse("40.00"), "Food", Money.ZERO))),
+                series);
+        assertEquals(List.of("Car", "Food"), new ArrayList<>(series.get(0).getTotals().keySet()));
+    }
+
+    @Test
+    void testGetSpendingSeriesWithoutCategory() {
+        LocalDate start = LocalDate.of(2024, 1, 1);
+        LocalDate end = LocalDate.of(2024, 1, 2);
+        doAnswer(invocation -> {
+            ExpenseRepositoryCustom.DailyTotalConsumer action = invocation.getArgument(3);
+            action.accept(LocalDate.of(2024, 1, 1), null, 700);
+            action.accept(LocalDate.of(2024, 1, 2), "Food", 300);
+            return null;
+        }).when(expenseRepository).forEachDailyTotal(eq("testUser"), eq(start), eq(end), any());
+
+        List<SeriesBucket> series = expenseService.getSpendingSeries("testUser", start, end, Granularity.DAY);
+
+        assertEquals(List.of(
+                new SeriesBucket(start, start, Map.of("", Money.parse("7.00"), "Food", Money.ZERO)),
+                new SeriesBucket(end, end, Map.of("", Money.ZERO, "Food", Money.parse("3.00")))),
+                series);
+    }
+
+    @Test
+    void testGetSpendingSeriesByWeek() {
+        LocalDate start = LocalDate.of(2024, 1, 3);
+        LocalDate end = LocalDate.of(2024, 1, 17);
+
+        List<SeriesBucket> series = expenseService.getSpendingSeries("testUser", start, end, Granularity.WEEK);
+
+        assertEquals(List.of(
+                new SeriesBucket(start, LocalDate.of(2024, 1, 7), Map.of()),
+                new SeriesBucket(LocalDate.of(2024, 1, 8), LocalDate.of(2024, 1, 14), Map.of()),
+                new SeriesBucket(LocalDate.of(2024, 1, 15), end, Map.of())),
+                series);
+        verify(expenseRepository, times(1)).forEachDailyTotal(eq("testUser"), eq(start), eq(end), any());
+    }
+
+    @Test
+    void testGetSpendingSeriesInvalidRange() {
+        LocalDate start = LocalDate.of(2024, 1, 10);
+
+        assertThrows(CustomException.class, () -> expenseService.getSpendingSeries("testUser", start,
+                start.minusDays(1), Granularity.DAY));
+        assertThrows(CustomException.class, () -> expenseService.getSpendingSeries("testUser", start,
+                start.plusDays(ExpenseServiceImpl.MAX_SERIES_BUCKETS), Granularity.DAY));
+        verify(expenseRepository, times(0)).forEachDailyTotal(any(), any(), any(), any());
+    }
+
+    private BalanceEntry ledgerEntry(String username, BalanceEntry.Type type, Long expenseId, String amount) {
+        return BalanceEntry.builder().username(username).type(type).expenseId(expenseId).amount(Money.parse(amount)).build();
     }
 }
@@ -0,0 +1,167 @@
+package team.devot.budgetapp.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import team.devot.budgetapp.exception.CustomException;
+import team.devot.budgetapp.journal.ExpenseJournal;
+import team.devot.budgetapp.model.BalanceEntry;
+import team.devot.budgetapp.model.Expense;
+import team.devot.budgetapp.model.Money;
+import team.devot.budgetapp.model.User;
+import team.devot.budgetapp.model.dto.ExpenseDTO;
+import team.devot.budgetapp.repository.BalanceEntryRepository;
+import team.devot.budgetapp.repository.ExpenseRepository;
+import team.devot.budgetapp.repository.JournalCheckpointRepository;
+import team.devot.budgetapp.repository.UserRepository;
+import team.devot.budgetapp.service.BalanceLedgerService;
+import team.devot.budgetapp.service.ExpenseWriteBehindService;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {"spring.datasource.url=jdbc:h2:mem:write-behind", "budgetapp.write-behind.enabled=true"})
+class ExpenseWriteBehindServiceImplTest {
+
+    @TempDir
+    static Path journalDirectory;
+
+    @Autowired
+    private ExpenseWriteBehindService writeBehindService;
+
+    @Autowired
+    private BalanceLedgerService ledgerService;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private BalanceEntryRepository entryRepository;
+
+    @Autowired
+    private JournalCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @DynamicPropertySource
+    static void journalFile(DynamicPropertyRegistry registry) {
+        registry.add("budgetapp.write-behind.journal-file", () -> journalFile().toString());
+    }
+
+    @Test
+    void testAcceptedExpensesAreWrittenInTheBackground() throws IOException {
+        userRepository.save(User.builder().username("asyncUser").email("async@example.com").balance(Money.parse("100.0")).build());
+
+        writeBehindService.acceptExpense(expense("asyncUser", "Coffee", "4.50"));
+        writeBehindService.acceptExpense(expense("asyncUser", "Lunch", "12.00"));
+        assertThrows(CustomException.class, () -> writeBehindService.acceptExpense(expense("asyncUser", "Refund", "-5.0")));
+        assertTrue(writeBehindService.awaitWritten(Duration.ofSeconds(10)));
+
+        List<Expense> expenses = expensesOf("asyncUser");
+        assertEquals(List.of("Coffee", "Lunch"), expenses.stream().map(Expense::getDescription).sorted().toList());
+        assertTrue(expenses.stream().allMatch(expense -> LocalDate.now().equals(expense.getDate())));
+        assertEquals(List.of(Money.parse("-12.00"), Money.parse("-4.50")), entryRepository.findAll().stream()
+                .filter(entry -> "asyncUser".equals(entry.getUsername()))
+                .filter(entry -> entry.getType() == BalanceEntry.Type.DEBIT).map(BalanceEntry::getAmount).sorted().toList());
+        assertEquals(Money.parse("83.50"), ledgerService.getBalance("asyncUser"));
+        assertTrue(checkpointRepository.findById("asyncUser").isPresent());
+        assertEquals(0, Files.size(journalFile()));
+    }
+
+    @Test
+    void testConcurrentAcceptsNeverOverdraw() throws Exception {
+        userRepository.save(User.builder().username("busyUser").email("busy@example.com").balance(Money.parse("100.0")).build());
+        AtomicInteger rejected = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> accepts = new ArrayList<>();
+            for (int i = 0; i < 25; i++) {
+                accepts.add(executor.submit(() -> {
+                    try {
+                        writeBehindService.acceptExpense(expense("busyUser", "Ticket", "10.0"));
+                    } catch (CustomException e) {
+                        rejected.incrementAndGet();
+                    }
+                }));
+            }
+            for (Future<?> accept : accepts)
+                accept.get();
+        } finally {
+            executor.shutdown();
+        }
+        assertTrue(writeBehindService.awaitWritten(Duration.ofSeconds(10)));
+
+        assertEquals(15, rejected.get());
+        assertEquals(10, expensesOf("busyUser").size());
+        assertEquals(Money.parse("0.00"), ledgerService.getBalance("busyUser"));
+    }
+
+    @Test
+    void testJournalIsReplayedOnStart() {
+        userRepository.save(User.builder().username("replayUser").email("replay@example.com").balance(Money.parse("100.0")).build());
+        userRepository.save(User.builder().username("restartUser").email("restart@example.com").balance(Money.parse("100.0")).build());
+        writeBehindService.acceptExpense(expense("replayUser", "Written", "10.0"));
+        assertTrue(writeBehindService.awaitWritten(Duration.ofSeconds(10)));
+        writeBehindService.stop();
+
+        ExpenseJournal journal = new ExpenseJournal(journalFile(), Duration.ZERO, objectMapper);
+        journal.open(0, entries -> { });
+        journal.append(expense("replayUser", "Already written", "10.0")).join();
+        journal.append(expense("restartUser", "Journaled", "25.0")).join();
+        journal.close();
+
+        writeBehindService.start();
+        assertTrue(writeBehindService.awaitWritten(Duration.ofSeconds(10)));
+
+        assertEquals(List.of("Written"), expensesOf("replayUser").stream().map(Expense::getDescription).toList());
+        assertEquals(List.of("Journaled"), expensesOf("restartUser").stream().map(Expense::getDescription).toList());
+        assertEquals(Money.parse("75.00"), ledgerService.getBalance("restartUser"));
+        writeBehindService.acceptExpense(expense("restartUser", "After restart", "75.0"));
+        assertThrows(CustomException.class, () -> writeBehindService.acceptExpense(expense("restartUser", "Too much", "0.01")));
+    }
+
+    @Test
+    void testJournalOfMissingUsersIsEmptiedOnStart() throws IOException {
+        writeBehindService.stop();
+        ExpenseJournal journal = new ExpenseJournal(journalFile(), Duration.ZERO, objectMapper);
+        journal.open(0, entries -> { });
+        journal.append(expense("deletedUser", "Orphaned", "10.0")).join();
+        journal.close();
+
+        writeBehindService.start();
+
+        assertEquals(0, Files.size(journalFile()));
+        assertTrue(expensesOf("deletedUser").isEmpty());
+    }
+
+    private static Path journalFile() {
+        return journalDirectory.resolve("expense-journal.log");
+    }
+
+    private List<Expense> expensesOf(String username) {
+        return expenseRepository.findAll().stream().filter(expense -> username.equals(expense.getUsername())).toList();
+    }
+
+    private ExpenseDTO expense(String username, String description, String amount) {
+        return new ExpenseDTO(null, description, Money.parse(amount), "Food", username, LocalDate.now());
+    }
+}
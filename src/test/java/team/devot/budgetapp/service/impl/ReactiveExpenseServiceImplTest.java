@@ -0,0 +1,155 @@
+package team.devot.budgetapp.service.impl;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import team.devot.budgetapp.exception.CustomException;
+import team.devot.budgetapp.model.Expense;
+import team.devot.budgetapp.model.ExpenseView;
+import team.devot.budgetapp.model.Filter;
+import team.devot.budgetapp.model.Money;
+import team.devot.budgetapp.repository.ExpenseRepository;
+import team.devot.budgetapp.search.ExpenseSearchIndex;
+import team.devot.budgetapp.service.ExpenseRollupService;
+import team.devot.budgetapp.service.ExpenseService;
+import team.devot.budgetapp.service.ReactiveExpenseService;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that the reactive read path returns exactly what the blocking one does for the same requests.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:reactive-parity")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ReactiveExpenseServiceImplTest {
+
+    private static final String[] CATEGORIES = {"Food", "Rent", null};
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private ReactiveExpenseService reactiveExpenseService;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private ExpenseRollupService rollupService;
+
+    @Autowired
+    private ExpenseSearchIndex searchIndex;
+
+    @BeforeAll
+    void seedExpenses() {
+        LocalDate today = LocalDate.now();
+        for (String username : List.of("parityUser", "otherUser")) {
+            for (int i = 0; i < 120; i++) {
+                expenseRepository.save(new Expense(null, "Expense " + i, Money.ofMinor(1000 + i * 125L),
+                        CATEGORIES[i % CATEGORIES.length], username, today.minusDays(i * 6L)));
+            }
+        }
+        rollupService.rebuild();
+        searchIndex.rebuild();
+    }
+
+    @Test
+    void testGetAllExpensesMatchesBlockingPath() {
+        LocalDate today = LocalDate.now();
+        List<Filter> filters = new ArrayList<>();
+        for (String sortField : List.of("id", "date", "amount")) {
+            for (String sortOrder : List.of("ASC", "DESC")) {
+                for (int page = 0; page < 3; page++) {
+                    filters.add(filter(null, null, null, null, null, page, sortOrder, sortField));
+                    filters.add(filter("Food", null, null, null, null, page, sortOrder, sortField));
+                    filters.add(filter(null, Money.parse("50.00"), Money.parse("120.00"), null, null, page, sortOrder, sortField));
+                    filters.add(filter("Rent", null, Money.parse("100.00"), today.minusYears(1), today.minusMonths(1), page,
+                            sortOrder, sortField));
+                }
+            }
+        }
+
+        for (Filter filter : filters) {
+            List<ExpenseView> blocking = expenseService.getAllExpenses(filter).getContent();
+            List<ExpenseView> reactive = reactiveExpenseService.getAllExpenses(filter).collectList().block();
+            assertEquals(blocking, reactive, filter::toString);
+        }
+    }
+
+    @Test
+    void testSearchByDescriptionMatchesBlockingPath() {
+        List<Filter> filters = new ArrayList<>();
+        for (int page = 0; page < 3; page++) {
+            for (String description : List.of("expense 1", "Expense", "11", "nothing")) {
+                Filter filter = filter(null, null, null, null, null, page, "ASC", "amount");
+                filter.setDescription(description);
+                filters.add(filter);
+                Filter narrowed = filter("Food", Money.parse("20.00"), null, null, null, page, "DESC", "date");
+                narrowed.setDescription(description);
+                filters.add(narrowed);
+            }
+        }
+
+        for (Filter filter : filters) {
+            List<ExpenseView> blocking = expenseService.getAllExpenses(filter).getContent();
+            List<ExpenseView> reactive = reactiveExpenseService.getAllExpenses(filter).collectList().block();
+            assertEquals(blocking, reactive, filter::toString);
+        }
+        Filter search = filter(null, null, null, null, null, 0, "ASC", "id");
+        search.setDescription("Expense 11");
+        assertFalse(reactiveExpenseService.getAllExpenses(search).collectList().block().isEmpty());
+    }
+
+    @Test
+    void testAggregateDataByPeriodMatchesBlockingPath() {
+        for (String period : List.of("lastMonth", "lastQuarter", "lastYear")) {
+            assertEquals(expenseService.aggregateDataByPeriod("parityUser", period),
+                    reactiveExpenseService.aggregateDataByPeriod("parityUser", period).block(), period);
+        }
+        assertEquals(expenseService.aggregateDataByPeriod("nonexistentUser", "lastYear"),
+                reactiveExpenseService.aggregateDataByPeriod("nonexistentUser", "lastYear").block());
+    }
+
+    @Test
+    void testQueriesRunOffTheSubscribingThread() {
+        String thread = reactiveExpenseService.getAllExpenses(filter(null, null, null, null, null, 0, "ASC", "id"))
+                .map(view -> Thread.currentThread().getName())
+                .blockFirst();
+
+        assertNotNull(thread);
+        assertTrue(thread.startsWith("boundedElastic"), thread);
+    }
+
+    @Test
+    void testInvalidRequestsFailLikeBlockingPath() {
+        Filter invalidSort = filter(null, null, null, null, null, 0, "ASC", "unknown");
+        assertThrows(CustomException.class, () -> expenseService.getAllExpenses(invalidSort));
+        assertThrows(CustomException.class, () -> reactiveExpenseService.getAllExpenses(invalidSort));
+
+        assertThrows(CustomException.class, () -> expenseService.aggregateDataByPeriod("parityUser", "lastWeek"));
+        assertThrows(CustomException.class,
+                () -> reactiveExpenseService.aggregateDataByPeriod("parityUser", "lastWeek"));
+    }
+
+    private Filter filter(String category, Money minAmount, Money maxAmount, LocalDate startDate,
+                          LocalDate endDate, int page, String sortOrder, String sortField) {
+        Filter filter = new Filter();
+        filter.setUsername("parityUser");
+        filter.setExpenseCategory(category);
+        filter.setMinAmount(minAmount);
+        filter.setMaxAmount(maxAmount);
+        filter.setStartDate(startDate);
+        filter.setEndDate(endDate);
+        filter.setPage(page);
+        filter.setSize(15);
+        filter.setSortOrder(sortOrder);
+        filter.setSortField(sortField);
+        return filter;
+    }
+}
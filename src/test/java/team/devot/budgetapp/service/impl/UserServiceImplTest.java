@@ -4,14 +4,25 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import team.devot.budgetapp.exception.CustomException;
+import team.devot.budgetapp.model.Money;
+import team.devot.budgetapp.model.TokenResponse;
+import team.devot.budgetapp.model.User;
 import team.devot.budgetapp.model.dto.UserDTO;
 import team.devot.budgetapp.repository.UserRepository;
+import team.devot.budgetapp.security.LoginSessionRegistry;
+import team.devot.budgetapp.security.TokenService;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -28,12 +39,18 @@ class UserServiceImplTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private TokenService tokenService;
+
+    @Spy
+    private LoginSessionRegistry sessionRegistry = new LoginSessionRegistry(Duration.ofMinutes(30), 100);
+
     @InjectMocks
     private UserServiceImpl userService;
 
     @Test
     void testRegisterUser() {
-        UserDTO userDTO = new UserDTO(1L,"testUser", "testPassword", "test@example.com", 100.0);
+        UserDTO userDTO = new UserDTO(1L,"testUser", "testPassword", "test@example.com", Money.parse("100.0"));
 
         when(userRepository.existsByUsername(userDTO.getUsername())).thenReturn(false);
         when(userRepository.existsByEmail(userDTO.getEmail())).thenReturn(false);
@@ -41,12 +58,21 @@ class UserServiceImplTest {
         userService.registerUser(userDTO);
 
         verify(userRepository, times(1)).save(any());
-        assertFalse(userService.getUserLoginStatus().get(userDTO.getUsername()));
+        assertFalse(sessionRegistry.isActive(userDTO.getUsername()));
+    }
+
+    @Test
+    void testRegisterUserLoggedIn() {
+        UserDTO userDTO = new UserDTO(1L,"loggedInUser", "testPassword", "test@example.com", Money.parse("100.0"));
+        sessionRegistry.start(userDTO.getUsername());
+
+        assertThrows(CustomException.class, () -> userService.registerUser(userDTO));
+        verify(userRepository, times(0)).save(any());
     }
 
     @Test
     void testRegisterUserAlreadyRegistered() {
-        UserDTO userDTO = new UserDTO(1L,"existingUser", "testPassword", "test@example.com", 100.0);
+        UserDTO userDTO = new UserDTO(1L,"existingUser", "testPassword", "test@example.com", Money.parse("100.0"));
 
         when(userRepository.existsByUsername(userDTO.getUsername())).thenReturn(true);
 
@@ -56,7 +82,7 @@ class UserServiceImplTest {
 
     @Test
     void testRegisterUserEmailAlreadyInUse() {
-        UserDTO userDTO = new UserDTO(1L,"newUser", "testPassword", "existing@example.com", 100.0);
+        UserDTO userDTO = new UserDTO(1L,"newUser", "testPassword", "existing@example.com", Money.parse("100.0"));
 
         when(userRepository.existsByUsername(userDTO.getUsername())).thenReturn(false);
         when(userRepository.existsByEmail(userDTO.getEmail())).thenReturn(true);
@@ -67,34 +93,56 @@ class UserServiceImplTest {
 
     @Test
     void testLogin() {
-        UserDTO userDTO = new UserDTO(1L,"testUser", "testPassword", "test@example.com", 100.0);
+        UserDTO userDTO = new UserDTO(1L,"testUser", "testPassword", "test@example.com", Money.parse("100.0"));
 
         when(authenticationManager.authenticate(any()))
                 .thenReturn(new UsernamePasswordAuthenticationToken(userDTO.getUsername(), userDTO.getPassword()));
 
         userService.login(userDTO);
 
-        assertTrue(userService.getUserLoginStatus().get(userDTO.getUsername()));
+        assertTrue(sessionRegistry.isActive(userDTO.getUsername()));
         assertNotNull(SecurityContextHolder.getContext().getAuthentication());
     }
 
     @Test
     void testLoginAlreadyLoggedIn() {
-        UserDTO userDTO = new UserDTO(1L,"loggedInUser", "testPassword", "test@example.com", 100.0);
-        userService.getUserLoginStatus().put(userDTO.getUsername(), true);
+        UserDTO userDTO = new UserDTO(1L,"loggedInUser", "testPassword", "test@example.com", Money.parse("100.0"));
+        sessionRegistry.start(userDTO.getUsername());
 
         assertThrows(CustomException.class, () -> userService.login(userDTO));
         verify(authenticationManager, times(0)).authenticate(any());
     }
 
+    @Test
+    void testLoginWithToken() {
+        UserDTO userDTO = new UserDTO(null, "testUser", "testPassword", null, null);
+        User user = User.builder().id(1L).username("testUser").build();
+        TokenResponse token = new TokenResponse("token", "Bearer", Instant.now());
+        when(userRepository.findByUsername("testUser")).thenReturn(Optional.of(user));
+        when(tokenService.issue(1L, "testUser")).thenReturn(token);
+
+        assertEquals(token, userService.loginWithToken(userDTO));
+        verify(authenticationManager, times(1)).authenticate(any());
+        assertFalse(sessionRegistry.isActive("testUser"));
+    }
+
+    @Test
+    void testLoginWithTokenBadCredentials() {
+        UserDTO userDTO = new UserDTO(null, "testUser", "wrongPassword", null, null);
+        when(authenticationManager.authenticate(any())).thenThrow(new BadCredentialsException("Bad credentials"));
+
+        assertThrows(BadCredentialsException.class, () -> userService.loginWithToken(userDTO));
+        verifyNoInteractions(tokenService);
+    }
+
     @Test
     void testLogout() {
-        UserDTO userDTO = new UserDTO(1L,"testUser", "testPassword", "test@example.com", 100.0);
-        userService.getUserLoginStatus().put(userDTO.getUsername(), true);
+        UserDTO userDTO = new UserDTO(1L,"testUser", "testPassword", "test@example.com", Money.parse("100.0"));
+        sessionRegistry.start(userDTO.getUsername());
 
         userService.logout(userDTO);
 
-        assertFalse(userService.getUserLoginStatus().get(userDTO.getUsername()));
+        assertFalse(sessionRegistry.isActive(userDTO.getUsername()));
         assertNull(SecurityContextHolder.getContext().getAuthentication());
     }
 }